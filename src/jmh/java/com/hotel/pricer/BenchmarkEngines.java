@@ -0,0 +1,37 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+
+final class BenchmarkEngines {
+    private BenchmarkEngines() {
+    }
+
+    static HotelPricerEngine create(ExecutorService executor, long upstreamDelayMillis) {
+        return create(executor, upstreamDelayMillis, null);
+    }
+
+    static HotelPricerEngine create(ExecutorService executor, long upstreamDelayMillis, PricingMetrics metrics) {
+        LatencyModel latency = LatencyModel.fixed(upstreamDelayMillis);
+        return HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(executor, latency))
+                .availabilityApiService(new AvailabilityApiService(executor, latency))
+                .metrics(metrics)
+                .build();
+    }
+
+    static HotelPricingRequest[] requests(int count) {
+        String[] regions = {"US", "EU", "UK", "JP", "CA", "XX"};
+        HotelPricingRequest[] requests = new HotelPricingRequest[count];
+        for (int i = 0; i < count; i++) {
+            LocalDate checkIn = LocalDate.of(2026, 3, 1).plusDays(i % 28);
+            requests[i] = new HotelPricingRequest(
+                    regions[i % regions.length] + (10000 + i),
+                    checkIn,
+                    checkIn.plusDays(1 + i % 5),
+                    "USD"
+            );
+        }
+        return requests;
+    }
+}
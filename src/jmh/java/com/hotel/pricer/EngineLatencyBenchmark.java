@@ -0,0 +1,49 @@
+package com.hotel.pricer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EngineLatencyBenchmark {
+
+    @Param({"0", "100"})
+    public long upstreamDelayMillis;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ExecutorService executor;
+    private HotelPricerEngine engine;
+    private HotelPricingRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        executor = UpstreamExecutors.bounded("latency-bench", 16);
+        engine = BenchmarkEngines.create(executor, upstreamDelayMillis, metrics ? new InMemoryPricingMetrics() : null);
+        requests = BenchmarkEngines.requests(1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public HotelPricingResponse getPricing() {
+        HotelPricingRequest request = requests[next++ & (requests.length - 1)];
+        return engine.getPricing(request).join();
+    }
+}
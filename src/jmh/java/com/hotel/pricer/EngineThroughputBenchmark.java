@@ -0,0 +1,68 @@
+package com.hotel.pricer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One operation prices {@code concurrency} requests, so ops/s multiplied by concurrency is requests/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EngineThroughputBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int concurrency;
+
+    @Param({"0", "100"})
+    public long upstreamDelayMillis;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ExecutorService executor;
+    private HotelPricerEngine engine;
+    private HotelPricingRequest[] requests;
+    private List<HotelPricingRequest> batch;
+
+    @Setup
+    public void setUp() {
+        // Enough threads that every in-flight call of the widest wave can sleep concurrently.
+        executor = UpstreamExecutors.virtualThreadsOrBounded("throughput-bench", 2 * concurrency);
+        engine = BenchmarkEngines.create(executor, upstreamDelayMillis, metrics ? new InMemoryPricingMetrics() : null);
+        requests = BenchmarkEngines.requests(concurrency);
+        batch = Arrays.asList(requests);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object concurrentGetPricing() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            futures[i] = engine.getPricing(requests[i]);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public List<HotelPricingResponse> getPricingBatch() {
+        return engine.getPricingBatch(batch).join();
+    }
+}
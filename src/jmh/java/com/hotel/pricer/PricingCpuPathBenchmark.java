@@ -0,0 +1,182 @@
+package com.hotel.pricer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure CPU paths of the engine with no upstream I/O; run with -prof gc to see bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingCpuPathBenchmark {
+    private HotelPricerEngine engine;
+    private HotelPricerEngine convertingEngine;
+    private HotelPricerEngine fixedPointEngine;
+    private CurrencyConverter currencyConverter;
+    private CachingPriceApiService cachedPrices;
+    private AvailabilityApiService availability;
+    private Map<HotelPricingRequest, Integer> slotByRequest;
+    private PricePrefetcher prefetcher;
+    private HotelPricingRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new HotelPricerEngine();
+        requests = BenchmarkEngines.requests(1024);
+        currencyConverter = new CurrencyConverter(new MockFxRateProvider(Runnable::run, LatencyModel.fixed(0)));
+        convertingEngine = HotelPricerEngine.builder().currencyConverter(currencyConverter).build();
+        fixedPointEngine = HotelPricerEngine.builder().fixedPointMoney(true).build();
+        availability = new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0));
+        cachedPrices = new CachingPriceApiService(new PriceApiService(Runnable::run, LatencyModel.fixed(0)));
+        prefetcher = PricePrefetcher.builder().priceCache(cachedPrices).hotStays(100).start();
+        slotByRequest = new HashMap<>();
+        for (HotelPricingRequest request : requests) {
+            cachedPrices.fetchBasePrice(request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate(),
+                    request.getTargetCurrency()).join();
+            slotByRequest.put(request, slotByRequest.size());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        currencyConverter.close();
+        prefetcher.close();
+    }
+
+    @Benchmark
+    public String extractRegionFromHotelId() {
+        return engine.extractRegionFromHotelId(nextRequest().getHotelId());
+    }
+
+    @Benchmark
+    public double taxLookup() {
+        return engine.taxRateFor(nextRequest().getHotelId());
+    }
+
+    @Benchmark
+    public HotelPricingResponse responseConstruction() {
+        return engine.buildResponse(nextRequest(), 250.0, true);
+    }
+
+    @Benchmark
+    public HotelPricingResponse responseConstructionWithFx() {
+        return convertingEngine.buildResponse(nextRequest(), 250.0, true);
+    }
+
+    @Benchmark
+    public HotelPricingResponse responseConstructionFixedPoint() {
+        return fixedPointEngine.buildResponse(nextRequest(), 250.0, true);
+    }
+
+    @Benchmark
+    public HotelPricingResponse unavailableResponse() {
+        return engine.buildResponse(nextRequest(), 0.0, false);
+    }
+
+    /**
+     * The batch path's deduplication: one hash and equals of a request.
+     */
+    @Benchmark
+    public Integer requestDedupLookup() {
+        return slotByRequest.get(nextRequest());
+    }
+
+    @Benchmark
+    public CompletableFuture<Double> cachedPriceLookup() {
+        HotelPricingRequest request = nextRequest();
+        return cachedPrices.fetchBasePrice(request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate(),
+                request.getTargetCurrency());
+    }
+
+    /**
+     * The engine's path: the request's own key, passed straight to the cache.
+     */
+    @Benchmark
+    public CompletableFuture<Double> cachedPriceLookupByKey() {
+        return cachedPrices.fetchBasePrice(nextRequest().priceKey());
+    }
+
+    @Benchmark
+    public CompletableFuture<Boolean> availabilityCheck() {
+        HotelPricingRequest request = nextRequest();
+        return availability.checkAvailability(request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate());
+    }
+
+    /**
+     * What the engine adds to each request when pre-fetching is on.
+     */
+    @Benchmark
+    public void prefetcherRecord() {
+        prefetcher.record(nextRequest());
+    }
+
+    /**
+     * As {@link #prefetcherRecord}, with the default number of hot stays and requests drawn from a long tail of
+     * stays, so new keys keep contending for the hot set.
+     */
+    @Benchmark
+    public void prefetcherRecordLongTail(LongTail longTail) {
+        longTail.prefetcher.record(longTail.next());
+    }
+
+    private HotelPricingRequest nextRequest() {
+        return requests[next++ & (requests.length - 1)];
+    }
+
+    /**
+     * A million requests over 200,000 distinct stays, with Zipf-distributed popularity (exponent 1).
+     */
+    @State(Scope.Thread)
+    public static class LongTail {
+        private static final int STAYS = 200_000;
+        private static final int DRAWS = 1 << 20;
+
+        private PricePrefetcher prefetcher;
+        private HotelPricingRequest[] draws;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            prefetcher = PricePrefetcher.builder()
+                    .priceCache(new CachingPriceApiService(new PriceApiService(Runnable::run, LatencyModel.fixed(0))))
+                    .start();
+            HotelPricingRequest[] stays = BenchmarkEngines.requests(STAYS);
+            double[] cumulative = new double[STAYS];
+            double total = 0;
+            for (int rank = 0; rank < STAYS; rank++) {
+                total += 1.0 / (rank + 1);
+                cumulative[rank] = total;
+            }
+            SplittableRandom random = new SplittableRandom(42);
+            draws = new HotelPricingRequest[DRAWS];
+            for (int i = 0; i < DRAWS; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                draws[i] = stays[Math.min(STAYS - 1, rank < 0 ? -rank - 1 : rank)];
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            prefetcher.close();
+        }
+
+        HotelPricingRequest next() {
+            return draws[next++ & (DRAWS - 1)];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses, per region, whether to check availability before pricing. Sequential execution saves the
+ * price call for every unavailable hotel but adds the availability latency to the critical path, so it
+ * is only chosen when the region's observed unavailability rate is high enough and the sum of both
+ * latencies still fits the latency budget.
+ */
+final class AdaptiveExecutionPolicy {
+    static final int MIN_SAMPLES = 50;
+    private static final double EWMA_WEIGHT = 0.05;
+
+    private final double unavailabilityThreshold;
+    private final long latencyBudgetNanos;
+    private final AtomicReferenceArray<RegionStats> statsByRegion = new AtomicReferenceArray<>(RegionCode.COUNT);
+
+    AdaptiveExecutionPolicy(double unavailabilityThreshold, Duration latencyBudget) {
+        if (unavailabilityThreshold < 0.0 || unavailabilityThreshold > 1.0) {
+            throw new IllegalArgumentException("unavailabilityThreshold must be between 0 and 1");
+        }
+        if (latencyBudget == null || latencyBudget.isNegative() || latencyBudget.isZero()) {
+            throw new IllegalArgumentException("latencyBudget must be positive");
+        }
+        this.unavailabilityThreshold = unavailabilityThreshold;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+    }
+
+    boolean preferAvailabilityFirst(int region) {
+        RegionStats stats = statsByRegion.get(region);
+        if (stats == null || stats.availabilitySamples.sum() < MIN_SAMPLES) {
+            return false;
+        }
+        double sequentialLatency = stats.availabilityLatencyNanos.get() + stats.priceLatencyNanos.get();
+        return stats.unavailabilityRate.get() >= unavailabilityThreshold && sequentialLatency <= latencyBudgetNanos;
+    }
+
+    void recordAvailability(int region, boolean available, long latencyNanos) {
+        RegionStats stats = statsFor(region);
+        stats.availabilitySamples.increment();
+        stats.unavailabilityRate.update(available ? 0.0 : 1.0);
+        stats.availabilityLatencyNanos.update(latencyNanos);
+    }
+
+    void recordPriceLatency(int region, long latencyNanos) {
+        statsFor(region).priceLatencyNanos.update(latencyNanos);
+    }
+
+    double unavailabilityRate(int region) {
+        RegionStats stats = statsByRegion.get(region);
+        return stats == null ? 0.0 : stats.unavailabilityRate.get();
+    }
+
+    private RegionStats statsFor(int region) {
+        RegionStats stats = statsByRegion.get(region);
+        if (stats == null) {
+            statsByRegion.compareAndSet(region, null, new RegionStats());
+            stats = statsByRegion.get(region);
+        }
+        return stats;
+    }
+
+    private static final class RegionStats {
+        final LongAdder availabilitySamples = new LongAdder();
+        final Ewma unavailabilityRate = new Ewma();
+        final Ewma availabilityLatencyNanos = new Ewma();
+        final Ewma priceLatencyNanos = new Ewma();
+    }
+
+    private static final class Ewma {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+        void update(double sample) {
+            while (true) {
+                long current = bits.get();
+                double value = Double.longBitsToDouble(current);
+                double next = Double.isNaN(value) ? sample : value + EWMA_WEIGHT * (sample - value);
+                if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                    return;
+                }
+            }
+        }
+
+        double get() {
+            double value = Double.longBitsToDouble(bits.get());
+            return Double.isNaN(value) ? 0.0 : value;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the futures of upstream calls rather than their values, so concurrent callers for the same key
+ * share one in-flight call. Completed values live for a fixed TTL; failures are never cached. Once the
+ * entry bound is exceeded, entries are evicted with the CLOCK (second-chance) approximation of LRU, which
+ * keeps reads lock-free. The last successfully loaded value is kept past its TTL so callers can fall back
+ * to it when a refresh fails. Callers always receive their own dependent copy of the shared future, so
+ * cancelling or timing out one caller's future never affects the other waiters.
+ */
+public class AsyncCache<K, V> {
+    interface EntryVisitor<K, V> {
+        void visit(K key, V value, long remainingNanos);
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> clockHand = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AsyncCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    AsyncCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("nanoClock must not be null");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    public CompletableFuture<V> get(K key, Function<? super K, CompletableFuture<V>> loader) {
+        if (key == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("key must not be null"));
+        }
+
+        Node<K, V> node = nodeFor(key);
+        CompletableFuture<V> candidate = new CompletableFuture<>();
+        CompletableFuture<V> result = acquire(node, candidate);
+        if (result == candidate) {
+            completeLoad(node, candidate, load(key, loader));
+        }
+        return result.copy();
+    }
+
+    public List<CompletableFuture<V>> getAll(List<K> keys, Function<List<K>, List<CompletableFuture<V>>> bulkLoader) {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys must not be null");
+        }
+
+        List<CompletableFuture<V>> results = new ArrayList<>(keys.size());
+        List<K> missingKeys = new ArrayList<>();
+        List<Node<K, V>> missingNodes = new ArrayList<>();
+        List<CompletableFuture<V>> claimed = new ArrayList<>();
+        for (K key : keys) {
+            if (key == null) {
+                results.add(CompletableFuture.failedFuture(new IllegalArgumentException("key must not be null")));
+                continue;
+            }
+            Node<K, V> node = nodeFor(key);
+            CompletableFuture<V> candidate = new CompletableFuture<>();
+            CompletableFuture<V> result = acquire(node, candidate);
+            if (result == candidate) {
+                missingKeys.add(key);
+                missingNodes.add(node);
+                claimed.add(candidate);
+            }
+            results.add(result.copy());
+        }
+
+        if (!missingKeys.isEmpty()) {
+            List<CompletableFuture<V>> loaded;
+            try {
+                loaded = bulkLoader.apply(missingKeys);
+                if (loaded == null || loaded.size() != missingKeys.size()) {
+                    throw new IllegalStateException("bulk loader must return one future per key");
+                }
+            } catch (RuntimeException e) {
+                loaded = new ArrayList<>(missingKeys.size());
+                for (int i = 0; i < missingKeys.size(); i++) {
+                    loaded.add(CompletableFuture.failedFuture(e));
+                }
+            }
+            for (int i = 0; i < missingKeys.size(); i++) {
+                completeLoad(missingNodes.get(i), claimed.get(i), loaded.get(i));
+            }
+        }
+        return results;
+    }
+
+    public V peekStale(K key) {
+        Node<K, V> node = key == null ? null : nodes.get(key);
+        return node == null ? null : node.lastValue;
+    }
+
+    public void invalidate(K key) {
+        Node<K, V> removed = key == null ? null : nodes.remove(key);
+        if (removed != null) {
+            // The hand only drops dead nodes while evicting, which a cache under its bound never does.
+            clockHand.remove(removed);
+        }
+    }
+
+    public void invalidateAll() {
+        nodes.clear();
+        clockHand.clear();
+    }
+
+    /**
+     * Visits every entry that holds an unexpired value, with the time it has left. Iteration is weakly
+     * consistent and takes no locks, so it runs alongside lookups and loads.
+     */
+    void forEachFresh(EntryVisitor<? super K, ? super V> visitor) {
+        long now = nanoClock.getAsLong();
+        for (Node<K, V> node : nodes.values()) {
+            CompletableFuture<V> future = node.future;
+            if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+                continue;
+            }
+            long remaining = node.expiresAt - now;
+            if (remaining > 0) {
+                visitor.visit(node.key, future.join(), remaining);
+            }
+        }
+    }
+
+    /**
+     * Stores {@code value} for {@code key} as if it had just been loaded with {@code remainingNanos} left,
+     * capped at the TTL. An entry that is present or being loaded is never replaced, and nothing counts as a
+     * hit or a miss. Returns whether the value was stored.
+     */
+    boolean preload(K key, V value, long remainingNanos) {
+        if (key == null || value == null || remainingNanos <= 0) {
+            return false;
+        }
+        Node<K, V> node = nodeFor(key);
+        CompletableFuture<V> claimed = new CompletableFuture<>();
+        if (!Node.FUTURE.compareAndSet(node, null, claimed)) {
+            return false;
+        }
+        node.expiresAt = nanoClock.getAsLong() + Math.min(remainingNanos, ttlNanos);
+        node.lastValue = value;
+        claimed.complete(value);
+        return true;
+    }
+
+    /**
+     * Loads {@code key} again if it is missing, expired or expires within {@code aheadNanos}, counting neither a
+     * hit nor a miss. While a still-fresh entry reloads, readers keep getting its current value, and a failed
+     * reload leaves it to expire as usual; a missing or expired entry is claimed as on a miss, so readers join
+     * the load. Returns the load, or null if the entry is fresh enough or already loading.
+     */
+    CompletableFuture<V> refresh(K key, long aheadNanos, Function<? super K, CompletableFuture<V>> loader) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = nodeFor(key);
+        CompletableFuture<V> current = node.future;
+        if (current != null && !current.isDone()) {
+            return null;
+        }
+        long remaining = node.expiresAt - nanoClock.getAsLong();
+        if (current == null || current.isCompletedExceptionally() || remaining <= 0) {
+            CompletableFuture<V> claimed = new CompletableFuture<>();
+            if (!Node.FUTURE.compareAndSet(node, current, claimed)) {
+                return null;
+            }
+            completeLoad(node, claimed, load(key, loader));
+            return claimed.copy();
+        }
+        CompletableFuture<V> refreshing = new CompletableFuture<>();
+        if (remaining > aheadNanos || !Node.REFRESHING.compareAndSet(node, null, refreshing)) {
+            return null;
+        }
+        load(key, loader).whenComplete((value, error) -> {
+            if (error == null && Node.FUTURE.compareAndSet(node, current, CompletableFuture.completedFuture(value))) {
+                node.expiresAt = nanoClock.getAsLong() + ttlNanos;
+                node.lastValue = value;
+            }
+            node.refreshing = null;
+            if (error != null) {
+                refreshing.completeExceptionally(error);
+            } else {
+                refreshing.complete(value);
+            }
+        });
+        return refreshing.copy();
+    }
+
+    public long size() {
+        return nodes.mappingCount();
+    }
+
+    int clockHandSizeForTesting() {
+        return clockHand.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), nodes.mappingCount());
+    }
+
+    private Node<K, V> nodeFor(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            Node<K, V> created = new Node<>(key);
+            node = nodes.putIfAbsent(key, created);
+            if (node == null) {
+                node = created;
+                clockHand.offer(created);
+                evictIfNeeded();
+            }
+        }
+        return node;
+    }
+
+    private CompletableFuture<V> acquire(Node<K, V> node, CompletableFuture<V> candidate) {
+        node.referenced = true;
+        while (true) {
+            CompletableFuture<V> current = node.future;
+            if (current != null && isUsable(node, current)) {
+                if (current.isDone()) {
+                    hits.increment();
+                } else {
+                    coalesced.increment();
+                }
+                return current;
+            }
+            if (Node.FUTURE.compareAndSet(node, current, candidate)) {
+                misses.increment();
+                return candidate;
+            }
+        }
+    }
+
+    private boolean isUsable(Node<K, V> node, CompletableFuture<V> future) {
+        if (!future.isDone()) {
+            return true;
+        }
+        return !future.isCompletedExceptionally() && nanoClock.getAsLong() - node.expiresAt < 0;
+    }
+
+    private static <K, V> CompletableFuture<V> load(K key, Function<? super K, CompletableFuture<V>> loader) {
+        try {
+            CompletableFuture<V> loaded = loader.apply(key);
+            return loaded != null ? loaded : CompletableFuture.failedFuture(new IllegalStateException("loader returned null"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void completeLoad(Node<K, V> node, CompletableFuture<V> claimed, CompletableFuture<V> loaded) {
+        if (loaded == null) {
+            loaded = CompletableFuture.failedFuture(new IllegalStateException("loader returned null"));
+        }
+        loaded.whenComplete((value, error) -> {
+            if (error != null) {
+                Node.FUTURE.compareAndSet(node, claimed, null);
+                claimed.completeExceptionally(error);
+            } else {
+                node.expiresAt = nanoClock.getAsLong() + ttlNanos;
+                node.lastValue = value;
+                claimed.complete(value);
+            }
+        });
+    }
+
+    private void evictIfNeeded() {
+        int budget = 2 * maxEntries + 1;
+        while (nodes.size() > maxEntries && budget-- > 0) {
+            Node<K, V> candidate = clockHand.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (nodes.get(candidate.key) != candidate) {
+                continue;
+            }
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                clockHand.offer(candidate);
+                continue;
+            }
+            if (nodes.remove(candidate.key, candidate)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Node<K, V> {
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<Node, CompletableFuture> FUTURE =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, CompletableFuture.class, "future");
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<Node, CompletableFuture> REFRESHING =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, CompletableFuture.class, "refreshing");
+
+        final K key;
+        volatile CompletableFuture<V> future;
+        // A reload of a still-fresh value, which stays in future until the reload succeeds.
+        volatile CompletableFuture<V> refreshing;
+        volatile long expiresAt;
+        volatile V lastValue;
+        volatile boolean referenced = true;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,11 +1,47 @@
 package com.hotel.pricer;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class AvailabilityApiService {
-    
+    static final int MAX_BATCH_SIZE = 100;
+    static final LatencyModel DEFAULT_LATENCY = LatencyModel.fixed(100);
+
+    private final Executor executor;
+    private final LatencyModel latencyModel;
+    private final FailureModel failureModel;
+
+    public AvailabilityApiService() {
+        this(UpstreamExecutors.defaultAvailabilityExecutor());
+    }
+
+    public AvailabilityApiService(Executor executor) {
+        this(executor, DEFAULT_LATENCY);
+    }
+
+    public AvailabilityApiService(Executor executor, LatencyModel latencyModel) {
+        this(executor, latencyModel, FailureModel.none());
+    }
+
+    public AvailabilityApiService(Executor executor, LatencyModel latencyModel, FailureModel failureModel) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        if (latencyModel == null) {
+            throw new IllegalArgumentException("latencyModel must not be null");
+        }
+        if (failureModel == null) {
+            throw new IllegalArgumentException("failureModel must not be null");
+        }
+        this.executor = executor;
+        this.latencyModel = latencyModel;
+        this.failureModel = failureModel;
+    }
+
     public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
         if (hotelId == null || hotelId.trim().isEmpty()) {
             return CompletableFuture.failedFuture(new IllegalArgumentException("hotelId must not be null or empty"));
@@ -19,21 +55,128 @@ public class AvailabilityApiService {
         if (!checkInDate.isBefore(checkOutDate)) {
             return CompletableFuture.failedFuture(new IllegalArgumentException("checkInDate must be before checkOutDate"));
         }
-        
-        return CompletableFuture.supplyAsync(() -> {
+
+        return UpstreamCall.supply(() -> {
+            simulateRoundTrip();
+
+            return isAvailable(hotelId, checkInDate);
+        }, executor);
+    }
+
+    /**
+     * Whether the stay {@code key} identifies is available; see {@link PriceApiService#fetchBasePrice(StayKey)}.
+     */
+    CompletableFuture<Boolean> checkAvailability(StayKey key) {
+        return checkAvailability(key.getHotelId(), key.getCheckInDate(), key.getCheckOutDate());
+    }
+
+    /**
+     * Checks, in one round-trip, whether a stay of {@code nights} can start on each day from {@code fromDate}
+     * (inclusive) to {@code toDate} (exclusive); element {@code i} is the stay arriving {@code fromDate + i}.
+     */
+    public CompletableFuture<boolean[]> checkAvailabilityForArrivals(String hotelId, LocalDate fromDate, LocalDate toDate, int nights) {
+        if (hotelId == null || hotelId.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("hotelId must not be null or empty"));
+        }
+        if (fromDate == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("fromDate must not be null"));
+        }
+        if (toDate == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("toDate must not be null"));
+        }
+        if (!fromDate.isBefore(toDate)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("fromDate must be before toDate"));
+        }
+        if (nights < 1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("nights must be at least 1"));
+        }
+
+        return UpstreamCall.supply(() -> {
+            simulateRoundTrip();
+
+            boolean[] available = new boolean[(int) (toDate.toEpochDay() - fromDate.toEpochDay())];
+            for (int i = 0; i < available.length; i++) {
+                available[i] = isAvailable(hotelId, fromDate.plusDays(i));
+            }
+            return available;
+        }, executor);
+    }
+
+    public List<CompletableFuture<Boolean>> checkAvailabilities(List<HotelPricingRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += MAX_BATCH_SIZE) {
+            List<HotelPricingRequest> chunk = new ArrayList<>(requests.subList(from, Math.min(from + MAX_BATCH_SIZE, requests.size())));
+            List<CompletableFuture<Boolean>> chunkResults = new ArrayList<>(chunk.size());
+            for (HotelPricingRequest request : chunk) {
+                chunkResults.add(request == null
+                        ? CompletableFuture.failedFuture(new IllegalArgumentException("HotelPricingRequest must not be null"))
+                        : new CompletableFuture<>());
+            }
+            results.addAll(chunkResults);
+
+            CompletableFuture.runAsync(() -> {
+                simulateRoundTrip();
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    HotelPricingRequest request = chunk.get(i);
+                    if (request != null) {
+                        chunkResults.get(i).complete(isAvailable(request.getHotelId(), request.getCheckInDate()));
+                    }
+                }
+            }, executor).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    chunkResults.forEach(result -> result.completeExceptionally(error));
+                }
+            });
+        }
+        return results;
+    }
+
+    private void simulateRoundTrip() {
+        long delayMillis = latencyModel.nextDelayMillis();
+        if (delayMillis > 0) {
             try {
-                TimeUnit.MILLISECONDS.sleep(100);
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Availability API call interrupted", e);
             }
-            
-            return isAvailable(hotelId, checkInDate);
-        });
+        }
+        if (failureModel.nextCallFails()) {
+            throw new IllegalStateException("Availability API call failed (simulated)");
+        }
     }
-    
-    private boolean isAvailable(String hotelId, LocalDate checkInDate) {
-        int hash = Math.abs((hotelId + checkInDate.toString()).hashCode());
+
+    static boolean isAvailable(String hotelId, LocalDate checkInDate) {
+        int hash = Math.abs(concatenatedHash(hotelId, checkInDate));
         return hash % 10 < 8;
     }
+
+    /**
+     * {@code (hotelId + checkInDate.toString()).hashCode()}, computed without building either string for the
+     * four-digit years {@link LocalDate#toString()} prints as {@code yyyy-MM-dd}.
+     */
+    static int concatenatedHash(String hotelId, LocalDate checkInDate) {
+        int year = checkInDate.getYear();
+        if (year < 0 || year > 9999) {
+            return (hotelId + checkInDate).hashCode();
+        }
+        int hash = hotelId.hashCode();
+        hash = appendDigits(hash, year, 4);
+        hash = 31 * hash + '-';
+        hash = appendDigits(hash, checkInDate.getMonthValue(), 2);
+        hash = 31 * hash + '-';
+        return appendDigits(hash, checkInDate.getDayOfMonth(), 2);
+    }
+
+    private static int appendDigits(int hash, int value, int digits) {
+        for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            hash = 31 * hash + ('0' + value / divisor % 10);
+        }
+        return hash;
+    }
 }
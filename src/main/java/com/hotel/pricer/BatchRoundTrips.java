@@ -0,0 +1,78 @@
+package com.hotel.pricer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs batch lookups as whole round-trips through a gate, such as a {@link ConcurrencyLimiter} or a
+ * {@link CircuitBreaker}, while handing each caller one future per request up front.
+ */
+final class BatchRoundTrips {
+    private BatchRoundTrips() {
+    }
+
+    /**
+     * Splits {@code requests} into round-trips of up to {@code maxBatchSize} and {@link #run runs} each one.
+     */
+    static <T> List<CompletableFuture<T>> chunked(List<HotelPricingRequest> requests, int maxBatchSize,
+                                                  Function<List<HotelPricingRequest>, List<CompletableFuture<T>>> call,
+                                                  Function<Supplier<CompletableFuture<Void>>, CompletableFuture<Void>> gate) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        List<CompletableFuture<T>> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += maxBatchSize) {
+            List<HotelPricingRequest> chunk = new ArrayList<>(requests.subList(from, Math.min(from + maxBatchSize, requests.size())));
+            results.addAll(run(chunk, call, gate));
+        }
+        return results;
+    }
+
+    /**
+     * Makes {@code call} for all of {@code requests} as one round-trip through {@code gate}, which completes
+     * once every item has. Each item's outcome is forwarded to its result as it arrives, so only a round-trip
+     * the gate refused or that failed as a whole fails results that are still incomplete.
+     */
+    static <T> List<CompletableFuture<T>> run(List<HotelPricingRequest> requests,
+                                              Function<List<HotelPricingRequest>, List<CompletableFuture<T>>> call,
+                                              Function<Supplier<CompletableFuture<Void>>, CompletableFuture<Void>> gate) {
+        List<CompletableFuture<T>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        gate.apply(() -> {
+            List<CompletableFuture<T>> upstream = call.apply(requests);
+            for (int i = 0; i < upstream.size(); i++) {
+                forward(upstream.get(i), results.get(i));
+            }
+            return CompletableFuture.allOf(upstream.toArray(new CompletableFuture<?>[0]));
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                results.forEach(result -> result.completeExceptionally(unwrap(error)));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Completes {@code target} with the outcome of {@code source}, unwrapped from any {@link CompletionException}.
+     */
+    static <T> void forward(CompletableFuture<T> source, CompletableFuture<T> target) {
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                target.completeExceptionally(unwrap(error));
+            } else {
+                target.complete(value);
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
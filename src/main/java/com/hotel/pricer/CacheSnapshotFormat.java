@@ -0,0 +1,322 @@
+package com.hotel.pricer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of a cache snapshot, big-endian:
+ * <pre>
+ * header   int magic "HPCS", short format version, short section count, long written-at epoch millis,
+ *          int CRC32 of the preceding 16 bytes
+ * section  byte type, int entry count, int payload length, int CRC32 of the payload, payload
+ * </pre>
+ * Entries are written back to back. A string is an unsigned short byte length followed by UTF-8, a date is
+ * an int epoch day, and an expiry is in epoch millis, since the monotonic clock does not survive a restart.
+ * <ul>
+ *   <li>Prices: hotel id, check-in, check-out, currency, expiry, double price.</li>
+ *   <li>Availability: hotel id, check-in, check-out, expiry, byte available.</li>
+ *   <li>Nightly rates: hotel id, currency, int first night, int night count, then a double rate (NaN for
+ *   none) and a long expiry per night.</li>
+ * </ul>
+ * A reader rejects a file with the wrong magic, version or header checksum, and skips sections of unknown
+ * type or with a checksum that does not match.
+ */
+final class CacheSnapshotFormat {
+    static final int MAGIC = 0x48504353;
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 20;
+    static final int SECTION_HEADER_BYTES = 13;
+    static final byte PRICES = 1;
+    static final byte AVAILABILITY = 2;
+    static final byte NIGHTLY_RATES = 3;
+
+    private static final int MAX_STRING_CHARS = 1024;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private CacheSnapshotFormat() {
+    }
+
+    static final class Encoder {
+        private final long nowMillis;
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private short sections;
+        private long entries;
+        private int sectionStart;
+        private int sectionEntries;
+
+        Encoder(long nowMillis) {
+            this.nowMillis = nowMillis;
+            buffer.position(HEADER_BYTES);
+        }
+
+        Encoder prices(AsyncCache<StayKey, Double> cache) {
+            beginSection(PRICES);
+            cache.forEachFresh((key, price, remainingNanos) -> {
+                String hotelId = key.getHotelId();
+                if (!encodable(hotelId) || !encodable(key.getCurrency())) {
+                    return;
+                }
+                putString(hotelId);
+                putDates(key);
+                putString(key.getCurrency());
+                ensure(16);
+                buffer.putLong(expiresAtMillis(remainingNanos));
+                buffer.putDouble(price);
+                sectionEntries++;
+            });
+            endSection();
+            return this;
+        }
+
+        Encoder availability(AsyncCache<StayKey, Boolean> cache) {
+            beginSection(AVAILABILITY);
+            cache.forEachFresh((key, available, remainingNanos) -> {
+                String hotelId = key.getHotelId();
+                if (!encodable(hotelId)) {
+                    return;
+                }
+                putString(hotelId);
+                putDates(key);
+                ensure(9);
+                buffer.putLong(expiresAtMillis(remainingNanos));
+                buffer.put((byte) (available ? 1 : 0));
+                sectionEntries++;
+            });
+            endSection();
+            return this;
+        }
+
+        Encoder nightlyRates(NightlyRateCache cache) {
+            beginSection(NIGHTLY_RATES);
+            cache.forEachFresh((hotelId, currency, fromDay, rates, remainingNanos) -> {
+                if (!encodable(hotelId) || !encodable(currency) || fromDay != (int) fromDay) {
+                    return;
+                }
+                putString(hotelId);
+                putString(currency);
+                ensure(8 + 16 * rates.length);
+                buffer.putInt((int) fromDay);
+                buffer.putInt(rates.length);
+                for (int i = 0; i < rates.length; i++) {
+                    buffer.putDouble(rates[i]);
+                    buffer.putLong(Double.isNaN(rates[i]) ? 0 : expiresAtMillis(remainingNanos[i]));
+                }
+                sectionEntries++;
+            });
+            endSection();
+            return this;
+        }
+
+        long getEntryCount() {
+            return entries;
+        }
+
+        /**
+         * Fills in the header and returns the encoded snapshot, ready to be written.
+         */
+        ByteBuffer finish() {
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, FORMAT_VERSION);
+            buffer.putShort(6, sections);
+            buffer.putLong(8, nowMillis);
+            buffer.putInt(16, crc(buffer, 0, 16));
+            buffer.flip();
+            return buffer;
+        }
+
+        private void beginSection(byte type) {
+            ensure(SECTION_HEADER_BYTES);
+            sectionStart = buffer.position();
+            sectionEntries = 0;
+            buffer.put(type);
+            buffer.position(sectionStart + SECTION_HEADER_BYTES);
+        }
+
+        private void endSection() {
+            int payloadStart = sectionStart + SECTION_HEADER_BYTES;
+            int length = buffer.position() - payloadStart;
+            buffer.putInt(sectionStart + 1, sectionEntries);
+            buffer.putInt(sectionStart + 5, length);
+            buffer.putInt(sectionStart + 9, crc(buffer, payloadStart, length));
+            sections++;
+            entries += sectionEntries;
+        }
+
+        private long expiresAtMillis(long remainingNanos) {
+            return nowMillis + remainingNanos / NANOS_PER_MILLI;
+        }
+
+        private void putDates(StayKey key) {
+            ensure(8);
+            buffer.putInt(key.getCheckInDay());
+            buffer.putInt(key.getCheckOutDay());
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(2 + bytes.length);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        private static boolean encodable(String value) {
+            return value != null && value.length() <= MAX_STRING_CHARS;
+        }
+    }
+
+    /**
+     * Restores a snapshot into the given caches, any of which may be null to skip its section. Entries that
+     * have expired by {@code nowMillis} are dropped.
+     */
+    static final class Decoder {
+        private final long nowMillis;
+        private final AsyncCache<StayKey, Double> prices;
+        private final AsyncCache<StayKey, Boolean> availability;
+        private final NightlyRateCache nightlyRates;
+        private long restored;
+        private int skippedSections;
+
+        Decoder(long nowMillis, AsyncCache<StayKey, Double> prices, AsyncCache<StayKey, Boolean> availability,
+                NightlyRateCache nightlyRates) {
+            this.nowMillis = nowMillis;
+            this.prices = prices;
+            this.availability = availability;
+            this.nightlyRates = nightlyRates;
+        }
+
+        /**
+         * Throws {@link IllegalStateException} if {@code snapshot} is not a snapshot this version can read.
+         */
+        void decode(ByteBuffer snapshot) {
+            ByteBuffer buffer = snapshot.duplicate();
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a cache snapshot");
+            }
+            if (buffer.getInt(16) != crc(buffer, 0, 16)) {
+                throw new IllegalStateException("Cache snapshot header checksum mismatch");
+            }
+            short version = buffer.getShort(4);
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported cache snapshot version " + version);
+            }
+
+            int sections = buffer.getShort(6);
+            buffer.position(HEADER_BYTES);
+            for (int section = 0; section < sections; section++) {
+                if (buffer.remaining() < SECTION_HEADER_BYTES) {
+                    skippedSections += sections - section;
+                    return;
+                }
+                byte type = buffer.get();
+                buffer.getInt();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    skippedSections += sections - section;
+                    return;
+                }
+                int payloadStart = buffer.position();
+                buffer.position(payloadStart + length);
+                if (checksum != crc(buffer, payloadStart, length)) {
+                    skippedSections++;
+                    continue;
+                }
+                ByteBuffer payload = buffer.duplicate();
+                payload.position(payloadStart).limit(payloadStart + length);
+                try {
+                    if (!decodeSection(type, payload)) {
+                        skippedSections++;
+                    }
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    skippedSections++;
+                }
+            }
+        }
+
+        long getRestoredCount() {
+            return restored;
+        }
+
+        int getSkippedSectionCount() {
+            return skippedSections;
+        }
+
+        private boolean decodeSection(byte type, ByteBuffer payload) {
+            switch (type) {
+                case PRICES:
+                    while (payload.hasRemaining()) {
+                        StayKey key = new StayKey(getString(payload), payload.getInt(), payload.getInt(),
+                                CurrencyUnit.intern(getString(payload)));
+                        long remaining = remainingNanos(payload.getLong());
+                        double price = payload.getDouble();
+                        if (prices != null && prices.preload(key, price, remaining)) {
+                            restored++;
+                        }
+                    }
+                    return true;
+                case AVAILABILITY:
+                    while (payload.hasRemaining()) {
+                        StayKey key = new StayKey(getString(payload), payload.getInt(), payload.getInt(), null);
+                        long remaining = remainingNanos(payload.getLong());
+                        boolean available = payload.get() != 0;
+                        if (availability != null && availability.preload(key, available, remaining)) {
+                            restored++;
+                        }
+                    }
+                    return true;
+                case NIGHTLY_RATES:
+                    while (payload.hasRemaining()) {
+                        String hotelId = getString(payload);
+                        String currency = CurrencyUnit.intern(getString(payload));
+                        long fromDay = payload.getInt();
+                        int nights = payload.getInt();
+                        if (nights < 0 || nights > payload.remaining() / 16) {
+                            throw new IllegalArgumentException("Bad night count " + nights);
+                        }
+                        double[] rates = new double[nights];
+                        long[] remaining = new long[nights];
+                        for (int i = 0; i < nights; i++) {
+                            rates[i] = payload.getDouble();
+                            remaining[i] = remainingNanos(payload.getLong());
+                        }
+                        if (nightlyRates != null) {
+                            restored += nightlyRates.preload(hotelId, currency, fromDay, rates, remaining);
+                        }
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private long remainingNanos(long expiresAtMillis) {
+            long remainingMillis = expiresAtMillis - nowMillis;
+            return remainingMillis <= 0 ? 0 : Math.min(remainingMillis, Long.MAX_VALUE / NANOS_PER_MILLI) * NANOS_PER_MILLI;
+        }
+
+        private static String getString(ByteBuffer payload) {
+            byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+            payload.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer range = buffer.duplicate();
+        range.limit(offset + length).position(offset);
+        CRC32 crc = new CRC32();
+        crc.update(range);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,243 @@
+package com.hotel.pricer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the contents of the upstream caches across restarts. On start it restores the snapshot file in the
+ * background: requests are served meanwhile, missing the cache as usual, and restored entries never replace
+ * ones already loaded. Entries that expired while the process was down are dropped, and restored entries
+ * keep only the time they had left. It then rewrites the snapshot periodically and once more on
+ * {@link #close()}.
+ *
+ * <p>A snapshot walks the caches without locking them and is written to a temporary file that is then
+ * renamed over the old one, so requests never wait for it and a crash mid-write leaves the previous
+ * snapshot intact. See {@link CacheSnapshotFormat} for the file layout.
+ *
+ * <pre>
+ * CacheSnapshotter snapshots = CacheSnapshotter.builder(Path.of("pricer-cache.snapshot"))
+ *         .priceCache(prices).availabilityCache(availability)
+ *         .start();
+ * </pre>
+ */
+public final class CacheSnapshotter implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(30);
+
+    private final Path file;
+    private final CachingPriceApiService priceCache;
+    private final CachingAvailabilityApiService availabilityCache;
+    private final NightlyPriceApiService nightlyRates;
+    private final LongSupplier wallClockMillis;
+    private final ScheduledExecutorService scheduler;
+    private final CompletableFuture<Long> restored = new CompletableFuture<>();
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder failedSnapshots = new LongAdder();
+    private volatile int skippedSections;
+    private volatile RuntimeException lastError;
+
+    private CacheSnapshotter(Builder builder) {
+        this.file = builder.file.toAbsolutePath();
+        this.priceCache = builder.priceCache;
+        this.availabilityCache = builder.availabilityCache;
+        this.nightlyRates = builder.nightlyRates;
+        this.wallClockMillis = builder.wallClockMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder(Path file) {
+        return new Builder(file);
+    }
+
+    /**
+     * Completes with the number of entries restored (nights, for nightly rates), or 0 when there is no
+     * snapshot yet. Fails if the file is unreadable or not a snapshot this version understands.
+     */
+    public CompletableFuture<Long> restored() {
+        return restored.copy();
+    }
+
+    /**
+     * Writes a snapshot now, on the calling thread, and returns the number of entries written.
+     */
+    public synchronized long snapshotNow() {
+        CacheSnapshotFormat.Encoder encoder = new CacheSnapshotFormat.Encoder(wallClockMillis.getAsLong());
+        if (priceCache != null) {
+            encoder.prices(priceCache.cache());
+        }
+        if (availabilityCache != null) {
+            encoder.availability(availabilityCache.cache());
+        }
+        if (nightlyRates != null) {
+            encoder.nightlyRates(nightlyRates.cache());
+        }
+        ByteBuffer snapshot = encoder.finish();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (snapshot.hasRemaining()) {
+                    channel.write(snapshot);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cache snapshot " + file, e);
+        }
+        snapshots.increment();
+        return encoder.getEntryCount();
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    public long getFailedSnapshotCount() {
+        return failedSnapshots.sum();
+    }
+
+    /**
+     * Sections of the restored snapshot that were skipped because they were corrupt or of an unknown type.
+     */
+    public int getSkippedSectionCount() {
+        return skippedSections;
+    }
+
+    public RuntimeException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops the periodic snapshots and writes a final one.
+     */
+    @Override
+    public void close() {
+        // Lets a restore or snapshot in progress finish; pending periodic runs are dropped.
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotNow();
+    }
+
+    private void start(Duration interval) {
+        scheduler.execute(this::restore);
+        long period = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void restore() {
+        CacheSnapshotFormat.Decoder decoder = new CacheSnapshotFormat.Decoder(wallClockMillis.getAsLong(),
+                priceCache != null ? priceCache.cache() : null,
+                availabilityCache != null ? availabilityCache.cache() : null,
+                nightlyRates != null ? nightlyRates.cache() : null);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Cache snapshot " + file + " is too large");
+            }
+            decoder.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            skippedSections = decoder.getSkippedSectionCount();
+            restored.complete(decoder.getRestoredCount());
+        } catch (NoSuchFileException e) {
+            restored.complete(0L);
+        } catch (IOException e) {
+            restored.completeExceptionally(new UncheckedIOException("Failed to read cache snapshot " + file, e));
+        } catch (RuntimeException e) {
+            restored.completeExceptionally(e);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshotNow();
+        } catch (RuntimeException e) {
+            lastError = e;
+            failedSnapshots.increment();
+        }
+    }
+
+    public static class Builder {
+        private final Path file;
+        private CachingPriceApiService priceCache;
+        private CachingAvailabilityApiService availabilityCache;
+        private NightlyPriceApiService nightlyRates;
+        private Duration interval = DEFAULT_INTERVAL;
+        private LongSupplier wallClockMillis = System::currentTimeMillis;
+
+        private Builder(Path file) {
+            if (file == null) {
+                throw new IllegalArgumentException("file must not be null");
+            }
+            this.file = file;
+        }
+
+        public Builder priceCache(CachingPriceApiService priceCache) {
+            this.priceCache = priceCache;
+            return this;
+        }
+
+        public Builder availabilityCache(CachingAvailabilityApiService availabilityCache) {
+            this.availabilityCache = availabilityCache;
+            return this;
+        }
+
+        public Builder nightlyRates(NightlyPriceApiService nightlyRates) {
+            this.nightlyRates = nightlyRates;
+            return this;
+        }
+
+        public Builder interval(Duration interval) {
+            if (interval == null || interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("interval must be positive");
+            }
+            this.interval = interval;
+            return this;
+        }
+
+        Builder wallClockMillis(LongSupplier wallClockMillis) {
+            if (wallClockMillis == null) {
+                throw new IllegalArgumentException("wallClockMillis must not be null");
+            }
+            this.wallClockMillis = wallClockMillis;
+            return this;
+        }
+
+        /**
+         * Starts restoring the snapshot in the background and schedules periodic snapshots after it.
+         */
+        public CacheSnapshotter start() {
+            if (priceCache == null && availabilityCache == null && nightlyRates == null) {
+                throw new IllegalArgumentException("At least one cache must be configured");
+            }
+            CacheSnapshotter snapshotter = new CacheSnapshotter(this);
+            snapshotter.start(interval);
+            return snapshotter;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hotel.pricer;
+
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final long size;
+
+    public CacheStats(long hits, long misses, long coalesced, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses + coalesced;
+        return requests == 0 ? 0.0 : (double) (hits + coalesced) / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", coalesced=" + coalesced +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                '}';
+    }
+}
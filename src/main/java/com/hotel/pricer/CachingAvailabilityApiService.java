@@ -0,0 +1,133 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class CachingAvailabilityApiService extends AvailabilityApiService {
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final AvailabilityApiService delegate;
+    private final AsyncCache<StayKey, Boolean> cache;
+
+    public CachingAvailabilityApiService(AvailabilityApiService delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingAvailabilityApiService(AvailabilityApiService delegate, Duration ttl, int maxEntries) {
+        this(delegate, new AsyncCache<>(ttl, maxEntries));
+    }
+
+    CachingAvailabilityApiService(AvailabilityApiService delegate, AsyncCache<StayKey, Boolean> cache) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (hotelId == null || checkInDate == null || checkOutDate == null
+                || !StayKey.isRepresentable(checkInDate) || !StayKey.isRepresentable(checkOutDate)) {
+            return delegate.checkAvailability(hotelId, checkInDate, checkOutDate);
+        }
+
+        return checkAvailability(new StayKey(hotelId, checkInDate, checkOutDate, null));
+    }
+
+    @Override
+    CompletableFuture<Boolean> checkAvailability(StayKey key) {
+        return cache.get(key, delegate::checkAvailability);
+    }
+
+    /**
+     * Each arrival shares its cache entry with the stay it stands for, so flexible-date searches and single
+     * stays reuse each other's results. Only the span of arrivals not already cached goes upstream.
+     */
+    @Override
+    public CompletableFuture<boolean[]> checkAvailabilityForArrivals(String hotelId, LocalDate fromDate, LocalDate toDate, int nights) {
+        if (hotelId == null || fromDate == null || toDate == null || !fromDate.isBefore(toDate) || nights < 1
+                || !StayKey.isRepresentable(fromDate) || !StayKey.isRepresentable(toDate.plusDays(nights))) {
+            return delegate.checkAvailabilityForArrivals(hotelId, fromDate, toDate, nights);
+        }
+
+        List<StayKey> keys = new ArrayList<>();
+        int toDay = (int) toDate.toEpochDay();
+        for (int arrival = (int) fromDate.toEpochDay(); arrival < toDay; arrival++) {
+            keys.add(new StayKey(hotelId, arrival, arrival + nights, null));
+        }
+        List<CompletableFuture<Boolean>> results = cache.getAll(keys, missingKeys -> {
+            int first = missingKeys.get(0).getCheckInDay();
+            int last = missingKeys.get(missingKeys.size() - 1).getCheckInDay();
+            CompletableFuture<boolean[]> span = delegate.checkAvailabilityForArrivals(hotelId,
+                    LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last + 1), nights);
+            List<CompletableFuture<Boolean>> loaded = new ArrayList<>(missingKeys.size());
+            for (StayKey key : missingKeys) {
+                int index = key.getCheckInDay() - first;
+                loaded.add(span.thenApply(available -> available[index]));
+            }
+            return loaded;
+        });
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            boolean[] available = new boolean[results.size()];
+            for (int i = 0; i < available.length; i++) {
+                available[i] = results.get(i).join();
+            }
+            return available;
+        });
+    }
+
+    @Override
+    public List<CompletableFuture<Boolean>> checkAvailabilities(List<HotelPricingRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        Map<StayKey, HotelPricingRequest> requestByKey = new HashMap<>();
+        List<StayKey> keys = new ArrayList<>(requests.size());
+        for (HotelPricingRequest request : requests) {
+            StayKey key = request == null ? null : StayKey.forAvailability(request);
+            if (key != null) {
+                requestByKey.putIfAbsent(key, request);
+            }
+            keys.add(key);
+        }
+
+        return cache.getAll(keys, missingKeys -> {
+            List<HotelPricingRequest> missingRequests = new ArrayList<>(missingKeys.size());
+            for (StayKey key : missingKeys) {
+                missingRequests.add(requestByKey.get(key));
+            }
+            return delegate.checkAvailabilities(missingRequests);
+        });
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Reloads {@code key} ahead of its expiry, as {@link AsyncCache#refresh} does, through {@code limiter} at
+     * {@link RequestPriority#BACKGROUND} priority if it is not null. Returns null if there is nothing to do.
+     */
+    CompletableFuture<Boolean> refresh(StayKey key, long aheadNanos, ConcurrencyLimiter limiter) {
+        return cache.refresh(key, aheadNanos, k -> limiter == null
+                ? delegate.checkAvailability(k)
+                : limiter.submit(RequestPriority.BACKGROUND, () -> delegate.checkAvailability(k)));
+    }
+
+    AsyncCache<StayKey, Boolean> cache() {
+        return cache;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
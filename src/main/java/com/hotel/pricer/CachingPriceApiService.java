@@ -0,0 +1,125 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class CachingPriceApiService extends PriceApiService {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final PriceApiService delegate;
+    private final AsyncCache<StayKey, Double> cache;
+
+    public CachingPriceApiService(PriceApiService delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingPriceApiService(PriceApiService delegate, Duration ttl, int maxEntries) {
+        this(delegate, new AsyncCache<>(ttl, maxEntries));
+    }
+
+    CachingPriceApiService(PriceApiService delegate, AsyncCache<StayKey, Double> cache) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        if (!isCacheable(hotelId, checkInDate, checkOutDate, currency)) {
+            return delegate.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency);
+        }
+
+        return fetchBasePrice(new StayKey(hotelId, checkInDate, checkOutDate, currency));
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePrice(StayKey key) {
+        return cache.get(key, delegate::fetchBasePrice);
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePriceUncached(StayKey key) {
+        return delegate.fetchBasePriceUncached(key);
+    }
+
+    @Override
+    public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        return delegate.fetchNightlyRates(hotelId, fromDate, toDate, currency);
+    }
+
+    @Override
+    public String quoteCurrency(String hotelId) {
+        return delegate.quoteCurrency(hotelId);
+    }
+
+    @Override
+    public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        Map<StayKey, HotelPricingRequest> requestByKey = new HashMap<>();
+        List<StayKey> keys = new ArrayList<>(requests.size());
+        for (HotelPricingRequest request : requests) {
+            StayKey key = request == null ? null : StayKey.forPrice(request);
+            if (key != null) {
+                requestByKey.putIfAbsent(key, request);
+            }
+            keys.add(key);
+        }
+
+        return cache.getAll(keys, missingKeys -> {
+            List<HotelPricingRequest> missingRequests = new ArrayList<>(missingKeys.size());
+            for (StayKey key : missingKeys) {
+                missingRequests.add(requestByKey.get(key));
+            }
+            return delegate.fetchBasePrices(missingRequests);
+        });
+    }
+
+    public Double peekStale(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        if (!isCacheable(hotelId, checkInDate, checkOutDate, currency)) {
+            return null;
+        }
+        return cache.peekStale(new StayKey(hotelId, checkInDate, checkOutDate, currency));
+    }
+
+    Double peekStale(StayKey key) {
+        return cache.peekStale(key);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Reloads {@code key} ahead of its expiry, as {@link AsyncCache#refresh} does, through {@code limiter} at
+     * {@link RequestPriority#BACKGROUND} priority if it is not null. Returns null if there is nothing to do.
+     */
+    CompletableFuture<Double> refresh(StayKey key, long aheadNanos, ConcurrencyLimiter limiter) {
+        return cache.refresh(key, aheadNanos, k -> limiter == null
+                ? delegate.fetchBasePrice(k)
+                : limiter.submit(RequestPriority.BACKGROUND, () -> delegate.fetchBasePrice(k)));
+    }
+
+    AsyncCache<StayKey, Double> cache() {
+        return cache;
+    }
+
+    private static boolean isCacheable(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        return hotelId != null && checkInDate != null && checkOutDate != null && currency != null
+                && StayKey.isRepresentable(checkInDate) && StayKey.isRepresentable(checkOutDate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
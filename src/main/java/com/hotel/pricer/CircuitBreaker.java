@@ -0,0 +1,442 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling an upstream that is failing or too slow, so callers fail fast instead of queueing behind it.
+ *
+ * <p>While {@link CircuitState#CLOSED} the outcomes of the last {@code windowSize} calls are kept in a
+ * sliding window. Once it holds at least {@code minimumCalls}, the breaker opens if the share of failures
+ * reaches the failure-rate threshold or the share of calls slower than the slow-call duration reaches the
+ * slow-call-rate threshold. While {@link CircuitState#OPEN} every call fails with a
+ * {@link CircuitOpenException}. After the open duration the next call moves it to
+ * {@link CircuitState#HALF_OPEN}, which lets {@code halfOpenCalls} trial calls through and then closes or
+ * reopens by the same thresholds.
+ *
+ * <p>A call failing with {@link IllegalArgumentException} was rejected for its input and counts as a
+ * success. A call cancelled because its caller timed out (see {@link HotelPricerEngine.Builder#priceTimeout})
+ * counts as a failure. A call cancelled for any other reason, such as a hedge that lost, counts only if it had
+ * already run for the slow-call duration, as a slow call. Outcomes of calls started before the last
+ * state change are ignored. All state is updated with compare-and-set; no call ever blocks on the breaker.
+ *
+ * <pre>
+ * CircuitBreaker breaker = CircuitBreaker.builder("price")
+ *         .failureRateThreshold(0.5)
+ *         .slowCalls(Duration.ofMillis(500), 0.8)
+ *         .openDuration(Duration.ofSeconds(10))
+ *         .build();
+ * </pre>
+ */
+public final class CircuitBreaker {
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(2);
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    public static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+    private static final CircuitState[] STATES = CircuitState.values();
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW = 4;
+
+    /**
+     * Notified of every state change, on the thread whose call caused it. Must be cheap and must not throw.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(String breakerName, CircuitState from, CircuitState to);
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Phase> phase;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder notPermitted = new LongAdder();
+    private final LongAdder[] transitions = new LongAdder[STATES.length];
+
+    private CircuitBreaker(Builder builder) {
+        this.name = builder.name;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallNanos = builder.slowCallDuration.toNanos();
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.nanoClock = builder.nanoClock;
+        this.listeners.addAll(builder.listeners);
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new LongAdder();
+        }
+        this.phase = new AtomicReference<>(new Phase(CircuitState.CLOSED, nanoClock.getAsLong(), new Window(windowSize), 0));
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Makes {@code call} if the breaker permits it and records its outcome, or fails straight away with a
+     * {@link CircuitOpenException}. Cancelling the returned future cancels the upstream call.
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call) {
+        if (call == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("call must not be null"));
+        }
+        Phase permit = acquire();
+        if (permit == null) {
+            notPermitted.increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException(name));
+        }
+
+        long start = nanoClock.getAsLong();
+        CompletableFuture<T> upstream;
+        try {
+            upstream = call.get();
+            if (upstream == null) {
+                upstream = CompletableFuture.failedFuture(new IllegalStateException("call returned null"));
+            }
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        BreakerCall<T> result = new BreakerCall<>(upstream);
+        result.whenComplete((value, error) -> record(permit, nanoClock.getAsLong() - start, error, result.timedOut));
+        upstream.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    public void addListener(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        listeners.add(listener);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitState getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Share of failed calls in the current window: the sliding window when closed, the trial calls when
+     * half-open, and 0 when open.
+     */
+    public double getFailureRate() {
+        Window window = phase.get().window;
+        return window == null ? 0.0 : window.rate(window.failures);
+    }
+
+    public double getSlowCallRate() {
+        Window window = phase.get().window;
+        return window == null ? 0.0 : window.rate(window.slowCalls);
+    }
+
+    /**
+     * Calls rejected with a {@link CircuitOpenException}.
+     */
+    public long getNotPermittedCount() {
+        return notPermitted.sum();
+    }
+
+    /**
+     * How many times the breaker has entered {@code state}.
+     */
+    public long getTransitionCount(CircuitState state) {
+        return transitions[state.ordinal()].sum();
+    }
+
+    /**
+     * Returns the phase to record the call's outcome against, or null if the call is not permitted.
+     */
+    private Phase acquire() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case HALF_OPEN:
+                    return current.takePermit() ? current : null;
+                default:
+                    if (nanoClock.getAsLong() - current.since < openNanos) {
+                        return null;
+                    }
+                    // Whoever loses this race sees the half-open phase on the next pass.
+                    transition(current, CircuitState.HALF_OPEN);
+            }
+        }
+    }
+
+    private void record(Phase permit, long latencyNanos, Throwable error, boolean timedOut) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean slow = latencyNanos >= slowCallNanos;
+        boolean cancelled = cause instanceof CancellationException && !timedOut;
+        if (cancelled && !slow) {
+            permit.releasePermit();
+            return;
+        }
+        if (permit != phase.get()) {
+            return;
+        }
+
+        boolean failed = cause != null && !(cause instanceof IllegalArgumentException) && !cancelled;
+        int calls = permit.window.record((failed ? FAILURE : SUCCESS) | (slow ? SLOW : 0));
+        if (permit.state == CircuitState.CLOSED) {
+            if (calls >= minimumCalls && tripped(permit.window)) {
+                transition(permit, CircuitState.OPEN);
+            }
+        } else if (calls >= halfOpenCalls) {
+            transition(permit, tripped(permit.window) ? CircuitState.OPEN : CircuitState.CLOSED);
+        }
+    }
+
+    private boolean tripped(Window window) {
+        return window.rate(window.failures) >= failureRateThreshold
+                || window.rate(window.slowCalls) >= slowCallRateThreshold;
+    }
+
+    private void transition(Phase from, CircuitState to) {
+        Phase next = new Phase(to, nanoClock.getAsLong(),
+                to == CircuitState.OPEN ? null : new Window(to == CircuitState.CLOSED ? windowSize : halfOpenCalls),
+                to == CircuitState.HALF_OPEN ? halfOpenCalls : 0);
+        if (!phase.compareAndSet(from, next)) {
+            return;
+        }
+        transitions[to.ordinal()].increment();
+        for (Listener listener : listeners) {
+            listener.onStateChange(name, from.state, to);
+        }
+    }
+
+    private static final class BreakerCall<T> extends CompletableFuture<T> implements TimeoutCancellable {
+        final CompletableFuture<T> upstream;
+        volatile boolean timedOut;
+
+        BreakerCall(CompletableFuture<T> upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                upstream.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean cancelForTimeout() {
+            // Set first, so the outcome recorded on cancellation sees it.
+            timedOut = true;
+            boolean cancelled = super.cancel(true);
+            if (cancelled) {
+                TimeoutCancellable.cancelForTimeout(upstream);
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * One stay in a state. A new phase (and window) is created on every transition, so outcomes recorded
+     * against an old phase never leak into the current one.
+     */
+    private static final class Phase {
+        final CircuitState state;
+        final long since;
+        final Window window;
+        final AtomicInteger permits;
+
+        Phase(CircuitState state, long since, Window window, int permits) {
+            this.state = state;
+            this.since = since;
+            this.window = window;
+            this.permits = state == CircuitState.HALF_OPEN ? new AtomicInteger(permits) : null;
+        }
+
+        boolean takePermit() {
+            while (true) {
+                int available = permits.get();
+                if (available <= 0) {
+                    return false;
+                }
+                if (permits.compareAndSet(available, available - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void releasePermit() {
+            if (permits != null) {
+                permits.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A ring of the last outcomes with running counts. The counts are updated before the call count, so
+     * whoever sees the window reach a size also sees every outcome that got it there.
+     */
+    private static final class Window {
+        final AtomicIntegerArray outcomes;
+        final AtomicLong cursor = new AtomicLong();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * Records an outcome, evicting the oldest once the window is full, and returns the calls it holds.
+         */
+        int record(int outcome) {
+            int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+            int evicted = outcomes.getAndSet(slot, outcome);
+            count(failures, evicted, outcome, FAILURE);
+            count(slowCalls, evicted, outcome, SLOW);
+            return evicted == 0 ? calls.incrementAndGet() : calls.get();
+        }
+
+        double rate(AtomicInteger count) {
+            int total = calls.get();
+            return total == 0 ? 0.0 : Math.max(0, count.get()) / (double) total;
+        }
+
+        private static void count(AtomicInteger counter, int evicted, int outcome, int flag) {
+            int delta = ((outcome & flag) != 0 ? 1 : 0) - ((evicted & flag) != 0 ? 1 : 0);
+            if (delta != 0) {
+                counter.addAndGet(delta);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final String name;
+        private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private Duration slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+        private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+        private Duration openDuration = DEFAULT_OPEN_DURATION;
+        private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+        private LongSupplier nanoClock = System::nanoTime;
+        private final List<Listener> listeners = new ArrayList<>();
+
+        private Builder(String name) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("name must not be null or empty");
+            }
+            this.name = name;
+        }
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = requireRate(failureRateThreshold, "failureRateThreshold");
+            return this;
+        }
+
+        /**
+         * Calls taking at least {@code duration} are slow; the breaker opens once they make up
+         * {@code rateThreshold} of the window. By default only a window of nothing but calls over two seconds
+         * opens it.
+         */
+        public Builder slowCalls(Duration duration, double rateThreshold) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("slow call duration must be positive");
+            }
+            this.slowCallDuration = duration;
+            this.slowCallRateThreshold = requireRate(rateThreshold, "slowCallRateThreshold");
+            return this;
+        }
+
+        /**
+         * Keeps the outcomes of the last {@code windowSize} calls, and judges them once it holds at least
+         * {@code minimumCalls}.
+         */
+        public Builder window(int windowSize, int minimumCalls) {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("windowSize must be at least 1");
+            }
+            if (minimumCalls < 1 || minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+            }
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        public Builder openDuration(Duration openDuration) {
+            if (openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("openDuration must be positive");
+            }
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            if (halfOpenCalls < 1) {
+                throw new IllegalArgumentException("halfOpenCalls must be at least 1");
+            }
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        public Builder listener(Listener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("listener must not be null");
+            }
+            this.listeners.add(listener);
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier nanoClock) {
+            if (nanoClock == null) {
+                throw new IllegalArgumentException("nanoClock must not be null");
+            }
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+
+        private static double requireRate(double rate, String name) {
+            if (!(rate > 0.0 && rate <= 1.0)) {
+                throw new IllegalArgumentException(name + " must be greater than 0 and at most 1");
+            }
+            return rate;
+        }
+    }
+}
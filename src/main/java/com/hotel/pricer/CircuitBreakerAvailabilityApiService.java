@@ -0,0 +1,48 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every call to the delegate through a {@link CircuitBreaker}; see {@link CircuitBreakerPriceApiService}.
+ */
+public class CircuitBreakerAvailabilityApiService extends AvailabilityApiService {
+    private final AvailabilityApiService delegate;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakerAvailabilityApiService(AvailabilityApiService delegate, CircuitBreaker breaker) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (breaker == null) {
+            throw new IllegalArgumentException("breaker must not be null");
+        }
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return breaker.call(() -> delegate.checkAvailability(hotelId, checkInDate, checkOutDate));
+    }
+
+    @Override
+    CompletableFuture<Boolean> checkAvailability(StayKey key) {
+        return breaker.call(() -> delegate.checkAvailability(key));
+    }
+
+    @Override
+    public CompletableFuture<boolean[]> checkAvailabilityForArrivals(String hotelId, LocalDate fromDate, LocalDate toDate, int nights) {
+        return breaker.call(() -> delegate.checkAvailabilityForArrivals(hotelId, fromDate, toDate, nights));
+    }
+
+    @Override
+    public List<CompletableFuture<Boolean>> checkAvailabilities(List<HotelPricingRequest> requests) {
+        return BatchRoundTrips.chunked(requests, MAX_BATCH_SIZE, delegate::checkAvailabilities, breaker::call);
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+}
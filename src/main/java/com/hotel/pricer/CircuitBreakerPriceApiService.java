@@ -0,0 +1,66 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every call to the delegate through a {@link CircuitBreaker}, so an upstream that keeps failing or
+ * timing out is given a rest and callers fail fast with a {@link CircuitOpenException} instead. A batch is
+ * one call per upstream round-trip of up to {@link PriceApiService#MAX_BATCH_SIZE} requests, and fails if
+ * any of its prices does. Wrap this service in a {@link CachingPriceApiService} rather than the other way
+ * round, so cache hits are served while the breaker is open.
+ */
+public class CircuitBreakerPriceApiService extends PriceApiService {
+    private final PriceApiService delegate;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakerPriceApiService(PriceApiService delegate, CircuitBreaker breaker) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (breaker == null) {
+            throw new IllegalArgumentException("breaker must not be null");
+        }
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        return breaker.call(() -> delegate.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency));
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePrice(StayKey key) {
+        return breaker.call(() -> delegate.fetchBasePrice(key));
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePriceUncached(StayKey key) {
+        return breaker.call(() -> delegate.fetchBasePriceUncached(key));
+    }
+
+    @Override
+    public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+        return BatchRoundTrips.chunked(requests, MAX_BATCH_SIZE, delegate::fetchBasePrices, breaker::call);
+    }
+
+    @Override
+    public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        return breaker.call(() -> delegate.fetchNightlyRates(hotelId, fromDate, toDate, currency));
+    }
+
+    @Override
+    public String quoteCurrency(String hotelId) {
+        return delegate.quoteCurrency(hotelId);
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    PriceApiService getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotel.pricer;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A call was not made because its {@link CircuitBreaker} is open, or half-open with every trial permit taken.
+ */
+public class CircuitOpenException extends RejectedExecutionException {
+    private static final long serialVersionUID = 1L;
+
+    private final String breakerName;
+
+    public CircuitOpenException(String breakerName) {
+        super("Circuit breaker '" + breakerName + "' is open");
+        this.breakerName = breakerName;
+    }
+
+    public String getBreakerName() {
+        return breakerName;
+    }
+}
@@ -0,0 +1,13 @@
+package com.hotel.pricer;
+
+/**
+ * States of a {@link CircuitBreaker}.
+ */
+public enum CircuitState {
+    /** Calls go through and their outcomes are recorded in the sliding window. */
+    CLOSED,
+    /** Calls fail fast with a {@link CircuitOpenException} until the open duration has passed. */
+    OPEN,
+    /** A limited number of trial calls go through; their outcomes decide whether to close or reopen. */
+    HALF_OPEN
+}
@@ -0,0 +1,396 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of concurrent calls to one upstream without blocking callers. A call that finds no free
+ * permit waits in a queue of at most {@code maxQueued} entries and starts when a running call finishes;
+ * once the queue is full (or with {@code maxQueued} of 0) it fails straight away with a
+ * {@link RejectedExecutionException}.
+ *
+ * <p>Queued calls start in order of arrival plus their {@link RequestPriority#getYield() priority's yield},
+ * which is FIFO within a priority. A full queue makes room for a call by shedding the newest queued call of a
+ * less urgent priority, if there is one. A call given a deadline that passes while it is queued fails with a
+ * {@link TimeoutException} instead of starting.
+ *
+ * <p>The limit is either fixed or adapted with AIMD: each call that completes within the latency threshold
+ * raises it by {@code 1/limit} (about one per limit's worth of calls), and each call that is slower, fails
+ * with a timeout or is cancelled multiplies it by {@value #BACKOFF_RATIO}. Other failures leave it alone,
+ * since they say nothing about load.
+ */
+public final class ConcurrencyLimiter {
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final int maxQueued;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    // Drains requested but not yet run; only the thread that takes it from 0 drains.
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final LongSupplier nanoClock;
+    private final ConcurrentLinkedDeque<LimitedCall<?>>[] waiters;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, int maxQueued,
+                               LongSupplier nanoClock) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold == null ? 0 : latencyThreshold.toNanos();
+        this.maxQueued = maxQueued;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.nanoClock = nanoClock;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConcurrentLinkedDeque<LimitedCall<?>>[] waiters = new ConcurrentLinkedDeque[RequestPriority.values().length];
+        this.waiters = waiters;
+        for (int i = 0; i < waiters.length; i++) {
+            waiters[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    public static ConcurrencyLimiter fixed(int limit, int maxQueued) {
+        return fixed(limit, maxQueued, System::nanoTime);
+    }
+
+    static ConcurrencyLimiter fixed(int limit, int maxQueued, LongSupplier nanoClock) {
+        return new ConcurrencyLimiter(limit, limit, limit, null, maxQueued, nanoClock);
+    }
+
+    public static ConcurrencyLimiter adaptive(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, int maxQueued) {
+        if (latencyThreshold == null || latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+            throw new IllegalArgumentException("latencyThreshold must be positive");
+        }
+        return new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, maxQueued, System::nanoTime);
+    }
+
+    /**
+     * Runs {@code call} once a permit is free and returns its result. The permit is held until the future
+     * returned by {@code call} completes. Cancelling the returned future removes a queued call, or cancels
+     * the running one.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        return submit(RequestPriority.NORMAL, false, 0, call);
+    }
+
+    public <T> CompletableFuture<T> submit(RequestPriority priority, Supplier<CompletableFuture<T>> call) {
+        return submit(priority, false, 0, call);
+    }
+
+    /**
+     * As {@link #submit(RequestPriority, Supplier)}, but fails with a {@link TimeoutException} instead of
+     * starting {@code call} once {@code deadlineNanos}, on the {@link System#nanoTime()} clock, has passed. A
+     * queued call fails at its deadline, without waiting for a permit to free up.
+     */
+    public <T> CompletableFuture<T> submit(RequestPriority priority, long deadlineNanos, Supplier<CompletableFuture<T>> call) {
+        return submit(priority, true, deadlineNanos, call);
+    }
+
+    private <T> CompletableFuture<T> submit(RequestPriority priority, boolean hasDeadline, long deadlineNanos,
+                                            Supplier<CompletableFuture<T>> call) {
+        if (priority == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("priority must not be null"));
+        }
+        if (call == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("call must not be null"));
+        }
+        long now = nanoClock.getAsLong();
+        if (hasDeadline && now - deadlineNanos >= 0) {
+            expired.increment();
+            return CompletableFuture.failedFuture(deadlinePassed());
+        }
+
+        LimitedCall<T> limited = new LimitedCall<>(call, priority, hasDeadline, deadlineNanos, now + priority.yieldNanos());
+        if (tryAcquire()) {
+            start(limited);
+            return limited;
+        }
+        if (!reserveQueueSlot() && !shedLessUrgentThan(priority)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Concurrency limit of " + getLimit() + " reached and " + maxQueued + " calls already queued"));
+        }
+        waiters[priority.ordinal()].offer(limited);
+        if (hasDeadline) {
+            CompletableFuture.delayedExecutor(deadlineNanos - now, TimeUnit.NANOSECONDS).execute(() -> expire(limited));
+        }
+        // A permit may have been released between the failed acquire and the offer.
+        drain();
+        return limited;
+    }
+
+    public int getLimit() {
+        return (int) currentLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Calls rejected because the queue was full, including queued calls shed for more urgent ones.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Calls failed without starting because their deadline passed.
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) currentLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean reserveQueueSlot() {
+        while (true) {
+            int current = queued.get();
+            if (current >= maxQueued) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands the queue slot of the newest call of the least urgent priority below {@code priority} to the caller.
+     */
+    private boolean shedLessUrgentThan(RequestPriority priority) {
+        for (int i = waiters.length - 1; i > priority.ordinal(); i--) {
+            LimitedCall<?> shed = waiters[i].pollLast();
+            if (shed != null) {
+                rejected.increment();
+                shed.completeExceptionally(new RejectedExecutionException(
+                        "Shed from a full queue for a more urgent call"));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts queued calls while permits are free. One thread drains at a time: a drain requested meanwhile,
+     * such as the release of a queued call that completed as it started, only sends that thread round again,
+     * so the stack stays flat however long the queue is and each result is delivered as its call completes.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            startQueued();
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void startQueued() {
+        while (hasWaiters() && tryAcquire()) {
+            LimitedCall<?> next = pollNext();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (next.isDone()) {
+                // Cancelled (or shed) while queued.
+                inFlight.decrementAndGet();
+                continue;
+            }
+            if (next.hasDeadline && nanoClock.getAsLong() - next.deadlineNanos >= 0) {
+                expired.increment();
+                next.completeExceptionally(deadlinePassed());
+                inFlight.decrementAndGet();
+                continue;
+            }
+            start(next);
+        }
+    }
+
+    // Unless a drain has taken it first, or the clock says the deadline is still ahead.
+    private void expire(LimitedCall<?> limited) {
+        if (nanoClock.getAsLong() - limited.deadlineNanos >= 0 && waiters[limited.priority.ordinal()].remove(limited)) {
+            queued.decrementAndGet();
+            expired.increment();
+            limited.completeExceptionally(deadlinePassed());
+        }
+    }
+
+    private boolean hasWaiters() {
+        for (ConcurrentLinkedDeque<LimitedCall<?>> queue : waiters) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes the head with the earliest arrival plus yield. A racing drain may take that head first, in which
+     * case this returns the next call of the same priority, or null.
+     */
+    private LimitedCall<?> pollNext() {
+        int best = -1;
+        long bestRank = 0;
+        for (int i = 0; i < waiters.length; i++) {
+            LimitedCall<?> head = waiters[i].peekFirst();
+            if (head != null && (best < 0 || head.rank - bestRank < 0)) {
+                best = i;
+                bestRank = head.rank;
+            }
+        }
+        return best < 0 ? null : waiters[best].pollFirst();
+    }
+
+    private static TimeoutException deadlinePassed() {
+        return new TimeoutException("Deadline passed before the call started");
+    }
+
+    private <T> void start(LimitedCall<T> limited) {
+        long startNanos = nanoClock.getAsLong();
+        CompletableFuture<T> upstream;
+        try {
+            upstream = limited.call.get();
+            if (upstream == null) {
+                upstream = CompletableFuture.failedFuture(new IllegalStateException("call returned null"));
+            }
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        limited.upstream = upstream;
+        upstream.whenComplete((value, error) -> {
+            release(nanoClock.getAsLong() - startNanos, error);
+            if (error != null) {
+                limited.completeExceptionally(error);
+            } else {
+                limited.complete(value);
+            }
+        });
+        if (limited.isCancelled()) {
+            if (limited.timedOut) {
+                TimeoutCancellable.cancelForTimeout(upstream);
+            } else {
+                upstream.cancel(true);
+            }
+        }
+    }
+
+    private void release(long latencyNanos, Throwable error) {
+        if (latencyThresholdNanos > 0) {
+            adjustLimit(latencyNanos, error);
+        }
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void adjustLimit(long latencyNanos, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean overloaded = latencyNanos > latencyThresholdNanos
+                || cause instanceof TimeoutException || cause instanceof CancellationException;
+        if (cause != null && !overloaded) {
+            return;
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = overloaded
+                    ? Math.max(minLimit, limit * BACKOFF_RATIO)
+                    : Math.min(maxLimit, limit + 1.0 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private double currentLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private final class LimitedCall<T> extends CompletableFuture<T> implements TimeoutCancellable {
+        final Supplier<CompletableFuture<T>> call;
+        final RequestPriority priority;
+        final boolean hasDeadline;
+        final long deadlineNanos;
+        final long rank;
+        volatile CompletableFuture<T> upstream;
+        volatile boolean timedOut;
+
+        LimitedCall(Supplier<CompletableFuture<T>> call, RequestPriority priority, boolean hasDeadline, long deadlineNanos,
+                    long rank) {
+            this.call = call;
+            this.priority = priority;
+            this.hasDeadline = hasDeadline;
+            this.deadlineNanos = deadlineNanos;
+            this.rank = rank;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return cancel(mayInterruptIfRunning, false);
+        }
+
+        @Override
+        public boolean cancelForTimeout() {
+            return cancel(true, true);
+        }
+
+        private boolean cancel(boolean mayInterruptIfRunning, boolean timeout) {
+            if (timeout) {
+                timedOut = true;
+            }
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (!cancelled) {
+                return false;
+            }
+            CompletableFuture<T> running = upstream;
+            if (running != null && timeout) {
+                TimeoutCancellable.cancelForTimeout(running);
+            } else if (running != null) {
+                running.cancel(mayInterruptIfRunning);
+            } else if (waiters[priority.ordinal()].remove(this)) {
+                queued.decrementAndGet();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Converts amounts using an in-memory FX rate snapshot. A background thread refreshes the snapshot every
+ * half TTL, so rates are replaced before they expire. Without the background thread, the first conversion
+ * past the TTL starts one refresh and keeps using the current rates meanwhile. Either way the request path
+ * never waits on the provider once the first load is done, and a failed refresh leaves the previous rates
+ * in place. A fetch still running after half the TTL fails with a {@link java.util.concurrent.TimeoutException},
+ * so a provider that never answers cannot hold up the refreshes after it.
+ */
+public final class CurrencyConverter implements AutoCloseable {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    private final FxRateProvider provider;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService refresher;
+    private final AtomicReference<CompletableFuture<Void>> inFlightRefresh = new AtomicReference<>();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private volatile Snapshot snapshot;
+    private volatile CompletableFuture<Void> firstLoad;
+
+    public CurrencyConverter(FxRateProvider provider) {
+        this(provider, DEFAULT_TTL);
+    }
+
+    public CurrencyConverter(FxRateProvider provider, Duration ttl) {
+        this(provider, ttl, System::nanoTime, true);
+    }
+
+    CurrencyConverter(FxRateProvider provider, Duration ttl, LongSupplier nanoClock, boolean scheduleRefresh) {
+        if (provider == null) {
+            throw new IllegalArgumentException("provider must not be null");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("nanoClock must not be null");
+        }
+        this.provider = provider;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.firstLoad = refresh();
+        if (scheduleRefresh) {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "fx-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, ttlNanos / 2);
+            refresher.scheduleAtFixedRate(this::refresh, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            this.refresher = null;
+        }
+    }
+
+    /**
+     * Completes once rates are available. If the first load failed, asks the provider again.
+     */
+    public CompletableFuture<Void> ready() {
+        CompletableFuture<Void> load = firstLoad;
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (load.isCompletedExceptionally()) {
+            load = refresh();
+            firstLoad = load;
+        }
+        return load;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public boolean supports(String currency) {
+        Snapshot current = snapshot;
+        return current != null && current.rates.containsKey(currency);
+    }
+
+    public double convert(double amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency == null || toCurrency == null) {
+            throw new IllegalArgumentException("currency must not be null");
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("FX rates have not been loaded yet");
+        }
+        // With the background refresher running the request path skips the clock read, which costs more
+        // than the conversion itself on some platforms.
+        if (refresher == null && nanoClock.getAsLong() - current.expiresAt >= 0) {
+            refresh();
+        }
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        return amount * current.rate(toCurrency) / current.rate(fromCurrency);
+    }
+
+    /**
+     * Starts a refresh unless one is already running, and returns the running one.
+     */
+    public CompletableFuture<Void> refresh() {
+        while (true) {
+            CompletableFuture<Void> running = inFlightRefresh.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Void> claimed = new CompletableFuture<>();
+            if (!inFlightRefresh.compareAndSet(null, claimed)) {
+                continue;
+            }
+            CompletableFuture<Map<String, Double>> fetched;
+            try {
+                fetched = provider.fetchRates();
+                if (fetched == null) {
+                    fetched = CompletableFuture.failedFuture(new IllegalStateException("provider returned null"));
+                }
+            } catch (RuntimeException e) {
+                fetched = CompletableFuture.failedFuture(e);
+            }
+            // Time out a copy, so the provider's own future is left alone.
+            fetched.copy().orTimeout(Math.max(1, ttlNanos / 2), TimeUnit.NANOSECONDS).whenComplete((rates, error) -> {
+                Throwable failure = error;
+                if (failure == null) {
+                    try {
+                        snapshot = new Snapshot(rates, nanoClock.getAsLong() + ttlNanos);
+                        refreshes.increment();
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    failedRefreshes.increment();
+                }
+                inFlightRefresh.set(null);
+                if (failure != null) {
+                    claimed.completeExceptionally(failure);
+                } else {
+                    claimed.complete(null);
+                }
+            });
+            return claimed;
+        }
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getFailedRefreshCount() {
+        return failedRefreshes.sum();
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private static final class Snapshot {
+        final Map<String, Double> rates;
+        final long expiresAt;
+
+        Snapshot(Map<String, Double> rates, long expiresAt) {
+            if (rates == null) {
+                throw new IllegalArgumentException("FX rates must not be null");
+            }
+            Map<String, Double> copy = new HashMap<>();
+            for (Map.Entry<String, Double> entry : rates.entrySet()) {
+                Double rate = entry.getValue();
+                if (entry.getKey() == null || rate == null || rate.isNaN() || rate.isInfinite() || rate <= 0.0) {
+                    throw new IllegalArgumentException("Invalid FX rate for " + entry.getKey() + ": " + rate);
+                }
+                copy.put(entry.getKey(), rate);
+            }
+            this.rates = copy;
+            this.expiresAt = expiresAt;
+        }
+
+        double rate(String currency) {
+            Double rate = rates.get(currency);
+            if (rate == null) {
+                throw new IllegalArgumentException("Unsupported currency: " + currency);
+            }
+            return rate;
+        }
+    }
+}
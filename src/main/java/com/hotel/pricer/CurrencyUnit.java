@@ -0,0 +1,104 @@
+package com.hotel.pricer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A currency code and the number of decimals in its minor unit (2 for USD, 0 for JPY, 3 for BHD), used to
+ * hold amounts as exact {@code long} minor units. Units for three-letter upper-case codes are interned, so
+ * every request and response for a currency shares one code string; at most 26^3 of them can exist. Other
+ * codes get an uninterned unit with two decimals.
+ */
+public final class CurrencyUnit {
+    private static final ConcurrentHashMap<String, CurrencyUnit> INTERNED = new ConcurrentHashMap<>();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final String code;
+    private final int scale;
+    private final long factor;
+
+    private CurrencyUnit(String code, int scale) {
+        this.code = code;
+        this.scale = scale;
+        this.factor = POWERS_OF_TEN[scale];
+    }
+
+    public static CurrencyUnit of(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("currency code must not be null or empty");
+        }
+        CurrencyUnit unit = INTERNED.get(code);
+        if (unit != null) {
+            return unit;
+        }
+        if (!isIsoShaped(code)) {
+            return new CurrencyUnit(code, 2);
+        }
+        return INTERNED.computeIfAbsent(code, c -> new CurrencyUnit(c, defaultScale(c)));
+    }
+
+    /**
+     * Returns the shared instance of {@code code} when it is an interned currency code, otherwise
+     * {@code code} itself.
+     */
+    static String intern(String code) {
+        return isIsoShaped(code) ? of(code).code : code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Rounds {@code amount} half-even to a whole number of minor units. Amounts whose scaled value lies
+     * within 10^-6 of a tie are rounded on their exact decimal form, so 2.675 becomes 268 cents even though
+     * {@code 2.675 * 100} is 267.49999999999997 in binary.
+     */
+    public long toMinorUnits(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("amount must be finite but was " + amount);
+        }
+        double scaled = amount * factor;
+        if (Math.abs(scaled) >= 0x1p52) {
+            throw new IllegalArgumentException("amount " + amount + " is too large for " + code + " minor units");
+        }
+        double fraction = Math.abs(scaled - Math.floor(scaled));
+        if (Math.abs(fraction - 0.5) < 1e-6) {
+            return BigDecimal.valueOf(amount).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+        return (long) Math.rint(scaled);
+    }
+
+    public double toAmount(long minorUnits) {
+        return (double) minorUnits / factor;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+
+    private static boolean isIsoShaped(String code) {
+        return code.length() == 3
+                && isUpperAscii(code.charAt(0)) && isUpperAscii(code.charAt(1)) && isUpperAscii(code.charAt(2));
+    }
+
+    private static boolean isUpperAscii(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static int defaultScale(String code) {
+        try {
+            int digits = Currency.getInstance(code).getDefaultFractionDigits();
+            return digits >= 0 && digits < POWERS_OF_TEN.length ? digits : 2;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+}
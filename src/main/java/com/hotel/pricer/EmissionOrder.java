@@ -0,0 +1,11 @@
+package com.hotel.pricer;
+
+/**
+ * Order in which a pricing stream emits its responses.
+ */
+public enum EmissionOrder {
+    /** Each response is emitted as soon as it is priced. */
+    COMPLETION,
+    /** Responses are emitted in request order; a slow request holds back the ones behind it. */
+    INPUT
+}
@@ -0,0 +1,318 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs {@link HotelPricerEngine#getPricing} under load, closed- or open-loop (see {@link LoadMode}), and
+ * reports throughput, error rate and latency percentiles corrected for coordinated omission. Requests are
+ * drawn from a seeded random mix of hotels, regions, dates and currencies. Results from the warm-up period are
+ * discarded.
+ *
+ * <pre>
+ * LoadReport report = EngineLoadDriver.builder(engine)
+ *         .mode(LoadMode.OPEN_LOOP).targetQps(500).duration(Duration.ofSeconds(30))
+ *         .build().run();
+ * </pre>
+ */
+public final class EngineLoadDriver {
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] REGIONS = {"US", "EU", "UK", "JP", "CA", "AU"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CAD"};
+    private static final LocalDate FIRST_CHECK_IN = LocalDate.of(2026, 6, 1);
+
+    private final HotelPricerEngine engine;
+    private final LoadMode mode;
+    private final double targetQps;
+    private final int concurrency;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int hotelCount;
+    private final long seed;
+
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+
+    private EngineLoadDriver(Builder builder) {
+        this.engine = builder.engine;
+        this.mode = builder.mode;
+        this.targetQps = builder.targetQps;
+        this.concurrency = builder.concurrency;
+        this.durationNanos = builder.duration.toNanos();
+        this.warmupNanos = builder.warmup.toNanos();
+        this.hotelCount = builder.hotelCount;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(HotelPricerEngine engine) {
+        return new Builder(engine);
+    }
+
+    /**
+     * Runs the load once and returns what was measured after the warm-up. An open-loop run waits up to
+     * {@link #REQUEST_TIMEOUT} for its last requests, then counts the rest as errors.
+     */
+    public LoadReport run() throws InterruptedException {
+        responseTime.reset();
+        serviceTime.reset();
+        errors.reset();
+        degraded.reset();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        if (mode == LoadMode.OPEN_LOOP) {
+            runOpenLoop(start, measureFrom, end);
+        } else {
+            runClosedLoop(start, measureFrom, end);
+        }
+        return new LoadReport(responseTime, targetQps > 0 ? serviceTime : responseTime,
+                errors.sum(), degraded.sum(), System.nanoTime() - measureFrom);
+    }
+
+    private void runOpenLoop(long start, long measureFrom, long end) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetQps);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<CompletableFuture<HotelPricingResponse>> inFlight = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            if (!sleepUntil(intended)) {
+                throw new InterruptedException();
+            }
+            HotelPricingRequest request = randomRequest(random, hotelCount);
+            long sent = System.nanoTime();
+            CompletableFuture<HotelPricingResponse> call = engine.getPricing(request);
+            if (intended >= measureFrom) {
+                call.whenComplete((response, error) -> record(intended, sent, response, error));
+                inFlight.add(call);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                    .get(REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Recorded per request.
+        } catch (TimeoutException e) {
+            // Cancelling records each straggler as an error, with its latency so far.
+            inFlight.forEach(call -> call.cancel(true));
+        }
+    }
+
+    private void runClosedLoop(long start, long measureFrom, long end) throws InterruptedException {
+        long intervalNanos = targetQps > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / targetQps) : 0;
+        ExecutorService clients = UpstreamExecutors.virtualThreadsOrBounded("load-driver", concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                SplittableRandom random = new SplittableRandom(seed + worker);
+                // Stagger paced clients so their requests are spread evenly over each interval.
+                long firstSend = start + intervalNanos * worker / concurrency;
+                workers.add(clients.submit(() -> runClient(random, firstSend, intervalNanos, measureFrom, end)));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load driver client failed", e.getCause());
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void runClient(SplittableRandom random, long firstSend, long intervalNanos, long measureFrom, long end) {
+        long intended = firstSend;
+        while (!Thread.currentThread().isInterrupted()) {
+            if (intervalNanos == 0) {
+                intended = System.nanoTime();
+            }
+            if (intended >= end) {
+                return;
+            }
+            if (!sleepUntil(intended)) {
+                return;
+            }
+            HotelPricingRequest request = randomRequest(random, hotelCount);
+            long sent = System.nanoTime();
+            CompletableFuture<HotelPricingResponse> call = engine.getPricing(request);
+            HotelPricingResponse response = null;
+            Throwable error = null;
+            try {
+                response = call.get(REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                error = e.getCause();
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                error = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (intended >= measureFrom) {
+                record(intended, sent, response, error);
+            }
+            intended += intervalNanos;
+        }
+    }
+
+    private void record(long intended, long sent, HotelPricingResponse response, Throwable error) {
+        long done = System.nanoTime();
+        responseTime.record(done - intended);
+        serviceTime.record(done - sent);
+        if (error != null || response == null || response.isFailed()) {
+            errors.increment();
+        } else if (response.isDegraded()) {
+            degraded.increment();
+        }
+    }
+
+    private static boolean sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static HotelPricingRequest randomRequest(SplittableRandom random, int hotelCount) {
+        String hotelId = REGIONS[random.nextInt(REGIONS.length)] + (10000 + random.nextInt(hotelCount));
+        LocalDate checkIn = FIRST_CHECK_IN.plusDays(random.nextInt(90));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+        return new HotelPricingRequest(hotelId, checkIn, checkOut, CURRENCIES[random.nextInt(CURRENCIES.length)]);
+    }
+
+    /**
+     * Arguments: {@code closed} or {@code open} (default open), target QPS (default 200, 0 for an unpaced closed
+     * loop), duration in seconds (default 20), clients for the closed loop (default 32). The engine runs against
+     * mock suppliers with long-tail latency, periodic stalls and sporadic errors.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadMode mode = args.length > 0 && "closed".equals(args[0]) ? LoadMode.CLOSED_LOOP : LoadMode.OPEN_LOOP;
+        double qps = args.length > 1 ? Double.parseDouble(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        ExecutorService upstream = UpstreamExecutors.virtualThreadsOrBounded("load-upstream", 512);
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(upstream,
+                        LatencyModel.logNormal(80, 0.6, 1).withPauses(Duration.ofSeconds(10), Duration.ofMillis(300)),
+                        FailureModel.rate(0.01, 2)))
+                .availabilityApiService(new AvailabilityApiService(upstream,
+                        LatencyModel.bimodal(LatencyModel.fixed(30), LatencyModel.logNormal(150, 0.4, 3), 0.1, 4),
+                        FailureModel.rate(0.005, 5)))
+                .priceTimeout(Duration.ofMillis(500))
+                .availabilityTimeout(Duration.ofMillis(500))
+                .degradeOnFailure(true)
+                .build();
+
+        EngineLoadDriver driver = builder(engine).mode(mode).targetQps(qps).concurrency(clients)
+                .duration(duration).warmup(Duration.ofSeconds(5)).build();
+        System.out.println("Running " + mode + " at " + (qps > 0 ? qps + " qps" : "full speed") + " for " + duration.getSeconds() + "s...");
+        System.out.println(driver.run());
+        upstream.shutdownNow();
+    }
+
+    public static class Builder {
+        private final HotelPricerEngine engine;
+        private LoadMode mode = LoadMode.CLOSED_LOOP;
+        private double targetQps;
+        private int concurrency = 16;
+        private Duration duration = Duration.ofSeconds(10);
+        private Duration warmup = Duration.ZERO;
+        private int hotelCount = 1_000;
+        private long seed = 42;
+
+        private Builder(HotelPricerEngine engine) {
+            if (engine == null) {
+                throw new IllegalArgumentException("engine must not be null");
+            }
+            this.engine = engine;
+        }
+
+        public Builder mode(LoadMode mode) {
+            if (mode == null) {
+                throw new IllegalArgumentException("mode must not be null");
+            }
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Requests per second across all clients, at most one per nanosecond. Required for
+         * {@link LoadMode#OPEN_LOOP}; for a closed loop, 0 (the default) sends as fast as responses come back.
+         */
+        public Builder targetQps(double targetQps) {
+            if (!(targetQps >= 0) || targetQps > TimeUnit.SECONDS.toNanos(1)) {
+                throw new IllegalArgumentException("targetQps must be between 0 and " + TimeUnit.SECONDS.toNanos(1));
+            }
+            this.targetQps = targetQps;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be at least 1");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder warmup(Duration warmup) {
+            if (warmup == null || warmup.isNegative()) {
+                throw new IllegalArgumentException("warmup must not be negative");
+            }
+            this.warmup = warmup;
+            return this;
+        }
+
+        public Builder hotelCount(int hotelCount) {
+            if (hotelCount < 1) {
+                throw new IllegalArgumentException("hotelCount must be at least 1");
+            }
+            this.hotelCount = hotelCount;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public EngineLoadDriver build() {
+            if (mode == LoadMode.OPEN_LOOP && targetQps == 0) {
+                throw new IllegalArgumentException("An open-loop run needs a targetQps");
+            }
+            return new EngineLoadDriver(this);
+        }
+    }
+}
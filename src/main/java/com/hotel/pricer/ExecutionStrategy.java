@@ -0,0 +1,7 @@
+package com.hotel.pricer;
+
+public enum ExecutionStrategy {
+    PARALLEL,
+    AVAILABILITY_FIRST,
+    ADAPTIVE
+}
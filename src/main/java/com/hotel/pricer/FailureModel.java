@@ -0,0 +1,28 @@
+package com.hotel.pricer;
+
+import java.util.Random;
+
+/**
+ * Decides whether a simulated upstream round-trip fails. A failed call completes exceptionally with an
+ * {@link IllegalStateException} after its normal latency.
+ */
+@FunctionalInterface
+public interface FailureModel {
+
+    boolean nextCallFails();
+
+    static FailureModel none() {
+        return () -> false;
+    }
+
+    /**
+     * Fails each call independently with the given probability, drawn from a seeded sequence.
+     */
+    static FailureModel rate(double errorRate, long seed) {
+        if (!(errorRate >= 0 && errorRate <= 1)) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1");
+        }
+        Random random = new Random(seed);
+        return () -> random.nextDouble() < errorRate;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A stay of {@code nights} that may start on any day from {@code earliestCheckIn} as long as it ends by
+ * {@code latestCheckOut}, at one or more hotels.
+ */
+public class FlexibleSearchRequest {
+    static final int MAX_WINDOW_DAYS = 366;
+
+    private final List<String> hotelIds;
+    private final LocalDate earliestCheckIn;
+    private final LocalDate latestCheckOut;
+    private final int nights;
+    private final String targetCurrency;
+
+    public FlexibleSearchRequest(String hotelId, LocalDate earliestCheckIn, LocalDate latestCheckOut, int nights, String targetCurrency) {
+        this(hotelId == null ? null : List.of(hotelId), earliestCheckIn, latestCheckOut, nights, targetCurrency);
+    }
+
+    public FlexibleSearchRequest(List<String> hotelIds, LocalDate earliestCheckIn, LocalDate latestCheckOut, int nights, String targetCurrency) {
+        if (hotelIds == null || hotelIds.isEmpty()) {
+            throw new IllegalArgumentException("hotelIds must not be null or empty");
+        }
+        for (String hotelId : hotelIds) {
+            if (hotelId == null || hotelId.trim().isEmpty()) {
+                throw new IllegalArgumentException("hotelId must not be null or empty");
+            }
+        }
+        if (earliestCheckIn == null) {
+            throw new IllegalArgumentException("earliestCheckIn must not be null");
+        }
+        if (latestCheckOut == null) {
+            throw new IllegalArgumentException("latestCheckOut must not be null");
+        }
+        if (targetCurrency == null || targetCurrency.trim().isEmpty()) {
+            throw new IllegalArgumentException("targetCurrency must not be null or empty");
+        }
+        if (nights < 1) {
+            throw new IllegalArgumentException("nights must be at least 1");
+        }
+        long windowDays = latestCheckOut.toEpochDay() - earliestCheckIn.toEpochDay();
+        if (windowDays < nights) {
+            throw new IllegalArgumentException("Window from " + earliestCheckIn + " to " + latestCheckOut + " is shorter than " + nights + " nights");
+        }
+        if (windowDays > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must not exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        this.hotelIds = List.copyOf(hotelIds);
+        this.earliestCheckIn = earliestCheckIn;
+        this.latestCheckOut = latestCheckOut;
+        this.nights = nights;
+        this.targetCurrency = targetCurrency;
+    }
+
+    public List<String> getHotelIds() {
+        return hotelIds;
+    }
+
+    public LocalDate getEarliestCheckIn() {
+        return earliestCheckIn;
+    }
+
+    public LocalDate getLatestCheckOut() {
+        return latestCheckOut;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public String getTargetCurrency() {
+        return targetCurrency;
+    }
+
+    /**
+     * Day after the last possible check-in.
+     */
+    LocalDate getCheckInEnd() {
+        return latestCheckOut.minusDays(nights - 1);
+    }
+}
@@ -0,0 +1,162 @@
+package com.hotel.pricer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimates how often each key was recently seen, and which {@code topK} keys are seen most, in memory that
+ * depends only on {@code topK}. Counts are kept in a count-min sketch of {@value #DEPTH} rows, which can only
+ * overestimate; once the sketch has seen ten times its width in additions every counter is halved, so keys
+ * that stop being requested fade out. The top keys are tracked beside it: once they are full, a key replaces
+ * the least frequent of {@value #EVICTION_SAMPLE_SIZE} of them picked at random if its estimate is higher,
+ * so an admission costs the same however large {@code topK} is.
+ *
+ * <p>Recording is lock-free for keys already tracked and for keys below the admission threshold, the lowest
+ * estimate the last admission sampled. That is nearly all of them once the top keys settle. Concurrent
+ * increments and halving may lose a count, which only makes an estimate a little low.
+ */
+final class FrequencySketch<K> {
+    static final int DEPTH = 4;
+    static final int MAX_TOP_K = 65_536;
+    static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final int topK;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicIntegerArray counters;
+    private final AtomicInteger additions = new AtomicInteger();
+    // Each tracked key's slot in tracked, which is filled in order and then only ever replaced in place.
+    private final Map<K, Integer> top = new ConcurrentHashMap<>();
+    private final Object[] tracked;
+    // Guarded by this, like tracked.
+    private int trackedSize;
+    private final SplittableRandom random = new SplittableRandom();
+    private volatile int admissionThreshold;
+
+    FrequencySketch(int topK) {
+        if (topK < 1 || topK > MAX_TOP_K) {
+            throw new IllegalArgumentException("topK must be between 1 and " + MAX_TOP_K);
+        }
+        this.topK = topK;
+        this.width = Integer.highestOneBit(Math.max(64, topK * 16) - 1) << 1;
+        this.sampleSize = 10 * width;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.tracked = new Object[topK];
+    }
+
+    /**
+     * Counts one occurrence of {@code key} and returns its new estimate.
+     */
+    int increment(K key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(indexOf(hash, row)));
+        }
+        if (additions.incrementAndGet() == sampleSize) {
+            halve();
+        }
+        if (estimate > admissionThreshold && !top.containsKey(key)) {
+            admit(key, estimate);
+        }
+        return estimate;
+    }
+
+    int estimate(K key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(indexOf(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * The tracked keys, most frequent first.
+     */
+    List<K> hottest() {
+        // Estimates keep changing, so sort on a snapshot of them.
+        Map<K, Integer> estimates = new HashMap<>();
+        for (K key : top.keySet()) {
+            estimates.put(key, estimate(key));
+        }
+        List<K> hottest = new ArrayList<>(estimates.keySet());
+        hottest.sort(Comparator.comparing(estimates::get, Comparator.reverseOrder()));
+        return hottest;
+    }
+
+    int trackedCount() {
+        return top.size();
+    }
+
+    /**
+     * Replaces the coldest of a sample of tracked keys if {@code key} is warmer, then raises the threshold to
+     * the sample's new minimum, so only a key warmer than that takes the monitor again.
+     */
+    private synchronized void admit(K key, int estimate) {
+        if (top.containsKey(key)) {
+            return;
+        }
+        if (trackedSize < topK) {
+            tracked[trackedSize] = key;
+            top.put(key, trackedSize++);
+            return;
+        }
+        int coldestSlot = -1;
+        int coldest = Integer.MAX_VALUE;
+        int runnerUp = Integer.MAX_VALUE;
+        int samples = Math.min(EVICTION_SAMPLE_SIZE, topK);
+        for (int i = 0; i < samples; i++) {
+            int slot = topK <= EVICTION_SAMPLE_SIZE ? i : random.nextInt(topK);
+            int sampled = estimate(trackedAt(slot));
+            if (sampled < coldest) {
+                runnerUp = coldest;
+                coldest = sampled;
+                coldestSlot = slot;
+            } else if (sampled < runnerUp) {
+                runnerUp = sampled;
+            }
+        }
+        if (estimate > coldest) {
+            top.remove(trackedAt(coldestSlot));
+            tracked[coldestSlot] = key;
+            top.put(key, coldestSlot);
+            admissionThreshold = Math.min(estimate, runnerUp);
+        } else {
+            admissionThreshold = coldest;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K trackedAt(int slot) {
+        return (K) tracked[slot];
+    }
+
+    private synchronized void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        admissionThreshold >>>= 1;
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hotel.pricer;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of foreign exchange rates. Each call returns a full rate set quoted against one common base
+ * currency, as units of each currency per unit of the base (the base itself maps to 1.0).
+ */
+@FunctionalInterface
+public interface FxRateProvider {
+    CompletableFuture<Map<String, Double>> fetchRates();
+}
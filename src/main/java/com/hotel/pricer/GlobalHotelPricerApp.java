@@ -1,12 +1,28 @@
 package com.hotel.pricer;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 
 public class GlobalHotelPricerApp {
-    
-    public static void main(String[] args) {
+    static final int DEFAULT_PORT = 8080;
+    static final Path SNAPSHOT_FILE = Path.of("pricer-cache.snapshot");
+
+    /**
+     * Runs the console demo, or with {@code serve [port]} serves the engine over HTTP until the JVM is stopped.
+     * The server's caches are snapshotted to {@link #SNAPSHOT_FILE} in the working directory, so a restart
+     * starts warm, and the most requested stays are kept warm by a {@link PricePrefetcher}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "serve".equals(args[0])) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
+
         HotelPricerEngine engine = new HotelPricerEngine();
         
         System.out.println("=== Global Hotel Pricer Demo ===\n");
@@ -65,4 +81,28 @@ public class GlobalHotelPricerApp {
             System.err.println("Error processing pricing requests: " + e.getMessage());
         }
     }
+
+    private static void serve(int port) throws IOException, InterruptedException {
+        CachingPriceApiService prices = new CachingPriceApiService(new PriceApiService());
+        CachingAvailabilityApiService availability = new CachingAvailabilityApiService(new AvailabilityApiService());
+        CacheSnapshotter snapshots = CacheSnapshotter.builder(SNAPSHOT_FILE)
+                .priceCache(prices).availabilityCache(availability).start();
+        PricePrefetcher prefetcher = PricePrefetcher.builder()
+                .priceCache(prices).availabilityCache(availability).start();
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(prices).availabilityApiService(availability)
+                .prefetcher(prefetcher)
+                .build();
+        PricingHttpServer server = PricingHttpServer.start(engine, new InetSocketAddress(port));
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            prefetcher.close();
+            snapshots.close();
+            stopped.countDown();
+        }));
+        System.out.println("Serving pricing on http://localhost:" + server.getPort() + "/pricing"
+                + (UpstreamExecutors.virtualThreadsAvailable() ? " (virtual threads)" : ""));
+        stopped.await();
+    }
 }
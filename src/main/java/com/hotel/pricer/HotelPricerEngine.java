@@ -1,24 +1,116 @@
 package com.hotel.pricer;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 
 public class HotelPricerEngine {
+    static final int MIN_HEDGE_SAMPLES = 20;
+    static final Duration DEFAULT_ADAPTIVE_LATENCY_BUDGET = Duration.ofMillis(300);
+    static final double DEFAULT_ADAPTIVE_UNAVAILABILITY_THRESHOLD = 0.15;
+    static final int DEFAULT_STREAM_MAX_IN_FLIGHT = 256;
+
+    private static final CompletableFuture<Double> SKIPPED_PRICE = CompletableFuture.completedFuture(0.0);
+
     private final PriceApiService priceApiService;
+    private final CachingPriceApiService lastKnownPrices;
     private final AvailabilityApiService availabilityApiService;
-    private final Map<String, Double> regionalTaxRates;
+    private final ConcurrencyLimiter priceScheduler;
+    private final ConcurrencyLimiter availabilityScheduler;
+    private final AtomicReference<RegionalTaxTable> taxTable;
+    private final Duration priceTimeout;
+    private final Duration availabilityTimeout;
+    private final Duration hedgeDelay;
+    private final boolean degradeOnFailure;
+    private final boolean fixedPointMoney;
+    private final ExecutionStrategy executionStrategy;
+    private final AdaptiveExecutionPolicy adaptivePolicy;
+    private final CurrencyConverter currencyConverter;
+    private final PricePrefetcher prefetcher;
+    private final PricingMetrics metrics;
+    private final LatencyHistogram priceLatencyNanos = new LatencyHistogram();
+    private final LongAdder hedgedCalls = new LongAdder();
+    private final LongAdder avoidedPriceCalls = new LongAdder();
 
     public HotelPricerEngine() {
-        this.priceApiService = new PriceApiService();
-        this.availabilityApiService = new AvailabilityApiService();
-        this.regionalTaxRates = initializeRegionalTaxRates();
+        this(new PriceApiService(), new AvailabilityApiService());
+    }
+
+    public HotelPricerEngine(Executor upstreamExecutor) {
+        this(upstreamExecutor, upstreamExecutor);
+    }
+
+    public HotelPricerEngine(Executor priceExecutor, Executor availabilityExecutor) {
+        this(new PriceApiService(priceExecutor), new AvailabilityApiService(availabilityExecutor));
     }
 
     public HotelPricerEngine(PriceApiService priceApiService, AvailabilityApiService availabilityApiService) {
-        this.priceApiService = priceApiService;
-        this.availabilityApiService = availabilityApiService;
-        this.regionalTaxRates = initializeRegionalTaxRates();
+        this(builder().priceApiService(priceApiService).availabilityApiService(availabilityApiService));
+    }
+
+    private HotelPricerEngine(Builder builder) {
+        PriceApiService prices = builder.priceApiService != null ? builder.priceApiService : new PriceApiService();
+        AvailabilityApiService availability = builder.availabilityApiService != null ? builder.availabilityApiService : new AvailabilityApiService();
+        this.lastKnownPrices = findPriceCache(prices);
+        this.priceApiService = builder.priceBreaker != null ? new CircuitBreakerPriceApiService(prices, builder.priceBreaker) : prices;
+        this.availabilityApiService = builder.availabilityBreaker != null
+                ? new CircuitBreakerAvailabilityApiService(availability, builder.availabilityBreaker)
+                : availability;
+        this.taxTable = new AtomicReference<>(RegionalTaxTable.fromMap(builder.taxRatesFile != null
+                ? TaxRateFiles.load(builder.taxRatesFile)
+                : initializeRegionalTaxRates()));
+        this.priceTimeout = builder.priceTimeout;
+        this.availabilityTimeout = builder.availabilityTimeout;
+        this.hedgeDelay = builder.hedgeDelay;
+        this.degradeOnFailure = builder.degradeOnFailure;
+        this.fixedPointMoney = builder.fixedPointMoney;
+        this.executionStrategy = builder.executionStrategy;
+        this.adaptivePolicy = builder.executionStrategy == ExecutionStrategy.ADAPTIVE
+                ? new AdaptiveExecutionPolicy(builder.adaptiveUnavailabilityThreshold, builder.adaptiveLatencyBudget)
+                : null;
+        this.currencyConverter = builder.currencyConverter;
+        this.priceScheduler = builder.priceScheduler;
+        this.availabilityScheduler = builder.availabilityScheduler;
+        this.prefetcher = builder.prefetcher;
+        this.metrics = builder.metrics;
+        if (metrics != null) {
+            for (CircuitBreaker breaker : new CircuitBreaker[] {builder.priceBreaker, builder.availabilityBreaker}) {
+                if (breaker != null) {
+                    breaker.addListener(metrics::circuitStateChanged);
+                }
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // The cache to fall back on for a last-known-good price, looking through any circuit breakers in front of it.
+    private static CachingPriceApiService findPriceCache(PriceApiService service) {
+        while (service instanceof CircuitBreakerPriceApiService) {
+            service = ((CircuitBreakerPriceApiService) service).getDelegate();
+        }
+        return service instanceof CachingPriceApiService ? (CachingPriceApiService) service : null;
     }
 
     private Map<String, Double> initializeRegionalTaxRates() {
@@ -32,65 +124,803 @@ public class HotelPricerEngine {
         return taxRates;
     }
 
+    /**
+     * Atomically replaces the tax rates. In-flight requests keep pricing against the snapshot they already
+     * read; the returned version is recorded on every response priced with the new rates.
+     */
+    public long updateTaxRates(Map<String, Double> taxRates) {
+        if (taxRates == null) {
+            throw new IllegalArgumentException("taxRates must not be null");
+        }
+        return taxTable.updateAndGet(current -> RegionalTaxTable.fromMap(taxRates, current.getVersion() + 1)).getVersion();
+    }
+
+    public long reloadTaxRates(Path taxRatesFile) {
+        return updateTaxRates(TaxRateFiles.load(taxRatesFile));
+    }
+
+    /**
+     * Reloads the tax rates whenever the file changes. A file that fails to parse leaves the current rates
+     * in place. Close the returned watcher to stop watching.
+     */
+    public TaxRateFileWatcher watchTaxRates(Path taxRatesFile) {
+        return TaxRateFileWatcher.start(taxRatesFile, file -> reloadTaxRates(file));
+    }
+
+    public long getTaxRatesVersion() {
+        return taxTable.get().getVersion();
+    }
+
     public CompletableFuture<HotelPricingResponse> getPricing(HotelPricingRequest request) {
         if (request == null) {
             return CompletableFuture.failedFuture(new IllegalArgumentException("HotelPricingRequest must not be null"));
         }
-        
-        CompletableFuture<Double> priceFuture = priceApiService.fetchBasePrice(
-                request.getHotelId(),
-                request.getCheckInDate(),
-                request.getCheckOutDate(),
-                request.getTargetCurrency()
-        );
+        if (currencyConverter != null) {
+            if (!currencyConverter.isReady()) {
+                return currencyConverter.ready().thenCompose(ignored -> getPricing(request));
+            }
+            if (!currencyConverter.supports(request.getTargetCurrency())) {
+                return CompletableFuture.failedFuture(
+                        new IllegalArgumentException("Unsupported currency: " + request.getTargetCurrency()));
+            }
+        }
+        if (prefetcher != null) {
+            prefetcher.record(request);
+        }
+
+        if (metrics == null) {
+            return price(request);
+        }
+        long start = System.nanoTime();
+        return price(request).whenComplete((response, error) -> {
+            metrics.stageCompleted(PricingStage.TOTAL, System.nanoTime() - start);
+            recordOutcome(request, response, error);
+        });
+    }
+
+    private CompletableFuture<HotelPricingResponse> price(HotelPricingRequest request) {
+        if (request.isPastDeadline(System.nanoTime())) {
+            return CompletableFuture.failedFuture(deadlinePassed());
+        }
+        if (usesAvailabilityFirst(request)) {
+            CompletableFuture<Boolean> availabilityFuture = withTimeout(fetchAvailability(request), availabilityTimeout);
+            CompletableFuture<Double> priceFuture = availabilityFuture
+                    .handle((isAvailable, error) -> needsPrice(isAvailable))
+                    .thenCompose(needed -> {
+                        if (!needed) {
+                            avoidedPriceCalls.increment();
+                            return SKIPPED_PRICE;
+                        }
+                        return withTimeout(fetchPrice(request), priceTimeout);
+                    });
+            return combine(request, priceFuture, availabilityFuture, true);
+        }
+
+        CompletableFuture<Double> priceFuture = withTimeout(fetchPrice(request), priceTimeout);
+        CompletableFuture<Boolean> availabilityFuture = withTimeout(fetchAvailability(request), availabilityTimeout);
+
+        return combine(request, priceFuture, availabilityFuture, true);
+    }
+
+    public CompletableFuture<List<HotelPricingResponse>> getPricingBatch(List<HotelPricingRequest> requests) {
+        return getPricingBatch(requests, (response, index) -> { });
+    }
+
+    public CompletableFuture<List<HotelPricingResponse>> getPricingBatch(List<HotelPricingRequest> requests,
+                                                                         ObjIntConsumer<HotelPricingResponse> onResult) {
+        if (requests == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("requests must not be null"));
+        }
+        if (onResult == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("onResult must not be null"));
+        }
+        if (currencyConverter != null && !currencyConverter.isReady()) {
+            return currencyConverter.ready().thenCompose(ignored -> getPricingBatch(requests, onResult));
+        }
+
+        // Identical requests in one batch share a single upstream lookup.
+        List<HotelPricingRequest> distinctRequests = new ArrayList<>();
+        Map<HotelPricingRequest, Integer> slotByRequest = new HashMap<>();
+        int[] slotOf = new int[requests.size()];
+        long now = System.nanoTime();
+        for (int i = 0; i < requests.size(); i++) {
+            HotelPricingRequest request = requests.get(i);
+            if (request == null) {
+                slotOf[i] = -1;
+                continue;
+            }
+            if (request.isPastDeadline(now)) {
+                slotOf[i] = -2;
+                continue;
+            }
+            Integer slot = slotByRequest.get(request);
+            if (slot == null) {
+                slot = distinctRequests.size();
+                slotByRequest.put(request, slot);
+                distinctRequests.add(request);
+                if (prefetcher != null) {
+                    prefetcher.record(request);
+                }
+            }
+            slotOf[i] = slot;
+        }
+
+        long batchStart = System.nanoTime();
+        List<CompletableFuture<Boolean>> availabilityFutures = scheduleBatch(availabilityScheduler, distinctRequests,
+                availabilityApiService::checkAvailabilities);
+        recordUpstreamCalls(PricingStage.AVAILABILITY, availabilityFutures, batchStart);
+        if (adaptivePolicy != null) {
+            for (int slot = 0; slot < distinctRequests.size(); slot++) {
+                int region = RegionCode.ofHotelId(distinctRequests.get(slot).getHotelId());
+                availabilityFutures.get(slot).thenAccept(isAvailable ->
+                        adaptivePolicy.recordAvailability(region, isAvailable, System.nanoTime() - batchStart));
+            }
+        }
+        List<CompletableFuture<Double>> priceFutures = fetchBatchPrices(distinctRequests, availabilityFutures);
+
+        List<CompletableFuture<HotelPricingResponse>> slotResponses = new ArrayList<>(distinctRequests.size());
+        for (int slot = 0; slot < distinctRequests.size(); slot++) {
+            HotelPricingRequest request = distinctRequests.get(slot);
+            // Batch prices share one upstream round-trip per chunk, so cancelling a single item saves nothing.
+            slotResponses.add(combine(request,
+                    withTimeout(priceFutures.get(slot), priceTimeout),
+                    withTimeout(availabilityFutures.get(slot), availabilityTimeout),
+                    false)
+                    .exceptionally(error -> HotelPricingResponse.failed(
+                            request.getHotelId(), request.getTargetCurrency(), unwrap(error).getMessage())));
+        }
+
+        HotelPricingResponse[] results = new HotelPricingResponse[requests.size()];
+        CompletableFuture<?>[] completions = new CompletableFuture<?>[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            HotelPricingRequest request = requests.get(i);
+            CompletableFuture<HotelPricingResponse> item = slotOf[i] == -1
+                    ? CompletableFuture.completedFuture(HotelPricingResponse.failed(null, null, "HotelPricingRequest must not be null"))
+                    : slotOf[i] == -2
+                    ? CompletableFuture.completedFuture(HotelPricingResponse.failed(request.getHotelId(),
+                            request.getTargetCurrency(), deadlinePassed().getMessage()))
+                    : slotResponses.get(slotOf[i]);
+            completions[i] = item.thenAccept(response -> {
+                if (metrics != null && request != null) {
+                    recordOutcome(request, response, null);
+                }
+                results[index] = response;
+                onResult.accept(response, index);
+            });
+        }
+
+        return CompletableFuture.allOf(completions).thenApply(v -> Arrays.asList(results));
+    }
+
+    public Flow.Publisher<HotelPricingResponse> streamPricing(Iterable<HotelPricingRequest> requests) {
+        return streamPricing(requests, EmissionOrder.COMPLETION, DEFAULT_STREAM_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Publishes a response per request. Requests are pulled from {@code requests} lazily and priced only as
+     * the subscriber signals demand, with at most {@code maxInFlight} being priced at once. As with
+     * {@link #getPricingBatch}, a request that fails is emitted as a response with {@code isFailed()} set.
+     * Cancelling the subscription stops further requests from being priced.
+     */
+    public Flow.Publisher<HotelPricingResponse> streamPricing(Iterable<HotelPricingRequest> requests,
+                                                             EmissionOrder order, int maxInFlight) {
+        return new PricingPublisher(requests, request -> {
+            if (request == null) {
+                return CompletableFuture.completedFuture(
+                        HotelPricingResponse.failed(null, null, "HotelPricingRequest must not be null"));
+            }
+            return getPricing(request).exceptionally(error -> HotelPricingResponse.failed(
+                    request.getHotelId(), request.getTargetCurrency(), unwrap(error).getMessage()));
+        }, order, maxInFlight);
+    }
+
+    /**
+     * Prices every stay of {@code request.getNights()} that fits the window, at each hotel, and returns the
+     * available ones from cheapest to most expensive. Per hotel this takes one availability call covering all
+     * arrival days and one nightly-rate call covering the window's nights, made in parallel; each stay's base
+     * price is then a sum over those nights. With degraded responses enabled, a hotel whose calls fail is left
+     * out; otherwise the search fails.
+     */
+    public CompletableFuture<List<StayOption>> searchFlexibleDates(FlexibleSearchRequest request) {
+        if (request == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("FlexibleSearchRequest must not be null"));
+        }
+        if (currencyConverter != null) {
+            if (!currencyConverter.isReady()) {
+                return currencyConverter.ready().thenCompose(ignored -> searchFlexibleDates(request));
+            }
+            if (!currencyConverter.supports(request.getTargetCurrency())) {
+                return CompletableFuture.failedFuture(
+                        new IllegalArgumentException("Unsupported currency: " + request.getTargetCurrency()));
+            }
+        }
+
+        List<CompletableFuture<List<StayOption>>> perHotel = new ArrayList<>(request.getHotelIds().size());
+        for (String hotelId : request.getHotelIds()) {
+            CompletableFuture<List<StayOption>> options = searchHotel(hotelId, request);
+            perHotel.add(degradeOnFailure ? options.exceptionally(error -> List.of()) : options);
+        }
+        return CompletableFuture.allOf(perHotel.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<StayOption> ranked = new ArrayList<>();
+            for (CompletableFuture<List<StayOption>> options : perHotel) {
+                ranked.addAll(options.join());
+            }
+            ranked.sort(Comparator.comparingDouble(StayOption::getTotalPrice));
+            return ranked;
+        });
+    }
+
+    private CompletableFuture<List<StayOption>> searchHotel(String hotelId, FlexibleSearchRequest request) {
+        long start = System.nanoTime();
+        CompletableFuture<boolean[]> availabilityCall = availabilityApiService.checkAvailabilityForArrivals(
+                hotelId, request.getEarliestCheckIn(), request.getCheckInEnd(), request.getNights());
+        recordUpstreamCall(PricingStage.AVAILABILITY, availabilityCall, start);
+        CompletableFuture<double[]> ratesCall = priceApiService.fetchNightlyRates(
+                hotelId, request.getEarliestCheckIn(), request.getLatestCheckOut(), request.getTargetCurrency());
+        recordUpstreamCall(PricingStage.PRICE, ratesCall, start);
+        CompletableFuture<double[]> rates = withTimeout(ratesCall, priceTimeout);
+
+        return withTimeout(availabilityCall, availabilityTimeout).thenCompose(available -> {
+            boolean anyAvailable = false;
+            for (boolean arrival : available) {
+                anyAvailable |= arrival;
+            }
+            if (!anyAvailable) {
+                // As with a single unavailable stay, the rates are no longer needed.
+                if (rates.cancel(true)) {
+                    avoidedPriceCalls.increment();
+                }
+                return CompletableFuture.completedFuture(List.<StayOption>of());
+            }
+            return rates.thenApply(nightly -> rankOptions(hotelId, request, available, nightly));
+        });
+    }
+
+    private List<StayOption> rankOptions(String hotelId, FlexibleSearchRequest request, boolean[] available, double[] nightly) {
+        double[] prefix = new double[nightly.length + 1];
+        for (int night = 0; night < nightly.length; night++) {
+            prefix[night + 1] = prefix[night] + nightly[night];
+        }
+
+        int nights = request.getNights();
+        List<StayOption> options = new ArrayList<>();
+        for (int arrival = 0; arrival < available.length; arrival++) {
+            if (!available[arrival]) {
+                continue;
+            }
+            LocalDate checkIn = request.getEarliestCheckIn().plusDays(arrival);
+            LocalDate checkOut = checkIn.plusDays(nights);
+            HotelPricingRequest stay = new HotelPricingRequest(hotelId, checkIn, checkOut, request.getTargetCurrency());
+            options.add(new StayOption(checkIn, checkOut, buildResponse(stay, prefix[arrival + nights] - prefix[arrival], true)));
+        }
+        return options;
+    }
+
+    private List<CompletableFuture<Double>> fetchBatchPrices(List<HotelPricingRequest> requests,
+                                                             List<CompletableFuture<Boolean>> availabilityFutures) {
+        List<CompletableFuture<Double>> priceFutures = new ArrayList<>(requests.size());
+        List<HotelPricingRequest> immediateRequests = new ArrayList<>();
+        List<Integer> immediateSlots = new ArrayList<>();
+        List<Integer> deferredSlots = new ArrayList<>();
+        for (int slot = 0; slot < requests.size(); slot++) {
+            HotelPricingRequest request = requests.get(slot);
+            if (usesAvailabilityFirst(request)) {
+                deferredSlots.add(slot);
+                priceFutures.add(new CompletableFuture<>());
+            } else {
+                immediateRequests.add(request);
+                immediateSlots.add(slot);
+                priceFutures.add(null);
+            }
+        }
+
+        List<CompletableFuture<Double>> immediatePrices = scheduleBatch(priceScheduler, immediateRequests,
+                priceApiService::fetchBasePrices);
+        recordUpstreamCalls(PricingStage.PRICE, immediatePrices, System.nanoTime());
+        for (int i = 0; i < immediateSlots.size(); i++) {
+            priceFutures.set(immediateSlots.get(i), immediatePrices.get(i));
+        }
+        if (deferredSlots.isEmpty()) {
+            return priceFutures;
+        }
+
+        CompletableFuture<?>[] deferredAvailability = new CompletableFuture<?>[deferredSlots.size()];
+        for (int i = 0; i < deferredSlots.size(); i++) {
+            deferredAvailability[i] = availabilityFutures.get(deferredSlots.get(i)).exceptionally(error -> null);
+        }
+        CompletableFuture.allOf(deferredAvailability).thenRun(() -> {
+            List<HotelPricingRequest> pricedRequests = new ArrayList<>();
+            List<CompletableFuture<Double>> pricedTargets = new ArrayList<>();
+            for (int slot : deferredSlots) {
+                if (needsPrice(resultOrNull(availabilityFutures.get(slot)))) {
+                    pricedRequests.add(requests.get(slot));
+                    pricedTargets.add(priceFutures.get(slot));
+                } else if (priceFutures.get(slot).cancel(false)) {
+                    avoidedPriceCalls.increment();
+                }
+            }
+            List<CompletableFuture<Double>> prices = scheduleBatch(priceScheduler, pricedRequests,
+                    priceApiService::fetchBasePrices);
+            recordUpstreamCalls(PricingStage.PRICE, prices, System.nanoTime());
+            for (int i = 0; i < prices.size(); i++) {
+                BatchRoundTrips.forward(prices.get(i), pricedTargets.get(i));
+            }
+        });
+        return priceFutures;
+    }
+
+    private boolean usesAvailabilityFirst(HotelPricingRequest request) {
+        switch (executionStrategy) {
+            case AVAILABILITY_FIRST:
+                return true;
+            case ADAPTIVE:
+                return adaptivePolicy.preferAvailabilityFirst(RegionCode.ofHotelId(request.getHotelId()));
+            default:
+                return false;
+        }
+    }
+
+    private boolean needsPrice(Boolean isAvailable) {
+        return Boolean.TRUE.equals(isAvailable) || (isAvailable == null && degradeOnFailure);
+    }
+
+    private CompletableFuture<Boolean> fetchAvailability(HotelPricingRequest request) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> call = schedule(availabilityScheduler, request,
+                () -> availabilityApiService.checkAvailability(request.availabilityKey()));
+        recordUpstreamCall(PricingStage.AVAILABILITY, call, start);
+        if (adaptivePolicy != null) {
+            int region = RegionCode.ofHotelId(request.getHotelId());
+            call.thenAccept(isAvailable -> adaptivePolicy.recordAvailability(region, isAvailable, System.nanoTime() - start));
+        }
+        return call;
+    }
+
+    private CompletableFuture<Double> fetchPrice(HotelPricingRequest request) {
+        CompletableFuture<Double> primary = timedPriceCall(request, false);
+        if (hedgeDelay == null || primary.isDone()) {
+            return primary;
+        }
+
+        // Hedge: if the primary call is slower than the observed p95, race a second call against it.
+        // The first success wins; the result only fails once every attempt has failed. The hedge bypasses any
+        // price cache, which would otherwise hand it a share of the primary's own in-flight load.
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(1);
+        AtomicReference<CompletableFuture<Double>> hedge = new AtomicReference<>();
+        BiConsumer<Double, Throwable> onAttempt = (price, error) -> {
+            if (error == null) {
+                result.complete(price);
+            } else if (pendingAttempts.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(error));
+            }
+        };
+        primary.whenComplete(onAttempt);
+        CompletableFuture.delayedExecutor(currentHedgeDelayNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!result.isDone()) {
+                pendingAttempts.incrementAndGet();
+                hedgedCalls.increment();
+                CompletableFuture<Double> hedgeCall = timedPriceCall(request, true);
+                hedge.set(hedgeCall);
+                hedgeCall.whenComplete(onAttempt);
+            }
+        });
+        // Once there is a winner (or the caller cancels), release whichever attempt is still running.
+        result.whenComplete((price, error) -> {
+            primary.cancel(true);
+            CompletableFuture<Double> hedgeCall = hedge.get();
+            if (hedgeCall != null) {
+                hedgeCall.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<Double> timedPriceCall(HotelPricingRequest request, boolean uncached) {
+        long start = System.nanoTime();
+        CompletableFuture<Double> call = schedule(priceScheduler, request, () -> uncached
+                ? priceApiService.fetchBasePriceUncached(request.priceKey())
+                : priceApiService.fetchBasePrice(request.priceKey()));
+        recordUpstreamCall(PricingStage.PRICE, call, start);
+        if (hedgeDelay != null || adaptivePolicy != null) {
+            call.thenRun(() -> {
+                long latencyNanos = System.nanoTime() - start;
+                if (hedgeDelay != null) {
+                    priceLatencyNanos.record(latencyNanos);
+                }
+                if (adaptivePolicy != null) {
+                    adaptivePolicy.recordPriceLatency(RegionCode.ofHotelId(request.getHotelId()), latencyNanos);
+                }
+            });
+        }
+        return call;
+    }
+
+    private static <T> CompletableFuture<T> schedule(ConcurrencyLimiter scheduler, HotelPricingRequest request,
+                                                     Supplier<CompletableFuture<T>> call) {
+        if (scheduler == null) {
+            return call.get();
+        }
+        return request.hasDeadline()
+                ? scheduler.submit(request.getPriority(), request.getDeadlineNanos(), call)
+                : scheduler.submit(request.getPriority(), call);
+    }
+
+    /**
+     * Schedules a batch as one call, at the priority of its most urgent request and with the latest of their
+     * deadlines, or none if any request has none.
+     */
+    private static <T> List<CompletableFuture<T>> scheduleBatch(ConcurrencyLimiter scheduler, List<HotelPricingRequest> requests,
+                                                                Function<List<HotelPricingRequest>, List<CompletableFuture<T>>> call) {
+        if (scheduler == null || requests.isEmpty()) {
+            return call.apply(requests);
+        }
+        RequestPriority mostUrgent = RequestPriority.BACKGROUND;
+        boolean allHaveDeadlines = true;
+        long latestDeadline = requests.get(0).getDeadlineNanos();
+        for (HotelPricingRequest request : requests) {
+            if (request.getPriority().compareTo(mostUrgent) < 0) {
+                mostUrgent = request.getPriority();
+            }
+            allHaveDeadlines &= request.hasDeadline();
+            if (request.getDeadlineNanos() - latestDeadline > 0) {
+                latestDeadline = request.getDeadlineNanos();
+            }
+        }
+
+        RequestPriority priority = mostUrgent;
+        boolean hasDeadline = allHaveDeadlines;
+        long deadlineNanos = latestDeadline;
+        return BatchRoundTrips.run(requests, call, batch -> hasDeadline
+                ? scheduler.submit(priority, deadlineNanos, batch)
+                : scheduler.submit(priority, batch));
+    }
+
+    private void recordUpstreamCall(PricingStage stage, CompletableFuture<?> call, long start) {
+        if (metrics == null) {
+            return;
+        }
+        metrics.upstreamCallStarted(stage);
+        // A call cancelled because its result is no longer needed has not failed.
+        call.whenComplete((value, error) ->
+                metrics.upstreamCallFinished(stage, System.nanoTime() - start, error != null && !call.isCancelled()));
+    }
+
+    private void recordUpstreamCalls(PricingStage stage, List<? extends CompletableFuture<?>> calls, long start) {
+        if (metrics == null) {
+            return;
+        }
+        for (CompletableFuture<?> call : calls) {
+            recordUpstreamCall(stage, call, start);
+        }
+    }
+
+    private void recordOutcome(HotelPricingRequest request, HotelPricingResponse response, Throwable error) {
+        PricingOutcome outcome = error != null || response == null || response.isFailed() ? PricingOutcome.FAILED
+                : response.isAvailable() ? PricingOutcome.AVAILABLE
+                : PricingOutcome.UNAVAILABLE;
+        metrics.pricingCompleted(RegionCode.name(RegionCode.ofHotelId(request.getHotelId())), outcome);
+    }
+
+    long currentHedgeDelayNanos() {
+        if (priceLatencyNanos.getCount() < MIN_HEDGE_SAMPLES) {
+            return hedgeDelay.toNanos();
+        }
+        return priceLatencyNanos.getValueAtPercentile(95.0);
+    }
+
+    private CompletableFuture<HotelPricingResponse> combine(HotelPricingRequest request,
+                                                            CompletableFuture<Double> priceFuture,
+                                                            CompletableFuture<Boolean> availabilityFuture,
+                                                            boolean cancelPriceWhenUnavailable) {
+        CompletableFuture<Double> abandonablePrice = cancelPriceWhenUnavailable ? priceFuture : null;
+        if (!degradeOnFailure) {
+            return availabilityFuture.thenCompose(isAvailable -> isAvailable
+                    ? priceFuture.thenApply(basePrice -> buildResponse(request, basePrice, true))
+                    : unavailable(request, abandonablePrice));
+        }
+
+        return availabilityFuture.handle((isAvailable, error) -> isAvailable)
+                .thenCompose(isAvailable -> Boolean.FALSE.equals(isAvailable)
+                        ? unavailable(request, abandonablePrice)
+                        : priceFuture.handle((basePrice, error) -> buildDegradedResponse(request, isAvailable, basePrice, error)));
+    }
+
+    private CompletableFuture<HotelPricingResponse> unavailable(HotelPricingRequest request, CompletableFuture<Double> priceFuture) {
+        // Nothing reads the price of an unavailable hotel, so stop paying for an in-flight upstream call.
+        if (priceFuture != null && priceFuture.cancel(true)) {
+            avoidedPriceCalls.increment();
+        }
+        return CompletableFuture.completedFuture(buildResponse(request, 0.0, false));
+    }
+
+    private HotelPricingResponse buildDegradedResponse(HotelPricingRequest request, Boolean isAvailable,
+                                                       Double basePrice, Throwable priceError) {
+        boolean priceStale = false;
+        if (basePrice == null && lastKnownPrices != null) {
+            basePrice = lastKnownPrices.peekStale(request.priceKey());
+            priceStale = basePrice != null;
+        }
+        if (basePrice == null) {
+            return HotelPricingResponse.failed(request.getHotelId(), request.getTargetCurrency(),
+                    "Price unavailable: " + describe(priceError));
+        }
 
-        CompletableFuture<Boolean> availabilityFuture = availabilityApiService.checkAvailability(
+        return buildResponse(request, basePrice, true).degraded(isAvailable != null, isAvailable == null, priceStale);
+    }
+
+    HotelPricingResponse buildResponse(HotelPricingRequest request, double basePrice, boolean isAvailable) {
+        if (!isAvailable) {
+            return HotelPricingResponse.unavailable(request.getHotelId(), request.getTargetCurrency());
+        }
+
+        long start = metrics != null ? System.nanoTime() : 0;
+        basePrice = toTargetCurrency(request, basePrice);
+        // Read the snapshot once so the rate and the reported version always match.
+        RegionalTaxTable table = taxTable.get();
+        HotelPricingResponse response = fixedPointMoney
+                ? buildFixedPointResponse(request, basePrice, table)
+                : buildDoubleResponse(request, basePrice, table);
+        if (metrics != null) {
+            metrics.stageCompleted(PricingStage.COMBINE, System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    private static HotelPricingResponse buildDoubleResponse(HotelPricingRequest request, double basePrice,
+                                                            RegionalTaxTable table) {
+        double taxRate = table.rateForHotel(request.getHotelId());
+        double tax = basePrice * taxRate;
+        double totalPrice = basePrice + tax;
+
+        return new HotelPricingResponse(
                 request.getHotelId(),
-                request.getCheckInDate(),
-                request.getCheckOutDate()
+                true,
+                basePrice,
+                tax,
+                totalPrice,
+                request.getTargetCurrency(),
+                false,
+                false,
+                null,
+                table.getVersion()
         );
+    }
+
+    private static HotelPricingResponse buildFixedPointResponse(HotelPricingRequest request, double basePrice,
+                                                                RegionalTaxTable table) {
+        CurrencyUnit unit = CurrencyUnit.of(request.getTargetCurrency());
+        long baseMinorUnits = unit.toMinorUnits(basePrice);
+        long taxMinorUnits = table.taxMinorUnitsForHotel(request.getHotelId(), baseMinorUnits);
+        return HotelPricingResponse.fixedPoint(request.getHotelId(), unit, baseMinorUnits, taxMinorUnits, table.getVersion());
+    }
 
-        return CompletableFuture.allOf(priceFuture, availabilityFuture)
-                .thenApply(v -> {
-                    double basePrice = priceFuture.join();
-                    boolean isAvailable = availabilityFuture.join();
-
-                    if (!isAvailable) {
-                        return new HotelPricingResponse(
-                                request.getHotelId(),
-                                false,
-                                0.0,
-                                0.0,
-                                0.0,
-                                request.getTargetCurrency()
-                        );
-                    }
-
-                    String region = extractRegionFromHotelId(request.getHotelId());
-                    double taxRate = regionalTaxRates.getOrDefault(region, regionalTaxRates.get("DEFAULT"));
-                    double tax = basePrice * taxRate;
-                    double totalPrice = basePrice + tax;
-
-                    return new HotelPricingResponse(
-                            request.getHotelId(),
-                            true,
-                            basePrice,
-                            tax,
-                            totalPrice,
-                            request.getTargetCurrency()
-                    );
-                });
-    }
-
-    private String extractRegionFromHotelId(String hotelId) {
-        if (hotelId == null || hotelId.length() < 2) {
-            return "DEFAULT";
-        }
-        
-        return hotelId.substring(0, 2).toUpperCase();
+    private double toTargetCurrency(HotelPricingRequest request, double basePrice) {
+        if (currencyConverter == null) {
+            return basePrice;
+        }
+        return currencyConverter.convert(basePrice,
+                priceApiService.quoteCurrency(request.getHotelId()), request.getTargetCurrency());
+    }
+
+    double taxRateFor(String hotelId) {
+        return taxTable.get().rateForHotel(hotelId);
+    }
+
+    String extractRegionFromHotelId(String hotelId) {
+        return RegionCode.name(RegionCode.ofHotelId(hotelId));
+    }
+
+    private static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, Duration timeout) {
+        if (timeout == null || future.isDone()) {
+            return future;
+        }
+        // Time out a copy so a shared (e.g. cached, in-flight) upstream future is never failed for other callers,
+        // then cancel the original so an abandoned call stops holding its upstream thread. A circuit breaker
+        // counts that cancellation as the failure it is, and has done so by the time the caller sees the timeout.
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+            if (error != null) {
+                TimeoutCancellable.cancelForTimeout(future);
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    private static TimeoutException deadlinePassed() {
+        return new TimeoutException("Deadline passed before pricing started");
+    }
+
+    private static String describe(Throwable error) {
+        if (error == null) {
+            return "unknown";
+        }
+        Throwable cause = unwrap(error);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static <T> T resultOrNull(CompletableFuture<T> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     Map<String, Double> getRegionalTaxRatesForTesting() {
-        return new HashMap<>(regionalTaxRates);
+        return taxTable.get().toMap();
+    }
+
+    long getHedgedCallCount() {
+        return hedgedCalls.sum();
+    }
+
+    long getAvoidedPriceCallCount() {
+        return avoidedPriceCalls.sum();
+    }
+
+    AdaptiveExecutionPolicy getAdaptivePolicyForTesting() {
+        return adaptivePolicy;
+    }
+
+    public static class Builder {
+        private PriceApiService priceApiService;
+        private AvailabilityApiService availabilityApiService;
+        private Duration priceTimeout;
+        private Duration availabilityTimeout;
+        private Duration hedgeDelay;
+        private boolean degradeOnFailure;
+        private boolean fixedPointMoney;
+        private ExecutionStrategy executionStrategy = ExecutionStrategy.PARALLEL;
+        private Duration adaptiveLatencyBudget = DEFAULT_ADAPTIVE_LATENCY_BUDGET;
+        private double adaptiveUnavailabilityThreshold = DEFAULT_ADAPTIVE_UNAVAILABILITY_THRESHOLD;
+        private Path taxRatesFile;
+        private CurrencyConverter currencyConverter;
+        private PricingMetrics metrics;
+        private CircuitBreaker priceBreaker;
+        private CircuitBreaker availabilityBreaker;
+        private ConcurrencyLimiter priceScheduler;
+        private ConcurrencyLimiter availabilityScheduler;
+        private PricePrefetcher prefetcher;
+
+        private Builder() {
+        }
+
+        public Builder priceApiService(PriceApiService priceApiService) {
+            this.priceApiService = priceApiService;
+            return this;
+        }
+
+        public Builder availabilityApiService(AvailabilityApiService availabilityApiService) {
+            this.availabilityApiService = availabilityApiService;
+            return this;
+        }
+
+        public Builder priceTimeout(Duration priceTimeout) {
+            this.priceTimeout = requirePositive(priceTimeout, "priceTimeout");
+            return this;
+        }
+
+        public Builder availabilityTimeout(Duration availabilityTimeout) {
+            this.availabilityTimeout = requirePositive(availabilityTimeout, "availabilityTimeout");
+            return this;
+        }
+
+        public Builder hedgePriceCalls(Duration initialHedgeDelay) {
+            this.hedgeDelay = requirePositive(initialHedgeDelay, "initialHedgeDelay");
+            return this;
+        }
+
+        public Builder degradeOnFailure(boolean degradeOnFailure) {
+            this.degradeOnFailure = degradeOnFailure;
+            return this;
+        }
+
+        /**
+         * Prices in exact minor units of the target currency: the converted base price is rounded half-even to
+         * the currency's minor unit, tax is computed on that in integer arithmetic and rounded half-up, and the
+         * total is their exact sum. Off by default, in which case amounts are unrounded doubles.
+         */
+        public Builder fixedPointMoney(boolean fixedPointMoney) {
+            this.fixedPointMoney = fixedPointMoney;
+            return this;
+        }
+
+        public Builder executionStrategy(ExecutionStrategy executionStrategy) {
+            if (executionStrategy == null) {
+                throw new IllegalArgumentException("executionStrategy must not be null");
+            }
+            this.executionStrategy = executionStrategy;
+            return this;
+        }
+
+        public Builder adaptiveLatencyBudget(Duration adaptiveLatencyBudget) {
+            this.adaptiveLatencyBudget = requirePositive(adaptiveLatencyBudget, "adaptiveLatencyBudget");
+            return this;
+        }
+
+        public Builder adaptiveUnavailabilityThreshold(double adaptiveUnavailabilityThreshold) {
+            if (adaptiveUnavailabilityThreshold < 0.0 || adaptiveUnavailabilityThreshold > 1.0) {
+                throw new IllegalArgumentException("adaptiveUnavailabilityThreshold must be between 0 and 1");
+            }
+            this.adaptiveUnavailabilityThreshold = adaptiveUnavailabilityThreshold;
+            return this;
+        }
+
+        public Builder taxRatesFile(Path taxRatesFile) {
+            if (taxRatesFile == null) {
+                throw new IllegalArgumentException("taxRatesFile must not be null");
+            }
+            this.taxRatesFile = taxRatesFile;
+            return this;
+        }
+
+        /**
+         * Converts supplier prices from their quote currency to each request's target currency before tax.
+         * Off by default, in which case prices are passed through unconverted.
+         */
+        public Builder currencyConverter(CurrencyConverter currencyConverter) {
+            this.currencyConverter = currencyConverter;
+            return this;
+        }
+
+        /**
+         * Reports stage latencies, in-flight upstream calls and outcomes. Off by default, in which case the
+         * request path does not read the clock for metrics at all.
+         */
+        public Builder metrics(PricingMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Guards the price and availability services with circuit breakers; either may be null. While a breaker
+         * is open its calls fail fast with a {@link CircuitOpenException}, which {@link #degradeOnFailure} turns
+         * into an unknown availability or the caching price service's last-known-good price. The breakers sit
+         * in front of the configured services, cache included; to keep serving fresh cache hits while open,
+         * put a {@link CircuitBreakerPriceApiService} under the cache instead. State changes are reported to
+         * {@link #metrics}.
+         */
+        public Builder circuitBreakers(CircuitBreaker priceBreaker, CircuitBreaker availabilityBreaker) {
+            this.priceBreaker = priceBreaker;
+            this.availabilityBreaker = availabilityBreaker;
+            return this;
+        }
+
+        /**
+         * Starts price and availability calls through the given limiters, which queue them by each request's
+         * {@link RequestPriority} and drop those whose deadline passes first; either may be null. A batch
+         * queues as one call at its most urgent request's priority. Flexible-date searches are not scheduled.
+         * Requests past their deadline fail with a {@link TimeoutException} whether or not this is set.
+         */
+        public Builder scheduleUpstreamCalls(ConcurrencyLimiter priceScheduler, ConcurrencyLimiter availabilityScheduler) {
+            this.priceScheduler = priceScheduler;
+            this.availabilityScheduler = availabilityScheduler;
+            return this;
+        }
+
+        /**
+         * Records every priced request with the prefetcher, which keeps the most requested stays warm in its
+         * caches. Those should be the caches this engine prices through.
+         */
+        public Builder prefetcher(PricePrefetcher prefetcher) {
+            this.prefetcher = prefetcher;
+            return this;
+        }
+
+        public HotelPricerEngine build() {
+            return new HotelPricerEngine(this);
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
     }
 }
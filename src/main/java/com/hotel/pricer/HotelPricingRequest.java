@@ -1,12 +1,25 @@
 package com.hotel.pricer;
 
+import java.time.Duration;
 import java.time.LocalDate;
 
+/**
+ * A stay to price. Besides the stay itself a request carries a {@link RequestPriority} and an optional
+ * deadline, which decide when its upstream calls run; they are not part of {@link #equals}, so requests for
+ * the same stay are still deduplicated and cached together. Equality and hashing go through the request's
+ * {@link StayKey}, built once here.
+ */
 public class HotelPricingRequest {
     private final String hotelId;
     private final LocalDate checkInDate;
     private final LocalDate checkOutDate;
     private final String targetCurrency;
+    private final RequestPriority priority;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private final StayKey key;
+    // Built on first use; a racing thread may build an equal one, which is harmless.
+    private StayKey availabilityKey;
 
     public HotelPricingRequest(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String targetCurrency) {
         if (hotelId == null || hotelId.trim().isEmpty()) {
@@ -24,11 +37,51 @@ public class HotelPricingRequest {
         if (!checkInDate.isBefore(checkOutDate)) {
             throw new IllegalArgumentException("checkInDate must be before checkOutDate");
         }
-        
+        if (!StayKey.isRepresentable(checkInDate) || !StayKey.isRepresentable(checkOutDate)) {
+            throw new IllegalArgumentException("Dates must be within " + Integer.MAX_VALUE + " days of 1970-01-01");
+        }
+
         this.hotelId = hotelId;
         this.checkInDate = checkInDate;
         this.checkOutDate = checkOutDate;
-        this.targetCurrency = targetCurrency;
+        this.targetCurrency = CurrencyUnit.intern(targetCurrency);
+        this.priority = RequestPriority.NORMAL;
+        this.hasDeadline = false;
+        this.deadlineNanos = 0;
+        this.key = new StayKey(hotelId, checkInDate, checkOutDate, this.targetCurrency);
+    }
+
+    private HotelPricingRequest(HotelPricingRequest stay, RequestPriority priority, boolean hasDeadline, long deadlineNanos) {
+        this.hotelId = stay.hotelId;
+        this.checkInDate = stay.checkInDate;
+        this.checkOutDate = stay.checkOutDate;
+        this.targetCurrency = stay.targetCurrency;
+        this.priority = priority;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+        this.key = stay.key;
+        this.availabilityKey = stay.availabilityKey;
+    }
+
+    /**
+     * This stay at {@code priority}, keeping any deadline.
+     */
+    public HotelPricingRequest withPriority(RequestPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("priority must not be null");
+        }
+        return new HotelPricingRequest(this, priority, hasDeadline, deadlineNanos);
+    }
+
+    /**
+     * This stay with a deadline {@code timeout} from now. A request past its deadline is failed with a
+     * {@link java.util.concurrent.TimeoutException} instead of calling upstream.
+     */
+    public HotelPricingRequest withDeadline(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be null or negative");
+        }
+        return new HotelPricingRequest(this, priority, true, System.nanoTime() + timeout.toNanos());
     }
 
     public String getHotelId() {
@@ -46,4 +99,52 @@ public class HotelPricingRequest {
     public String getTargetCurrency() {
         return targetCurrency;
     }
+
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * The deadline on the {@link System#nanoTime()} clock; only meaningful if {@link #hasDeadline()}.
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    StayKey priceKey() {
+        return key;
+    }
+
+    StayKey availabilityKey() {
+        StayKey availability = availabilityKey;
+        if (availability == null) {
+            availability = key.withoutCurrency();
+            availabilityKey = availability;
+        }
+        return availability;
+    }
+
+    boolean isPastDeadline(long nowNanos) {
+        return hasDeadline && nowNanos - deadlineNanos >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HotelPricingRequest)) {
+            return false;
+        }
+        return key.equals(((HotelPricingRequest) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
 }
@@ -1,20 +1,91 @@
 package com.hotel.pricer;
 
+/**
+ * Amounts are held in one of two forms: the {@code double} values they were priced as, or, for an engine
+ * built with {@link HotelPricerEngine.Builder#fixedPointMoney(boolean)}, exact minor units of the currency
+ * (see {@link #isFixedPoint()}). Either way the getters return both views. The currency is the request's,
+ * which {@link HotelPricingRequest} interns, so responses share one string per currency.
+ */
 public class HotelPricingResponse {
+    private static final byte AVAILABLE = 1;
+    private static final byte AVAILABILITY_UNKNOWN = 2;
+    private static final byte PRICE_STALE = 4;
+    private static final byte FIXED_POINT = 8;
+    private static final int UNAVAILABLE_SLOTS = 1024;
+
+    // Direct-mapped: an unavailable hotel priced again in the same currency gets the shared instance back.
+    private static final HotelPricingResponse[] UNAVAILABLE = new HotelPricingResponse[UNAVAILABLE_SLOTS];
+
     private final String hotelId;
-    private final boolean available;
-    private final double basePrice;
-    private final double tax;
-    private final double totalPrice;
     private final String currency;
+    private final String errorMessage;
+    // Minor units when FIXED_POINT is set, otherwise the bits of a double.
+    private final long basePrice;
+    private final long tax;
+    private final long totalPrice;
+    // An int keeps the object at 56 bytes with compressed oops; versions count reloads, so 2^31 is plenty.
+    private final int taxRatesVersion;
+    private final byte flags;
 
     public HotelPricingResponse(String hotelId, boolean available, double basePrice, double tax, double totalPrice, String currency) {
+        this(hotelId, available, basePrice, tax, totalPrice, currency, false, false, null, 0);
+    }
+
+    HotelPricingResponse(String hotelId, boolean available, double basePrice, double tax, double totalPrice, String currency,
+                         boolean availabilityUnknown, boolean priceStale, String errorMessage, long taxRatesVersion) {
+        this(hotelId, currency, errorMessage, Double.doubleToRawLongBits(basePrice), Double.doubleToRawLongBits(tax),
+                Double.doubleToRawLongBits(totalPrice), taxRatesVersion, flags(available, availabilityUnknown, priceStale));
+    }
+
+    private HotelPricingResponse(String hotelId, String currency, String errorMessage, long basePrice, long tax,
+                                 long totalPrice, long taxRatesVersion, byte flags) {
         this.hotelId = hotelId;
-        this.available = available;
+        this.currency = currency;
+        this.errorMessage = errorMessage;
         this.basePrice = basePrice;
         this.tax = tax;
         this.totalPrice = totalPrice;
-        this.currency = currency;
+        this.taxRatesVersion = Math.toIntExact(taxRatesVersion);
+        this.flags = flags;
+    }
+
+    public static HotelPricingResponse failed(String hotelId, String currency, String errorMessage) {
+        return new HotelPricingResponse(hotelId, false, 0.0, 0.0, 0.0, currency, false, false,
+                errorMessage == null ? "Pricing failed" : errorMessage, 0);
+    }
+
+    /**
+     * An available price in exact minor units of {@code unit}; the total is always base plus tax.
+     */
+    static HotelPricingResponse fixedPoint(String hotelId, CurrencyUnit unit, long baseMinorUnits, long taxMinorUnits,
+                                           long taxRatesVersion) {
+        return new HotelPricingResponse(hotelId, unit.getCode(), null, baseMinorUnits, taxMinorUnits,
+                Math.addExact(baseMinorUnits, taxMinorUnits), taxRatesVersion, (byte) (AVAILABLE | FIXED_POINT));
+    }
+
+    /**
+     * A response with no price for a hotel that is not available. These are immutable and identical per
+     * hotel and currency, so a recently built one is handed out again instead of allocating a new one.
+     */
+    static HotelPricingResponse unavailable(String hotelId, String currency) {
+        int slot = (hotelId.hashCode() * 31 + currency.hashCode()) & (UNAVAILABLE_SLOTS - 1);
+        HotelPricingResponse cached = UNAVAILABLE[slot];
+        if (cached != null && cached.hotelId.equals(hotelId) && cached.currency.equals(currency)) {
+            return cached;
+        }
+        // Racing writers may overwrite each other's entry; that only costs a later allocation.
+        HotelPricingResponse response = new HotelPricingResponse(hotelId, false, 0.0, 0.0, 0.0, currency);
+        UNAVAILABLE[slot] = response;
+        return response;
+    }
+
+    /**
+     * This price with the given availability and degradation flags, keeping its amounts in their form.
+     */
+    HotelPricingResponse degraded(boolean available, boolean availabilityUnknown, boolean priceStale) {
+        byte degradedFlags = (byte) (flags & FIXED_POINT | flags(available, availabilityUnknown, priceStale));
+        return new HotelPricingResponse(hotelId, currency, errorMessage, basePrice, tax, totalPrice, taxRatesVersion,
+                degradedFlags);
     }
 
     public String getHotelId() {
@@ -22,34 +93,105 @@ public class HotelPricingResponse {
     }
 
     public boolean isAvailable() {
-        return available;
+        return (flags & AVAILABLE) != 0;
     }
 
     public double getBasePrice() {
-        return basePrice;
+        return amount(basePrice);
     }
 
     public double getTax() {
-        return tax;
+        return amount(tax);
     }
 
     public double getTotalPrice() {
-        return totalPrice;
+        return amount(totalPrice);
+    }
+
+    /**
+     * The base price in minor units of the currency: exact for a fixed-point response, otherwise the
+     * {@code double} price rounded half-even.
+     */
+    public long getBasePriceMinorUnits() {
+        return minorUnits(basePrice);
+    }
+
+    public long getTaxMinorUnits() {
+        return minorUnits(tax);
+    }
+
+    public long getTotalPriceMinorUnits() {
+        return minorUnits(totalPrice);
+    }
+
+    public boolean isFixedPoint() {
+        return (flags & FIXED_POINT) != 0;
     }
 
     public String getCurrency() {
         return currency;
     }
 
+    /**
+     * The unit of {@link #getCurrency()}, or null for a response without a currency.
+     */
+    public CurrencyUnit getCurrencyUnit() {
+        return currency == null ? null : CurrencyUnit.of(currency);
+    }
+
+    public long getTaxRatesVersion() {
+        return taxRatesVersion;
+    }
+
+    public boolean isAvailabilityUnknown() {
+        return (flags & AVAILABILITY_UNKNOWN) != 0;
+    }
+
+    public boolean isPriceStale() {
+        return (flags & PRICE_STALE) != 0;
+    }
+
+    public boolean isDegraded() {
+        return (flags & (AVAILABILITY_UNKNOWN | PRICE_STALE)) != 0;
+    }
+
+    public boolean isFailed() {
+        return errorMessage != null;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    private double amount(long stored) {
+        return isFixedPoint() ? getCurrencyUnit().toAmount(stored) : Double.longBitsToDouble(stored);
+    }
+
+    private long minorUnits(long stored) {
+        if (isFixedPoint()) {
+            return stored;
+        }
+        double amount = Double.longBitsToDouble(stored);
+        return currency == null ? Math.round(amount * 100) : getCurrencyUnit().toMinorUnits(amount);
+    }
+
+    private static byte flags(boolean available, boolean availabilityUnknown, boolean priceStale) {
+        return (byte) ((available ? AVAILABLE : 0) | (availabilityUnknown ? AVAILABILITY_UNKNOWN : 0)
+                | (priceStale ? PRICE_STALE : 0));
+    }
+
     @Override
     public String toString() {
         return "HotelPricingResponse{" +
                 "hotelId='" + hotelId + '\'' +
-                ", available=" + available +
-                ", basePrice=" + basePrice +
-                ", tax=" + tax +
-                ", totalPrice=" + totalPrice +
+                ", available=" + isAvailable() +
+                ", basePrice=" + getBasePrice() +
+                ", tax=" + getTax() +
+                ", totalPrice=" + getTotalPrice() +
                 ", currency='" + currency + '\'' +
+                (isAvailabilityUnknown() ? ", availabilityUnknown=true" : "") +
+                (isPriceStale() ? ", priceStale=true" : "") +
+                (errorMessage != null ? ", errorMessage='" + errorMessage + '\'' : "") +
                 '}';
     }
 }
@@ -0,0 +1,246 @@
+package com.hotel.pricer;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps every measurement in memory: a {@link LatencyHistogram} per stage, in-flight gauges per upstream
+ * service and outcome counters per region. All recording is lock-free and allocation-free. Register it with
+ * JMX through {@link #registerMBean(String)} to read it from jconsole or any JMX client.
+ */
+public class InMemoryPricingMetrics implements PricingMetrics, PricingMetricsMXBean {
+    private static final PricingStage[] STAGES = PricingStage.values();
+    private static final PricingOutcome[] OUTCOMES = PricingOutcome.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[STAGES.length];
+    private final LongAdder[] inFlight = new LongAdder[STAGES.length];
+    private final LongAdder[] failedCalls = new LongAdder[STAGES.length];
+    private final LongAdder[] outcomes = new LongAdder[OUTCOMES.length];
+    private final AtomicLongArray outcomesByRegion = new AtomicLongArray(RegionCode.COUNT * OUTCOMES.length);
+    private final ConcurrentHashMap<String, CircuitState> circuitStates = new ConcurrentHashMap<>();
+    private final LongAdder circuitsOpened = new LongAdder();
+
+    public InMemoryPricingMetrics() {
+        for (int i = 0; i < STAGES.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            inFlight[i] = new LongAdder();
+            failedCalls[i] = new LongAdder();
+        }
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void upstreamCallStarted(PricingStage stage) {
+        inFlight[stage.ordinal()].increment();
+    }
+
+    @Override
+    public void upstreamCallFinished(PricingStage stage, long latencyNanos, boolean failed) {
+        inFlight[stage.ordinal()].decrement();
+        latencies[stage.ordinal()].record(latencyNanos);
+        if (failed) {
+            failedCalls[stage.ordinal()].increment();
+        }
+    }
+
+    @Override
+    public void stageCompleted(PricingStage stage, long latencyNanos) {
+        latencies[stage.ordinal()].record(latencyNanos);
+    }
+
+    @Override
+    public void pricingCompleted(String region, PricingOutcome outcome) {
+        outcomes[outcome.ordinal()].increment();
+        int regionIndex = RegionCode.ofRegion(region);
+        outcomesByRegion.incrementAndGet(regionIndex * OUTCOMES.length + outcome.ordinal());
+    }
+
+    @Override
+    public void circuitStateChanged(String breakerName, CircuitState from, CircuitState to) {
+        circuitStates.put(breakerName, to);
+        if (to == CircuitState.OPEN) {
+            circuitsOpened.increment();
+        }
+    }
+
+    public LatencyHistogram getLatency(PricingStage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    public long getInFlight(PricingStage stage) {
+        return inFlight[stage.ordinal()].sum();
+    }
+
+    public long getFailedCallCount(PricingStage stage) {
+        return failedCalls[stage.ordinal()].sum();
+    }
+
+    public long getOutcomeCount(PricingOutcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    public long getOutcomeCount(String region, PricingOutcome outcome) {
+        int regionIndex = RegionCode.ofRegion(region);
+        return outcomesByRegion.get(regionIndex * OUTCOMES.length + outcome.ordinal());
+    }
+
+    /**
+     * Registers this instance as {@code com.hotel.pricer:type=PricingMetrics,name=<name>} with the platform
+     * MBean server.
+     */
+    public ObjectName registerMBean(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("name must not be null or empty");
+        }
+        try {
+            ObjectName objectName = new ObjectName("com.hotel.pricer:type=PricingMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("Pricing metrics '" + name + "' are already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register pricing metrics '" + name + "'", e);
+        }
+    }
+
+    public static void unregisterMBean(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // already gone
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister " + objectName, e);
+        }
+    }
+
+    @Override
+    public long getPriceCallsInFlight() {
+        return getInFlight(PricingStage.PRICE);
+    }
+
+    @Override
+    public long getAvailabilityCallsInFlight() {
+        return getInFlight(PricingStage.AVAILABILITY);
+    }
+
+    @Override
+    public long getPriceLatencyP50Micros() {
+        return percentileMicros(PricingStage.PRICE, 50.0);
+    }
+
+    @Override
+    public long getPriceLatencyP99Micros() {
+        return percentileMicros(PricingStage.PRICE, 99.0);
+    }
+
+    @Override
+    public long getAvailabilityLatencyP50Micros() {
+        return percentileMicros(PricingStage.AVAILABILITY, 50.0);
+    }
+
+    @Override
+    public long getAvailabilityLatencyP99Micros() {
+        return percentileMicros(PricingStage.AVAILABILITY, 99.0);
+    }
+
+    @Override
+    public long getCombineLatencyP99Micros() {
+        return percentileMicros(PricingStage.COMBINE, 99.0);
+    }
+
+    @Override
+    public long getTotalLatencyP50Micros() {
+        return percentileMicros(PricingStage.TOTAL, 50.0);
+    }
+
+    @Override
+    public long getTotalLatencyP99Micros() {
+        return percentileMicros(PricingStage.TOTAL, 99.0);
+    }
+
+    @Override
+    public long getTotalLatencyMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(getLatency(PricingStage.TOTAL).getMax());
+    }
+
+    @Override
+    public long getAvailableCount() {
+        return getOutcomeCount(PricingOutcome.AVAILABLE);
+    }
+
+    @Override
+    public long getUnavailableCount() {
+        return getOutcomeCount(PricingOutcome.UNAVAILABLE);
+    }
+
+    @Override
+    public long getFailedCount() {
+        return getOutcomeCount(PricingOutcome.FAILED);
+    }
+
+    @Override
+    public Map<String, Long> getOutcomesByRegion() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int region = 0; region < RegionCode.COUNT; region++) {
+            for (PricingOutcome outcome : OUTCOMES) {
+                long count = outcomesByRegion.get(region * OUTCOMES.length + outcome.ordinal());
+                if (count > 0) {
+                    counts.put(RegionCode.name(region) + "." + outcome, count);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public CircuitState getCircuitState(String breakerName) {
+        return circuitStates.get(breakerName);
+    }
+
+    @Override
+    public Map<String, String> getCircuitStates() {
+        Map<String, String> states = new HashMap<>();
+        circuitStates.forEach((name, state) -> states.put(name, state.name()));
+        return states;
+    }
+
+    @Override
+    public long getCircuitOpenedCount() {
+        return circuitsOpened.sum();
+    }
+
+    /**
+     * Clears latencies and counters. In-flight gauges and circuit states are left alone, since they describe
+     * what is happening now.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            latencies[i].reset();
+            failedCalls[i].reset();
+        }
+        for (LongAdder outcome : outcomes) {
+            outcome.reset();
+        }
+        for (int i = 0; i < outcomesByRegion.length(); i++) {
+            outcomesByRegion.set(i, 0);
+        }
+        circuitsOpened.reset();
+    }
+
+    private long percentileMicros(PricingStage stage, double percentile) {
+        return TimeUnit.NANOSECONDS.toMicros(getLatency(stage).getValueAtPercentile(percentile));
+    }
+}
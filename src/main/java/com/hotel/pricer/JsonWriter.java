@@ -0,0 +1,287 @@
+package com.hotel.pricer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes JSON as UTF-8 straight into a growable byte buffer that is reused across documents, so encoding a
+ * response allocates nothing once the buffer has grown to size. Separators are tracked per nesting level, so
+ * callers only say what comes next. Top-level values are separate documents and get no separator, so a
+ * stream of JSON lines is written as values joined by {@code raw('\n')}. Nesting deeper than 64 levels is not
+ * supported.
+ */
+final class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_DEPTH = 64;
+
+    private byte[] buffer;
+    private int size;
+    private int depth;
+    // Bit d is set once the container at depth d has a member, so the next one needs a comma.
+    private long hasMembers;
+    private boolean afterName;
+
+    JsonWriter() {
+        this(256);
+    }
+
+    JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    JsonWriter beginObject() {
+        return open('{');
+    }
+
+    JsonWriter endObject() {
+        return close('}');
+    }
+
+    JsonWriter beginArray() {
+        return open('[');
+    }
+
+    JsonWriter endArray() {
+        return close(']');
+    }
+
+    JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        writeString(value);
+        return this;
+    }
+
+    JsonWriter value(boolean value) {
+        separate();
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes {@code value} rounded half-up to two decimals, e.g. {@code 1234.5} as {@code 1234.50}. Values
+     * beyond 10^15 in magnitude, and non-finite ones, fall back to {@link Double#toString} and {@code null}.
+     */
+    JsonWriter money(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        separate();
+        if (Math.abs(value) >= 1e15) {
+            writeAscii(Double.toString(value));
+            return this;
+        }
+        writeDecimal(Math.round(value * 100), 2);
+        return this;
+    }
+
+    /**
+     * Writes an exact amount of {@code minorUnits} with {@code scale} decimals, e.g. 123450 at scale 2 as
+     * {@code 1234.50} and 1235 at scale 0 as {@code 1235}.
+     */
+    JsonWriter money(long minorUnits, int scale) {
+        separate();
+        writeDecimal(minorUnits, scale);
+        return this;
+    }
+
+    JsonWriter nullValue() {
+        separate();
+        write(NULL);
+        return this;
+    }
+
+    /**
+     * Appends a raw byte such as a newline between documents; it does not count as a JSON value.
+     */
+    JsonWriter raw(char c) {
+        write((byte) c);
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * Empties the buffer, keeping its capacity, so the writer can encode the next document.
+     */
+    void reset() {
+        size = 0;
+        depth = 0;
+        hasMembers = 0;
+        afterName = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private JsonWriter open(char bracket) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting deeper than " + MAX_DEPTH);
+        }
+        separate();
+        write((byte) bracket);
+        depth++;
+        hasMembers &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No open JSON container to close");
+        }
+        depth--;
+        write((byte) bracket);
+        return this;
+    }
+
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        long bit = 1L << depth;
+        if ((hasMembers & bit) != 0) {
+            write(',');
+        } else {
+            hasMembers |= bit;
+        }
+    }
+
+    private void writeString(String value) {
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                write('\\');
+                write((byte) c);
+            } else if (c < 0x20) {
+                write('\\');
+                write('u');
+                write('0');
+                write('0');
+                write(HEX[c >> 4]);
+                write(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                write((byte) c);
+            } else if (c < 0x800) {
+                write((byte) (0xC0 | c >> 6));
+                write((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                write((byte) (0xF0 | codePoint >> 18));
+                write((byte) (0x80 | codePoint >> 12 & 0x3F));
+                write((byte) (0x80 | codePoint >> 6 & 0x3F));
+                write((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Lone surrogate: not encodable as UTF-8.
+                write('?');
+            } else {
+                write((byte) (0xE0 | c >> 12));
+                write((byte) (0x80 | c >> 6 & 0x3F));
+                write((byte) (0x80 | c & 0x3F));
+            }
+        }
+        write('"');
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void writeDecimal(long unscaled, int scale) {
+        if (scale == 0 || unscaled == Long.MIN_VALUE) {
+            writeLong(unscaled);
+            return;
+        }
+        if (unscaled < 0) {
+            write('-');
+            unscaled = -unscaled;
+        }
+        long factor = 1;
+        for (int i = 0; i < scale; i++) {
+            factor *= 10;
+        }
+        writeLong(unscaled / factor);
+        write('.');
+        long fraction = unscaled % factor;
+        for (long digit = factor / 10; digit > 0; digit /= 10) {
+            write((byte) ('0' + fraction / digit % 10));
+        }
+    }
+
+    private void writeAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            write((byte) value.charAt(i));
+        }
+    }
+
+    private void write(char c) {
+        write((byte) c);
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * How long a simulated upstream round-trip takes. The random models take a seed, so a run draws the same
+ * sequence of delays every time; which call gets which delay still depends on thread scheduling.
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    long nextDelayMillis();
+
+    static LatencyModel fixed(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("millis must not be negative");
+        }
+        return () -> millis;
+    }
+
+    /**
+     * Log-normal delays with the given median; {@code sigma} is the standard deviation of the underlying
+     * normal and sets the tail, e.g. 0.5 puts p99 at about 3.2x the median and 1.0 at about 10x.
+     */
+    static LatencyModel logNormal(long medianMillis, double sigma, long seed) {
+        if (medianMillis < 1) {
+            throw new IllegalArgumentException("medianMillis must be at least 1");
+        }
+        if (sigma < 0 || Double.isNaN(sigma)) {
+            throw new IllegalArgumentException("sigma must not be negative");
+        }
+        Random random = new Random(seed);
+        double mu = Math.log(medianMillis);
+        return () -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Draws from {@code slow} with probability {@code slowProbability}, otherwise from {@code fast}: a cache
+     * hit/miss or healthy/overloaded replica mix.
+     */
+    static LatencyModel bimodal(LatencyModel fast, LatencyModel slow, double slowProbability, long seed) {
+        if (fast == null || slow == null) {
+            throw new IllegalArgumentException("fast and slow must not be null");
+        }
+        if (!(slowProbability >= 0 && slowProbability <= 1)) {
+            throw new IllegalArgumentException("slowProbability must be between 0 and 1");
+        }
+        Random random = new Random(seed);
+        return () -> random.nextDouble() < slowProbability ? slow.nextDelayMillis() : fast.nextDelayMillis();
+    }
+
+    /**
+     * Adds stop-the-world style pauses: for {@code pause} out of every {@code interval}, counted from now, every
+     * call also waits until the pause is over, as if the upstream had stalled for a GC or a failover.
+     */
+    default LatencyModel withPauses(Duration interval, Duration pause) {
+        return withPauses(interval, pause, System::nanoTime);
+    }
+
+    default LatencyModel withPauses(Duration interval, Duration pause, LongSupplier nanoClock) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (pause == null || pause.isNegative() || pause.compareTo(interval) >= 0) {
+            throw new IllegalArgumentException("pause must be non-negative and shorter than interval");
+        }
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("nanoClock must not be null");
+        }
+        long intervalNanos = interval.toNanos();
+        long pauseNanos = pause.toNanos();
+        long origin = nanoClock.getAsLong();
+        return () -> {
+            long delay = nextDelayMillis();
+            // Pauses sit at the end of each interval, so the first one starts after interval - pause.
+            long intoInterval = Math.floorMod(nanoClock.getAsLong() - origin, intervalNanos);
+            long pauseStart = intervalNanos - pauseNanos;
+            if (intoInterval >= pauseStart) {
+                delay += Math.max(1, Duration.ofNanos(intervalNanos - intoInterval).toMillis());
+            }
+            return delay;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every call to the delegate through a {@link ConcurrencyLimiter}; see {@link LimitedPriceApiService}.
+ */
+public class LimitedAvailabilityApiService extends AvailabilityApiService {
+    private final AvailabilityApiService delegate;
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedAvailabilityApiService(AvailabilityApiService delegate, ConcurrencyLimiter limiter) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (limiter == null) {
+            throw new IllegalArgumentException("limiter must not be null");
+        }
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return limiter.submit(() -> delegate.checkAvailability(hotelId, checkInDate, checkOutDate));
+    }
+
+    @Override
+    CompletableFuture<Boolean> checkAvailability(StayKey key) {
+        return limiter.submit(() -> delegate.checkAvailability(key));
+    }
+
+    @Override
+    public CompletableFuture<boolean[]> checkAvailabilityForArrivals(String hotelId, LocalDate fromDate, LocalDate toDate, int nights) {
+        return limiter.submit(() -> delegate.checkAvailabilityForArrivals(hotelId, fromDate, toDate, nights));
+    }
+
+    @Override
+    public List<CompletableFuture<Boolean>> checkAvailabilities(List<HotelPricingRequest> requests) {
+        return BatchRoundTrips.chunked(requests, MAX_BATCH_SIZE, delegate::checkAvailabilities, limiter::submit);
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
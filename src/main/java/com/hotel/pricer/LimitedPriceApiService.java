@@ -0,0 +1,60 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every call to the delegate through a {@link ConcurrencyLimiter}. A batch takes one permit per upstream
+ * round-trip of up to {@link PriceApiService#MAX_BATCH_SIZE} requests. Wrap this service in a
+ * {@link CachingPriceApiService} rather than the other way round, so cache hits never wait for a permit.
+ */
+public class LimitedPriceApiService extends PriceApiService {
+    private final PriceApiService delegate;
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedPriceApiService(PriceApiService delegate, ConcurrencyLimiter limiter) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (limiter == null) {
+            throw new IllegalArgumentException("limiter must not be null");
+        }
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        return limiter.submit(() -> delegate.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency));
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePrice(StayKey key) {
+        return limiter.submit(() -> delegate.fetchBasePrice(key));
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePriceUncached(StayKey key) {
+        return limiter.submit(() -> delegate.fetchBasePriceUncached(key));
+    }
+
+    @Override
+    public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+        return BatchRoundTrips.chunked(requests, MAX_BATCH_SIZE, delegate::fetchBasePrices, limiter::submit);
+    }
+
+    @Override
+    public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        return limiter.submit(() -> delegate.fetchNightlyRates(hotelId, fromDate, toDate, currency));
+    }
+
+    @Override
+    public String quoteCurrency(String hotelId) {
+        return delegate.quoteCurrency(hotelId);
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
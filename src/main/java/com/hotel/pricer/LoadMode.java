@@ -0,0 +1,18 @@
+package com.hotel.pricer;
+
+/**
+ * How {@link EngineLoadDriver} issues requests.
+ */
+public enum LoadMode {
+    /**
+     * A fixed number of clients, each waiting for its response before sending the next request, optionally
+     * paced to a target rate. When a response is late the client's next requests go out late too, which is
+     * the coordinated omission the corrected response times account for.
+     */
+    CLOSED_LOOP,
+    /**
+     * Requests go out on a fixed schedule at the target rate, whether or not earlier ones have completed,
+     * like independent users arriving.
+     */
+    OPEN_LOOP
+}
@@ -0,0 +1,77 @@
+package com.hotel.pricer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a load run. Response time is measured from when each request was meant to be sent, so delays
+ * that held back later requests show up in the percentiles (the coordinated omission correction); service
+ * time is measured from when it was actually sent. Without pacing the two are the same.
+ */
+public final class LoadReport {
+    private final LatencyHistogram responseTime;
+    private final LatencyHistogram serviceTime;
+    private final long errors;
+    private final long degraded;
+    private final long elapsedNanos;
+
+    LoadReport(LatencyHistogram responseTime, LatencyHistogram serviceTime, long errors, long degraded, long elapsedNanos) {
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+        this.errors = errors;
+        this.degraded = degraded;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRequests() {
+        return responseTime.getCount();
+    }
+
+    /**
+     * Requests that failed, timed out or came back as a failed response.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0.0 : (double) errors / requests;
+    }
+
+    public long getDegraded() {
+        return degraded;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos <= 0 ? 0.0 : getRequests() / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        String report = String.format("requests=%d errors=%d (%.2f%%) throughput=%.1f/s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                getRequests(), errors, getErrorRate() * 100, getThroughputPerSecond(),
+                millis(responseTime.getValueAtPercentile(50.0)),
+                millis(responseTime.getValueAtPercentile(99.0)),
+                millis(responseTime.getValueAtPercentile(99.9)),
+                millis(responseTime.getMax()));
+        if (degraded > 0) {
+            report += " degraded=" + degraded;
+        }
+        if (serviceTime != responseTime) {
+            report += String.format(" (uncorrected p99=%.2fms)", millis(serviceTime.getValueAtPercentile(99.0)));
+        }
+        return report;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
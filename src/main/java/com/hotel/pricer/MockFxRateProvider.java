@@ -0,0 +1,61 @@
+package com.hotel.pricer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class MockFxRateProvider implements FxRateProvider {
+    static final LatencyModel DEFAULT_LATENCY = LatencyModel.fixed(50);
+
+    private final Executor executor;
+    private final LatencyModel latencyModel;
+
+    public MockFxRateProvider() {
+        this(UpstreamExecutors.defaultPriceExecutor());
+    }
+
+    public MockFxRateProvider(Executor executor) {
+        this(executor, DEFAULT_LATENCY);
+    }
+
+    public MockFxRateProvider(Executor executor, LatencyModel latencyModel) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        if (latencyModel == null) {
+            throw new IllegalArgumentException("latencyModel must not be null");
+        }
+        this.executor = executor;
+        this.latencyModel = latencyModel;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Double>> fetchRates() {
+        return UpstreamCall.supply(() -> {
+            simulateRoundTrip();
+
+            Map<String, Double> rates = new HashMap<>();
+            rates.put("USD", 1.0);
+            rates.put("EUR", 0.92);
+            rates.put("GBP", 0.79);
+            rates.put("JPY", 150.0);
+            rates.put("CAD", 1.36);
+            return rates;
+        }, executor);
+    }
+
+    private void simulateRoundTrip() {
+        long delayMillis = latencyModel.nextDelayMillis();
+        if (delayMillis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("FX API call interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Prices stays as the sum of their nights, through a {@link NightlyRateCache} filled by the delegate's
+ * {@link PriceApiService#fetchNightlyRates}. Overlapping stays and flexible-date searches then only fetch the
+ * nights not seen before, instead of every stay being fetched whole.
+ *
+ * <p>In a batch, stays with no night cached or being fetched go to the delegate's batch call together, so a
+ * cold batch still takes one round-trip per {@link PriceApiService#MAX_BATCH_SIZE} stays. Their nights are not
+ * cached, since a batch returns whole-stay prices; put a {@link CachingPriceApiService} in front to keep those.
+ */
+public class NightlyPriceApiService extends PriceApiService {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_HOTELS = 10_000;
+
+    private final PriceApiService delegate;
+    private final NightlyRateCache cache;
+
+    public NightlyPriceApiService(PriceApiService delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_MAX_HOTELS);
+    }
+
+    public NightlyPriceApiService(PriceApiService delegate, Duration ttl, int maxHotels) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.cache = new NightlyRateCache(delegate::fetchNightlyRates, ttl, maxHotels);
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        if (!cacheable(hotelId, checkInDate, checkOutDate, currency)) {
+            return delegate.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency);
+        }
+        return cache.stayPrice(hotelId, checkInDate, checkOutDate, currency);
+    }
+
+    @Override
+    CompletableFuture<Double> fetchBasePriceUncached(StayKey key) {
+        return delegate.fetchBasePriceUncached(key);
+    }
+
+    @Override
+    public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        List<CompletableFuture<Double>> results = new ArrayList<>(requests.size());
+        List<HotelPricingRequest> coldRequests = new ArrayList<>();
+        List<Integer> coldSlots = new ArrayList<>();
+        for (HotelPricingRequest request : requests) {
+            if (request == null) {
+                results.add(CompletableFuture.failedFuture(new IllegalArgumentException("HotelPricingRequest must not be null")));
+            } else if (isCold(request)) {
+                coldSlots.add(results.size());
+                coldRequests.add(request);
+                results.add(null);
+            } else {
+                results.add(cache.stayPrice(request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate(),
+                        request.getTargetCurrency()));
+            }
+        }
+        if (!coldRequests.isEmpty()) {
+            List<CompletableFuture<Double>> prices = delegate.fetchBasePrices(coldRequests);
+            for (int i = 0; i < coldSlots.size(); i++) {
+                results.set(coldSlots.get(i), prices.get(i));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        if (!cacheable(hotelId, fromDate, toDate, currency)) {
+            return delegate.fetchNightlyRates(hotelId, fromDate, toDate, currency);
+        }
+        return cache.nightlyRates(hotelId, fromDate, toDate, currency);
+    }
+
+    @Override
+    public String quoteCurrency(String hotelId) {
+        return delegate.quoteCurrency(hotelId);
+    }
+
+    private boolean isCold(HotelPricingRequest request) {
+        return !cacheable(request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate(), request.getTargetCurrency())
+                || !cache.holdsAnyNight(request.getHotelId(), request.getTargetCurrency(),
+                        request.getCheckInDate().toEpochDay(), request.getCheckOutDate().toEpochDay());
+    }
+
+    private static boolean cacheable(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        // Anything the cache cannot hold goes straight to the delegate, which also reports invalid arguments.
+        return hotelId != null && !hotelId.trim().isEmpty() && fromDate != null && toDate != null
+                && currency != null && !currency.trim().isEmpty() && fromDate.isBefore(toDate)
+                && toDate.toEpochDay() - fromDate.toEpochDay() <= NightlyRateCache.MAX_SPAN_DAYS;
+    }
+
+    /**
+     * Night-level counters: hits were served from the cache, misses were fetched, coalesced joined a fetch
+     * already in flight. The size is the number of hotels held.
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    public long getUpstreamCallCount() {
+        return cache.getUpstreamCallCount();
+    }
+
+    NightlyRateCache cache() {
+        return cache;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,440 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches nightly rates per (hotel, currency) in primitive arrays indexed by epoch day, so a stay is priced as
+ * the sum of its nights and overlapping stays share the nights they have in common. Only the nights that are
+ * missing or expired are fetched, one upstream call per contiguous run; nights already being fetched by
+ * another stay are waited on instead of fetched twice. Failed fetches are not cached.
+ *
+ * <p>Each hotel keeps a window of at most {@value #MAX_SPAN_DAYS} days. A stay outside it restarts the window
+ * around that stay, unless nights in the window are still being fetched; then the stay is fetched on its own
+ * and not cached, so stays far apart never keep dropping each other's nights. Stats count nights, not stays:
+ * hits were fresh, misses were fetched, coalesced were already in flight.
+ */
+final class NightlyRateCache {
+    static final int MAX_SPAN_DAYS = 731;
+    private static final int MIN_CAPACITY_DAYS = 32;
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    interface Loader {
+        CompletableFuture<double[]> load(String hotelId, LocalDate fromDate, LocalDate toDate, String currency);
+    }
+
+    interface RatesVisitor {
+        /**
+         * Night {@code i} starts on {@code fromDay + i}; a NaN rate marks a night with no fresh rate.
+         */
+        void visit(String hotelId, String currency, long fromDay, double[] rates, long[] remainingNanos);
+    }
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final int maxHotels;
+    private final LongSupplier nanoClock;
+    private final Map<StayKey, HotelRates> hotels = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder upstreamCalls = new LongAdder();
+
+    NightlyRateCache(Loader loader, Duration ttl, int maxHotels) {
+        this(loader, ttl, maxHotels, System::nanoTime);
+    }
+
+    NightlyRateCache(Loader loader, Duration ttl, int maxHotels, LongSupplier nanoClock) {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader must not be null");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxHotels < 1) {
+            throw new IllegalArgumentException("maxHotels must be at least 1");
+        }
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("nanoClock must not be null");
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.maxHotels = maxHotels;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Sums the nightly rates from {@code checkInDate} (inclusive) to {@code checkOutDate} (exclusive). The
+     * arguments must be non-null, with a stay of 1 to {@value #MAX_SPAN_DAYS} nights.
+     */
+    CompletableFuture<Double> stayPrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        StayKey key = StayKey.forHotel(hotelId, currency);
+        return read(key, checkInDate.toEpochDay(), checkOutDate.toEpochDay(), null, false);
+    }
+
+    /**
+     * Returns the rate of each night from {@code fromDate} (inclusive) to {@code toDate} (exclusive), under the
+     * same argument rules as {@link #stayPrice}.
+     */
+    CompletableFuture<double[]> nightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        StayKey key = StayKey.forHotel(hotelId, currency);
+        long fromDay = fromDate.toEpochDay();
+        double[] rates = new double[(int) (toDate.toEpochDay() - fromDay)];
+        return read(key, fromDay, toDate.toEpochDay(), rates, false).thenApply(sum -> rates);
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), hotels.size());
+    }
+
+    long getUpstreamCallCount() {
+        return upstreamCalls.sum();
+    }
+
+    void invalidateAll() {
+        hotels.clear();
+    }
+
+    /**
+     * Whether any night from {@code fromDay} to {@code toDay} has a fresh rate or is being fetched. Looks only,
+     * so a hotel never seen is not added.
+     */
+    boolean holdsAnyNight(String hotelId, String currency, long fromDay, long toDay) {
+        HotelRates hotel = hotels.get(StayKey.forHotel(hotelId, currency));
+        if (hotel == null) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        synchronized (hotel) {
+            long from = Math.max(fromDay, hotel.baseDay);
+            long to = Math.min(toDay, hotel.baseDay + hotel.rates.length);
+            for (long day = from; day < to; day++) {
+                int i = (int) (day - hotel.baseDay);
+                if (hotel.pending[i] != null || !Double.isNaN(hotel.rates[i]) && now - hotel.expiresAt[i] < 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits each hotel's fresh nights, trimmed to the first and last of them. Each hotel's arrays are copied
+     * under its monitor, so only lookups for that hotel wait, and only for the copy.
+     */
+    void forEachFresh(RatesVisitor visitor) {
+        for (Map.Entry<StayKey, HotelRates> entry : hotels.entrySet()) {
+            HotelRates hotel = entry.getValue();
+            long baseDay;
+            double[] rates;
+            long[] expiresAt;
+            synchronized (hotel) {
+                baseDay = hotel.baseDay;
+                rates = hotel.rates.clone();
+                expiresAt = hotel.expiresAt.clone();
+            }
+            long now = nanoClock.getAsLong();
+            int first = -1;
+            int last = -1;
+            long[] remaining = new long[rates.length];
+            for (int i = 0; i < rates.length; i++) {
+                remaining[i] = expiresAt[i] - now;
+                if (Double.isNaN(rates[i]) || remaining[i] <= 0) {
+                    rates[i] = Double.NaN;
+                    continue;
+                }
+                first = first < 0 ? i : first;
+                last = i;
+            }
+            if (first >= 0) {
+                visitor.visit(entry.getKey().getHotelId(), entry.getKey().getCurrency(), baseDay + first,
+                        Arrays.copyOfRange(rates, first, last + 1), Arrays.copyOfRange(remaining, first, last + 1));
+            }
+        }
+    }
+
+    /**
+     * Stores the non-NaN {@code rates} from {@code fromDay} with the time each has left, capped at the TTL.
+     * Nights that already have a fresh rate or are being fetched are left alone, as is a hotel whose window
+     * would have to move to fit them. Returns the number of nights stored.
+     */
+    int preload(String hotelId, String currency, long fromDay, double[] rates, long[] remainingNanos) {
+        if (rates.length == 0 || rates.length > MAX_SPAN_DAYS) {
+            return 0;
+        }
+        StayKey key = StayKey.forHotel(hotelId, currency);
+        HotelRates hotel = hotels.computeIfAbsent(key, k -> new HotelRates());
+        if (hotels.size() > maxHotels) {
+            evictOne(key);
+        }
+        long toDay = fromDay + rates.length;
+        long now = nanoClock.getAsLong();
+        int stored = 0;
+        synchronized (hotel) {
+            if (hotel.rates.length > 0 && Math.max(hotel.baseDay + hotel.rates.length, toDay)
+                    - Math.min(hotel.baseDay, fromDay) > MAX_SPAN_DAYS) {
+                return 0;
+            }
+            hotel.cover(fromDay, toDay, false);
+            for (int n = 0; n < rates.length; n++) {
+                int i = (int) (fromDay + n - hotel.baseDay);
+                boolean fresh = !Double.isNaN(hotel.rates[i]) && now - hotel.expiresAt[i] < 0;
+                if (Double.isNaN(rates[n]) || remainingNanos[n] <= 0 || fresh || hotel.pending[i] != null) {
+                    continue;
+                }
+                hotel.rates[i] = rates[n];
+                hotel.expiresAt[i] = now + Math.min(remainingNanos[n], ttlNanos);
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Sums the nights from {@code fromDay} to {@code toDay}, copying each rate into {@code out} when it is
+     * non-null. A retry follows the one wait for nights other calls were fetching; if the window has lost any
+     * of them since, it fetches the stay on its own rather than waiting again.
+     */
+    private CompletableFuture<Double> read(StayKey key, long fromDay, long toDay, double[] out, boolean retry) {
+        HotelRates hotel = hotels.get(key);
+        if (hotel == null) {
+            hotel = hotels.computeIfAbsent(key, k -> new HotelRates());
+            if (hotels.size() > maxHotels) {
+                evictOne(key);
+            }
+        }
+
+        double sum = 0;
+        List<CompletableFuture<?>> waits = null;
+        List<Run> runs = null;
+        long now = nanoClock.getAsLong();
+        synchronized (hotel) {
+            hotel.lastAccess = now;
+            if (!hotel.cover(fromDay, toDay, !retry)) {
+                return fetchUncached(key, fromDay, toDay, out);
+            }
+            Run run = null;
+            CompletableFuture<?> lastWait = null;
+            for (long day = fromDay; day < toDay; day++) {
+                int i = (int) (day - hotel.baseDay);
+                double rate = hotel.rates[i];
+                // A retry takes whatever the fetch it waited on stored, even if it has expired since.
+                if (!Double.isNaN(rate) && (retry || now - hotel.expiresAt[i] < 0)) {
+                    sum += rate;
+                    if (out != null) {
+                        out[(int) (day - fromDay)] = rate;
+                    }
+                    if (!retry) {
+                        hits.increment();
+                    }
+                    run = null;
+                } else if (retry) {
+                    return fetchUncached(key, fromDay, toDay, out);
+                } else if (hotel.pending[i] != null) {
+                    if (hotel.pending[i] != lastWait) {
+                        lastWait = hotel.pending[i];
+                        waits = waits == null ? new ArrayList<>() : waits;
+                        waits.add(lastWait);
+                    }
+                    coalesced.increment();
+                    run = null;
+                } else {
+                    if (run == null) {
+                        run = new Run(day);
+                        runs = runs == null ? new ArrayList<>() : runs;
+                        runs.add(run);
+                    }
+                    run.toDay = day + 1;
+                    hotel.pending[i] = run.signal;
+                    misses.increment();
+                }
+            }
+        }
+
+        if (waits == null && runs == null) {
+            return CompletableFuture.completedFuture(sum);
+        }
+        waits = waits == null ? new ArrayList<>() : waits;
+        if (runs != null) {
+            for (Run run : runs) {
+                load(key, hotel, run);
+                waits.add(run.signal);
+            }
+        }
+        return CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0]))
+                .thenCompose(ignored -> read(key, fromDay, toDay, out, true));
+    }
+
+    private CompletableFuture<Double> fetchUncached(StayKey key, long fromDay, long toDay, double[] out) {
+        misses.add(toDay - fromDay);
+        return call(key, fromDay, toDay).thenApply(values -> {
+            IllegalStateException failure = checkLength(key, values, toDay - fromDay);
+            if (failure != null) {
+                throw failure;
+            }
+            double sum = 0;
+            for (int n = 0; n < values.length; n++) {
+                sum += values[n];
+                if (out != null) {
+                    out[n] = values[n];
+                }
+            }
+            return sum;
+        });
+    }
+
+    private void load(StayKey key, HotelRates hotel, Run run) {
+        call(key, run.fromDay, run.toDay).whenComplete((values, error) -> {
+            Throwable failure = error != null ? error : checkLength(key, values, run.toDay - run.fromDay);
+            long expiresAt = nanoClock.getAsLong() + ttlNanos;
+            synchronized (hotel) {
+                for (long day = run.fromDay; day < run.toDay; day++) {
+                    int i = (int) (day - hotel.baseDay);
+                    // The window may have moved on while the call was running.
+                    if (i < 0 || i >= hotel.pending.length || hotel.pending[i] != run.signal) {
+                        continue;
+                    }
+                    hotel.pending[i] = null;
+                    if (failure == null) {
+                        hotel.rates[i] = values[(int) (day - run.fromDay)];
+                        hotel.expiresAt[i] = expiresAt;
+                    }
+                }
+            }
+            if (failure != null) {
+                run.signal.completeExceptionally(failure);
+            } else {
+                run.signal.complete(null);
+            }
+        });
+    }
+
+    private CompletableFuture<double[]> call(StayKey key, long fromDay, long toDay) {
+        upstreamCalls.increment();
+        try {
+            CompletableFuture<double[]> rates = loader.load(key.getHotelId(), LocalDate.ofEpochDay(fromDay),
+                    LocalDate.ofEpochDay(toDay), key.getCurrency());
+            return rates != null ? rates : CompletableFuture.failedFuture(new IllegalStateException("loader returned null"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static IllegalStateException checkLength(StayKey key, double[] values, long nights) {
+        return values == null || values.length != nights
+                ? new IllegalStateException("Expected " + nights + " nightly rates for " + key.getHotelId())
+                : null;
+    }
+
+    private void evictOne(StayKey keep) {
+        StayKey oldestKey = null;
+        long oldestAccess = 0;
+        Iterator<Map.Entry<StayKey, HotelRates>> entries = hotels.entrySet().iterator();
+        for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE && entries.hasNext(); sampled++) {
+            Map.Entry<StayKey, HotelRates> entry = entries.next();
+            long access = entry.getValue().lastAccess;
+            if (!entry.getKey().equals(keep) && (oldestKey == null || access - oldestAccess < 0)) {
+                oldestKey = entry.getKey();
+                oldestAccess = access;
+            }
+        }
+        if (oldestKey != null && hotels.remove(oldestKey) != null) {
+            evictions.increment();
+        }
+    }
+
+    private static final class Run {
+        final long fromDay;
+        long toDay;
+        final CompletableFuture<Void> signal = new CompletableFuture<>();
+
+        Run(long fromDay) {
+            this.fromDay = fromDay;
+        }
+    }
+
+    /**
+     * Nightly rates for one hotel and currency; slot {@code i} is the night starting {@code baseDay + i}.
+     * A NaN rate marks a night that has never been fetched. Guarded by its own monitor.
+     */
+    private static final class HotelRates {
+        long baseDay;
+        double[] rates = new double[0];
+        long[] expiresAt = new long[0];
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[0];
+        volatile long lastAccess;
+
+        /**
+         * Grows or moves the window to hold the nights from {@code fromDay} to {@code toDay}. Returns false,
+         * leaving the window alone, if that means restarting it and {@code mayRestart} is false or another
+         * call is still fetching nights in it.
+         */
+        boolean cover(long fromDay, long toDay, boolean mayRestart) {
+            long endDay = baseDay + rates.length;
+            if (rates.length > 0 && fromDay >= baseDay && toDay <= endDay) {
+                return true;
+            }
+            long newBase = rates.length == 0 ? fromDay : Math.min(baseDay, fromDay);
+            long newEnd = rates.length == 0 ? toDay : Math.max(endDay, toDay);
+            if (newEnd - newBase > MAX_SPAN_DAYS) {
+                if (!mayRestart || hasPending()) {
+                    return false;
+                }
+                newBase = fromDay;
+                newEnd = toDay;
+            }
+            // Grow with slack on the side being extended so sliding searches do not copy every time.
+            long slack = Math.max(MIN_CAPACITY_DAYS, newEnd - newBase) / 2;
+            if (newBase < baseDay || rates.length == 0) {
+                newBase -= slack;
+            }
+            if (newEnd > endDay || rates.length == 0) {
+                newEnd += slack;
+            }
+            if (newEnd - newBase > MAX_SPAN_DAYS) {
+                long overflow = newEnd - newBase - MAX_SPAN_DAYS;
+                long trimStart = Math.min(overflow, fromDay - newBase);
+                newBase += trimStart;
+                newEnd -= overflow - trimStart;
+            }
+
+            int capacity = (int) (newEnd - newBase);
+            double[] newRates = new double[capacity];
+            long[] newExpiresAt = new long[capacity];
+            CompletableFuture<?>[] newPending = new CompletableFuture<?>[capacity];
+            Arrays.fill(newRates, Double.NaN);
+            long copyFrom = Math.max(baseDay, newBase);
+            long copyTo = Math.min(endDay, newEnd);
+            if (rates.length > 0 && copyFrom < copyTo) {
+                int length = (int) (copyTo - copyFrom);
+                System.arraycopy(rates, (int) (copyFrom - baseDay), newRates, (int) (copyFrom - newBase), length);
+                System.arraycopy(expiresAt, (int) (copyFrom - baseDay), newExpiresAt, (int) (copyFrom - newBase), length);
+                System.arraycopy(pending, (int) (copyFrom - baseDay), newPending, (int) (copyFrom - newBase), length);
+            }
+            baseDay = newBase;
+            rates = newRates;
+            expiresAt = newExpiresAt;
+            pending = newPending;
+            return true;
+        }
+
+        private boolean hasPending() {
+            for (CompletableFuture<?> signal : pending) {
+                if (signal != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,11 +1,47 @@
 package com.hotel.pricer;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class PriceApiService {
-    
+    static final int MAX_BATCH_SIZE = 100;
+    static final LatencyModel DEFAULT_LATENCY = LatencyModel.fixed(100);
+
+    private final Executor executor;
+    private final LatencyModel latencyModel;
+    private final FailureModel failureModel;
+
+    public PriceApiService() {
+        this(UpstreamExecutors.defaultPriceExecutor());
+    }
+
+    public PriceApiService(Executor executor) {
+        this(executor, DEFAULT_LATENCY);
+    }
+
+    public PriceApiService(Executor executor, LatencyModel latencyModel) {
+        this(executor, latencyModel, FailureModel.none());
+    }
+
+    public PriceApiService(Executor executor, LatencyModel latencyModel, FailureModel failureModel) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        if (latencyModel == null) {
+            throw new IllegalArgumentException("latencyModel must not be null");
+        }
+        if (failureModel == null) {
+            throw new IllegalArgumentException("failureModel must not be null");
+        }
+        this.executor = executor;
+        this.latencyModel = latencyModel;
+        this.failureModel = failureModel;
+    }
+
     public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
         if (hotelId == null || hotelId.trim().isEmpty()) {
             return CompletableFuture.failedFuture(new IllegalArgumentException("hotelId must not be null or empty"));
@@ -22,23 +58,140 @@ public class PriceApiService {
         if (!checkInDate.isBefore(checkOutDate)) {
             return CompletableFuture.failedFuture(new IllegalArgumentException("checkInDate must be before checkOutDate"));
         }
-        
-        return CompletableFuture.supplyAsync(() -> {
+
+        return UpstreamCall.supply(() -> {
+            simulateRoundTrip();
+
+            double basePrice = calculateMockPrice(hotelId, checkInDate, checkOutDate);
+            return basePrice;
+        }, executor);
+    }
+
+    /**
+     * The base price of the stay {@code key} identifies. Decorators pass the key along, so a cache further
+     * down keys on it without building its own.
+     */
+    CompletableFuture<Double> fetchBasePrice(StayKey key) {
+        return fetchBasePrice(key.getHotelId(), key.getCheckInDate(), key.getCheckOutDate(), key.getCurrency());
+    }
+
+    /**
+     * Like {@link #fetchBasePrice(StayKey)}, but a fresh upstream call rather than a cached value or a share of
+     * a load already in flight, for a hedged call to race against the first. Caches go straight to their
+     * delegate; decorators that only gate calls pass it along.
+     */
+    CompletableFuture<Double> fetchBasePriceUncached(StayKey key) {
+        return fetchBasePrice(key);
+    }
+
+    /**
+     * Returns the rate of each night from {@code fromDate} (inclusive) to {@code toDate} (exclusive) in one
+     * round-trip; element {@code i} is the night starting {@code fromDate + i} days. A stay's base price is the
+     * sum of its nightly rates.
+     */
+    public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+        if (hotelId == null || hotelId.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("hotelId must not be null or empty"));
+        }
+        if (fromDate == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("fromDate must not be null"));
+        }
+        if (toDate == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("toDate must not be null"));
+        }
+        if (currency == null || currency.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("currency must not be null or empty"));
+        }
+        if (!fromDate.isBefore(toDate)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("fromDate must be before toDate"));
+        }
+
+        return UpstreamCall.supply(() -> {
+            simulateRoundTrip();
+
+            double[] rates = new double[(int) (toDate.toEpochDay() - fromDate.toEpochDay())];
+            for (int night = 0; night < rates.length; night++) {
+                rates[night] = calculateMockNightlyRate(hotelId, fromDate.plusDays(night));
+            }
+            return rates;
+        }, executor);
+    }
+
+    public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+
+        List<CompletableFuture<Double>> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += MAX_BATCH_SIZE) {
+            List<HotelPricingRequest> chunk = new ArrayList<>(requests.subList(from, Math.min(from + MAX_BATCH_SIZE, requests.size())));
+            List<CompletableFuture<Double>> chunkResults = new ArrayList<>(chunk.size());
+            for (HotelPricingRequest request : chunk) {
+                chunkResults.add(request == null
+                        ? CompletableFuture.failedFuture(new IllegalArgumentException("HotelPricingRequest must not be null"))
+                        : new CompletableFuture<>());
+            }
+            results.addAll(chunkResults);
+
+            CompletableFuture.runAsync(() -> {
+                simulateRoundTrip();
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    HotelPricingRequest request = chunk.get(i);
+                    if (request != null) {
+                        chunkResults.get(i).complete(calculateMockPrice(
+                                request.getHotelId(), request.getCheckInDate(), request.getCheckOutDate()));
+                    }
+                }
+            }, executor).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    chunkResults.forEach(result -> result.completeExceptionally(error));
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * Currency the supplier quotes this hotel's base price in, derived from the hotel's region.
+     */
+    public String quoteCurrency(String hotelId) {
+        switch (RegionCode.name(RegionCode.ofHotelId(hotelId))) {
+            case "EU":
+                return "EUR";
+            case "UK":
+                return "GBP";
+            case "JP":
+                return "JPY";
+            case "CA":
+                return "CAD";
+            default:
+                return "USD";
+        }
+    }
+
+    private void simulateRoundTrip() {
+        long delayMillis = latencyModel.nextDelayMillis();
+        if (delayMillis > 0) {
             try {
-                TimeUnit.MILLISECONDS.sleep(100);
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Price API call interrupted", e);
             }
-            
-            double basePrice = calculateMockPrice(hotelId, checkInDate, checkOutDate);
-            return basePrice;
-        });
+        }
+        if (failureModel.nextCallFails()) {
+            throw new IllegalStateException("Price API call failed (simulated)");
+        }
     }
-    
+
     private double calculateMockPrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
-        int hotelHashCode = Math.abs(hotelId.hashCode() % 500);
         long nights = checkOutDate.toEpochDay() - checkInDate.toEpochDay();
-        return (100 + hotelHashCode) * nights;
+        return calculateMockNightlyRate(hotelId, checkInDate) * nights;
+    }
+
+    private double calculateMockNightlyRate(String hotelId, LocalDate night) {
+        int hotelHashCode = Math.abs(hotelId.hashCode() % 500);
+        return 100 + hotelHashCode;
     }
 }
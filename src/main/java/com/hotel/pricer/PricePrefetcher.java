@@ -0,0 +1,271 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most requested stays in the upstream caches. The engine {@link #record records} every request it
+ * prices in a {@link FrequencySketch}, which tracks the {@code hotStays} most frequent ones in fixed memory.
+ * Periodically, the price and availability of each of those, most frequent first, is reloaded shortly before
+ * its cache entry expires. Readers keep getting the cached value during the reload, so popular searches do
+ * not miss the cache at all.
+ *
+ * <p>Pre-fetching stays out of the way of live traffic. At most {@code maxInFlight} reloads run at once, and
+ * at most {@code maxPerRun} start per run. With {@link Builder#yieldTo} set, reloads go through the engine's
+ * limiters at {@link RequestPriority#BACKGROUND} priority. They start only while a limiter has no calls
+ * queued and less than half its limit in use.
+ *
+ * <pre>
+ * PricePrefetcher prefetcher = PricePrefetcher.builder()
+ *         .priceCache(prices).availabilityCache(availability)
+ *         .start();
+ * HotelPricerEngine engine = HotelPricerEngine.builder()
+ *         .priceApiService(prices).availabilityApiService(availability)
+ *         .prefetcher(prefetcher)
+ *         .build();
+ * </pre>
+ */
+public final class PricePrefetcher implements AutoCloseable {
+    public static final int DEFAULT_HOT_STAYS = 1_000;
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofSeconds(30);
+
+    private final CachingPriceApiService priceCache;
+    private final CachingAvailabilityApiService availabilityCache;
+    private final ConcurrencyLimiter priceLimiter;
+    private final ConcurrencyLimiter availabilityLimiter;
+    private final FrequencySketch<StayKey> sketch;
+    private final long refreshAheadNanos;
+    private final int maxInFlight;
+    private final int maxPerRun;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final LongAdder deferredRuns = new LongAdder();
+
+    private PricePrefetcher(Builder builder) {
+        this.priceCache = builder.priceCache;
+        this.availabilityCache = builder.availabilityCache;
+        this.priceLimiter = builder.priceLimiter;
+        this.availabilityLimiter = builder.availabilityLimiter;
+        this.sketch = new FrequencySketch<>(builder.hotStays);
+        this.refreshAheadNanos = builder.refreshAhead.toNanos();
+        this.maxInFlight = builder.maxInFlight;
+        this.maxPerRun = builder.maxPerRun;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "price-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Counts one request for its stay. Lock-free, and allocation-free once the hot stays settle.
+     */
+    public void record(HotelPricingRequest request) {
+        sketch.increment(request.priceKey());
+    }
+
+    /**
+     * Starts reloading the hottest stays whose cache entries expire soon, on the calling thread, within the
+     * budget. Stays whose check-in date has passed are skipped. Returns the number of reloads started.
+     */
+    public synchronized int refreshNow() {
+        long today = LocalDate.now().toEpochDay();
+        int started = 0;
+        for (StayKey key : sketch.hottest()) {
+            if (key.getCheckInDay() < today) {
+                continue;
+            }
+            if (!hasBudget(started)) {
+                deferredRuns.increment();
+                break;
+            }
+            if (priceCache != null) {
+                started += track(priceCache.refresh(key, refreshAheadNanos, priceLimiter));
+            }
+            if (availabilityCache != null) {
+                started += track(availabilityCache.refresh(key.withoutCurrency(), refreshAheadNanos, availabilityLimiter));
+            }
+        }
+        return started;
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getFailedRefreshCount() {
+        return failedRefreshes.sum();
+    }
+
+    /**
+     * Runs that stopped before the last hot stay because the budget was spent or live traffic needed the
+     * upstream.
+     */
+    public long getDeferredRunCount() {
+        return deferredRuns.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getHotStayCount() {
+        return sketch.trackedCount();
+    }
+
+    /**
+     * Stops the periodic runs. Reloads already started complete in the background.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void start(Duration interval) {
+        long period = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refreshNow();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic runs; the next run tries again.
+            failedRefreshes.increment();
+        }
+    }
+
+    private boolean hasBudget(int started) {
+        return started < maxPerRun && inFlight.get() < maxInFlight
+                && isIdle(priceCache != null ? priceLimiter : null)
+                && isIdle(availabilityCache != null ? availabilityLimiter : null);
+    }
+
+    private static boolean isIdle(ConcurrencyLimiter limiter) {
+        return limiter == null || limiter.getQueued() == 0 && 2 * limiter.getInFlight() < limiter.getLimit();
+    }
+
+    private int track(CompletableFuture<?> refresh) {
+        if (refresh == null) {
+            return 0;
+        }
+        inFlight.incrementAndGet();
+        refresh.whenComplete((value, error) -> {
+            inFlight.decrementAndGet();
+            (error == null ? refreshes : failedRefreshes).increment();
+        });
+        return 1;
+    }
+
+    public static class Builder {
+        private CachingPriceApiService priceCache;
+        private CachingAvailabilityApiService availabilityCache;
+        private ConcurrencyLimiter priceLimiter;
+        private ConcurrencyLimiter availabilityLimiter;
+        private int hotStays = DEFAULT_HOT_STAYS;
+        private Duration interval = DEFAULT_INTERVAL;
+        private Duration refreshAhead = DEFAULT_REFRESH_AHEAD;
+        private int maxInFlight = 4;
+        private int maxPerRun = 200;
+
+        private Builder() {
+        }
+
+        public Builder priceCache(CachingPriceApiService priceCache) {
+            this.priceCache = priceCache;
+            return this;
+        }
+
+        public Builder availabilityCache(CachingAvailabilityApiService availabilityCache) {
+            this.availabilityCache = availabilityCache;
+            return this;
+        }
+
+        /**
+         * How many of the most requested stays to keep warm.
+         */
+        public Builder hotStays(int hotStays) {
+            if (hotStays < 1 || hotStays > FrequencySketch.MAX_TOP_K) {
+                throw new IllegalArgumentException("hotStays must be between 1 and " + FrequencySketch.MAX_TOP_K);
+            }
+            this.hotStays = hotStays;
+            return this;
+        }
+
+        public Builder interval(Duration interval) {
+            this.interval = requirePositive(interval, "interval");
+            return this;
+        }
+
+        /**
+         * How long before expiry an entry is reloaded. Must be longer than the interval, or entries may expire
+         * between runs.
+         */
+        public Builder refreshAhead(Duration refreshAhead) {
+            this.refreshAhead = requirePositive(refreshAhead, "refreshAhead");
+            return this;
+        }
+
+        public Builder budget(int maxInFlight, int maxPerRun) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1");
+            }
+            if (maxPerRun < 1) {
+                throw new IllegalArgumentException("maxPerRun must be at least 1");
+            }
+            this.maxInFlight = maxInFlight;
+            this.maxPerRun = maxPerRun;
+            return this;
+        }
+
+        /**
+         * Reloads through the limiters live calls go through, such as those given to
+         * {@link HotelPricerEngine.Builder#scheduleUpstreamCalls}; either may be null.
+         */
+        public Builder yieldTo(ConcurrencyLimiter priceLimiter, ConcurrencyLimiter availabilityLimiter) {
+            this.priceLimiter = priceLimiter;
+            this.availabilityLimiter = availabilityLimiter;
+            return this;
+        }
+
+        /**
+         * Schedules a run every interval, the first one interval from now.
+         */
+        public PricePrefetcher start() {
+            if (priceCache == null && availabilityCache == null) {
+                throw new IllegalArgumentException("At least one cache must be configured");
+            }
+            if (refreshAhead.compareTo(interval) <= 0) {
+                throw new IllegalArgumentException("refreshAhead must be longer than interval");
+            }
+            PricePrefetcher prefetcher = new PricePrefetcher(this);
+            prefetcher.start(interval);
+            return prefetcher;
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.hotel.pricer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serves a {@link HotelPricerEngine} over HTTP using the JDK's built-in server:
+ * <ul>
+ *   <li>{@code GET /pricing?hotelId=US12345&checkIn=2026-03-15&checkOut=2026-03-18&currency=USD} returns one
+ *   response as JSON;</li>
+ *   <li>{@code POST /pricing/batch} takes a JSON array of requests (see {@link PricingJson}) and streams one
+ *   JSON line per result, tagged with its {@code index}, as each completes, using chunked encoding.</li>
+ * </ul>
+ * Each exchange runs on its own virtual thread on JDK 21+, otherwise on a bounded pool, so handlers simply
+ * block on the engine's futures.
+ */
+public final class PricingHttpServer implements AutoCloseable {
+    static final int FALLBACK_THREADS = 200;
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int MAX_BODY_BYTES = 4 * 1024 * 1024;
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String JSON = "application/json";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    static {
+        // Small JSON responses otherwise sit behind Nagle's algorithm; the JDK server reads this once, on first use.
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    private final HotelPricerEngine engine;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private PricingHttpServer(HotelPricerEngine engine, HttpServer server, ExecutorService executor, boolean ownsExecutor) {
+        this.engine = engine;
+        this.server = server;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public static PricingHttpServer start(HotelPricerEngine engine, InetSocketAddress address) throws IOException {
+        return start(engine, address, UpstreamExecutors.virtualThreadsOrBounded("pricing-http", FALLBACK_THREADS), true);
+    }
+
+    public static PricingHttpServer start(HotelPricerEngine engine, InetSocketAddress address, ExecutorService executor) throws IOException {
+        return start(engine, address, executor, false);
+    }
+
+    private static PricingHttpServer start(HotelPricerEngine engine, InetSocketAddress address, ExecutorService executor,
+                                           boolean ownsExecutor) throws IOException {
+        if (engine == null) {
+            throw new IllegalArgumentException("engine must not be null");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("address must not be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+
+        HttpServer server = HttpServer.create(address, 0);
+        PricingHttpServer pricingServer = new PricingHttpServer(engine, server, executor, ownsExecutor);
+        server.createContext("/pricing", pricingServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return pricingServer;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if ("/pricing".equals(path)) {
+                if (!"GET".equals(method)) {
+                    sendError(exchange, 405, "Use GET for " + path);
+                    return;
+                }
+                handleSingle(exchange);
+            } else if ("/pricing/batch".equals(path)) {
+                if (!"POST".equals(method)) {
+                    sendError(exchange, 405, "Use POST for " + path);
+                    return;
+                }
+                handleBatch(exchange);
+            } else {
+                sendError(exchange, 404, "Not found: " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException, InterruptedException {
+        HotelPricingRequest request;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            request = new HotelPricingRequest(query.get("hotelId"), parseDate(query.get("checkIn"), "checkIn"),
+                    parseDate(query.get("checkOut"), "checkOut"), query.get("currency"));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        CompletableFuture<HotelPricingResponse> future = engine.getPricing(request);
+        HotelPricingResponse response;
+        try {
+            response = future.get(REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            sendError(exchange, cause instanceof IllegalArgumentException ? 400 : 502, String.valueOf(cause.getMessage()));
+            return;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            sendError(exchange, 504, "Pricing timed out");
+            return;
+        }
+
+        JsonWriter json = new JsonWriter();
+        PricingJson.writeResponse(json, response);
+        send(exchange, response.isFailed() ? 502 : 200, json);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException, InterruptedException {
+        List<HotelPricingRequest> requests;
+        try {
+            requests = PricingJson.parseRequests(readBody(exchange));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            sendError(exchange, 413, "Batch must not exceed " + MAX_BATCH_SIZE + " requests");
+            return;
+        }
+
+        // Results arrive on upstream threads; this thread is the only one writing to the exchange.
+        BlockingQueue<BatchItem> completed = new LinkedBlockingQueue<>();
+        CompletableFuture<List<HotelPricingResponse>> batch = engine.getPricingBatch(requests,
+                (response, index) -> completed.add(new BatchItem(index, response, null)));
+        batch.whenComplete((responses, error) -> {
+            if (error != null) {
+                completed.add(new BatchItem(-1, null, unwrap(error)));
+            }
+        });
+        if (batch.isCompletedExceptionally() && completed.size() == 1) {
+            sendError(exchange, 400, String.valueOf(completed.take().error.getMessage()));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", NDJSON);
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        JsonWriter json = new JsonWriter(4096);
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        for (int written = 0; written < requests.size(); written++) {
+            BatchItem item = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (item == null || item.error != null) {
+                // The status line is already out, so report the failure in-band and stop.
+                PricingJson.writeError(json, item == null ? "Batch timed out" : String.valueOf(item.error.getMessage()));
+                json.raw('\n');
+                break;
+            }
+            PricingJson.writeBatchLine(json, item.index, item.response);
+            // Write whatever is ready as one chunk; wait for more only once the queue is drained.
+            if (completed.isEmpty() || json.size() >= 4096) {
+                json.writeTo(out);
+                out.flush();
+                json.reset();
+            }
+        }
+        json.writeTo(out);
+        out.close();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (body.size() + read > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body must not exceed " + MAX_BODY_BYTES + " bytes");
+                }
+                body.write(chunk, 0, read);
+            }
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date, was " + value, e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonWriter json = new JsonWriter();
+        PricingJson.writeError(json, message);
+        send(exchange, status, json);
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, json.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            json.writeTo(out);
+        }
+    }
+
+    private static final class BatchItem {
+        final int index;
+        final HotelPricingResponse response;
+        final Throwable error;
+
+        BatchItem(int index, HotelPricingResponse response, Throwable error) {
+            this.index = index;
+            this.response = response;
+            this.error = error;
+        }
+    }
+}
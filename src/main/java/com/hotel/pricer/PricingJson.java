@@ -0,0 +1,264 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON encoding of pricing responses for {@link PricingHttpServer}, and parsing of batch request bodies: an
+ * array of {@code {"hotelId": ..., "checkIn": "2026-03-15", "checkOut": ..., "currency": ...}} objects.
+ * Unknown fields are ignored. Malformed input throws {@link IllegalArgumentException}.
+ */
+final class PricingJson {
+    private PricingJson() {
+    }
+
+    static void writeResponse(JsonWriter json, HotelPricingResponse response) {
+        json.beginObject();
+        writeFields(json, response);
+        json.endObject();
+    }
+
+    /**
+     * One line of a streamed batch: the response plus the position of its request in the batch.
+     */
+    static void writeBatchLine(JsonWriter json, int index, HotelPricingResponse response) {
+        json.beginObject().name("index").value(index);
+        writeFields(json, response);
+        json.endObject().raw('\n');
+    }
+
+    static void writeError(JsonWriter json, String message) {
+        json.beginObject().name("error").value(message).endObject();
+    }
+
+    private static void writeFields(JsonWriter json, HotelPricingResponse response) {
+        json.name("hotelId").value(response.getHotelId())
+                .name("available").value(response.isAvailable());
+        if (response.isFixedPoint()) {
+            int scale = response.getCurrencyUnit().getScale();
+            json.name("basePrice").money(response.getBasePriceMinorUnits(), scale)
+                    .name("tax").money(response.getTaxMinorUnits(), scale)
+                    .name("totalPrice").money(response.getTotalPriceMinorUnits(), scale);
+        } else {
+            json.name("basePrice").money(response.getBasePrice())
+                    .name("tax").money(response.getTax())
+                    .name("totalPrice").money(response.getTotalPrice());
+        }
+        json.name("currency").value(response.getCurrency())
+                .name("taxRatesVersion").value(response.getTaxRatesVersion());
+        if (response.isAvailabilityUnknown()) {
+            json.name("availabilityUnknown").value(true);
+        }
+        if (response.isPriceStale()) {
+            json.name("priceStale").value(true);
+        }
+        if (response.isFailed()) {
+            json.name("error").value(response.getErrorMessage());
+        }
+    }
+
+    static List<HotelPricingRequest> parseRequests(String body) {
+        return new Parser(body).parseRequests();
+    }
+
+    private static final class Parser {
+        // As deep as JsonWriter writes; the request array and each request take up the first two levels.
+        private static final int MAX_DEPTH = 64;
+        private static final int REQUEST_DEPTH = 2;
+
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            if (text == null) {
+                throw new IllegalArgumentException("body must not be null");
+            }
+            this.text = text;
+        }
+
+        List<HotelPricingRequest> parseRequests() {
+            List<HotelPricingRequest> requests = new ArrayList<>();
+            expect('[');
+            if (!consume(']')) {
+                do {
+                    requests.add(parseRequest(requests.size()));
+                } while (consume(','));
+                expect(']');
+            }
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("Unexpected content after the request array");
+            }
+            return requests;
+        }
+
+        private HotelPricingRequest parseRequest(int index) {
+            String hotelId = null;
+            String checkIn = null;
+            String checkOut = null;
+            String currency = null;
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String field = parseString();
+                    expect(':');
+                    switch (field) {
+                        case "hotelId":
+                            hotelId = parseString();
+                            break;
+                        case "checkIn":
+                            checkIn = parseString();
+                            break;
+                        case "checkOut":
+                            checkOut = parseString();
+                            break;
+                        case "currency":
+                            currency = parseString();
+                            break;
+                        default:
+                            skipValue(REQUEST_DEPTH);
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            try {
+                return new HotelPricingRequest(hotelId, parseDate(checkIn), parseDate(checkOut), currency);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Request " + index + ": " + e.getMessage(), e);
+            }
+        }
+
+        private LocalDate parseDate(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date: " + value, e);
+            }
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = null;
+            int start = pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value == null ? text.substring(start, pos - 1) : value.toString();
+                }
+                if (c != '\\') {
+                    if (value != null) {
+                        value.append(c);
+                    }
+                    continue;
+                }
+                if (value == null) {
+                    value = new StringBuilder(text.substring(start, pos - 1));
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Truncated unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        /**
+         * Skips one value inside a container at {@code depth}, rejecting containers nested deeper than
+         * {@link #MAX_DEPTH} before they can exhaust the stack.
+         */
+        private void skipValue(int depth) {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("Expected a value");
+            }
+            char c = text.charAt(pos);
+            if (c == '"') {
+                parseString();
+            } else if (c == '{' || c == '[') {
+                if (depth == MAX_DEPTH) {
+                    throw error("JSON nesting deeper than " + MAX_DEPTH);
+                }
+                char close = c == '{' ? '}' : ']';
+                pos++;
+                if (!consume(close)) {
+                    do {
+                        if (close == '}') {
+                            parseString();
+                            expect(':');
+                        }
+                        skipValue(depth + 1);
+                    } while (consume(','));
+                    expect(close);
+                }
+            } else {
+                int start = pos;
+                while (pos < text.length() && "{}[],: \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                    pos++;
+                }
+                if (start == pos) {
+                    throw error("Expected a value");
+                }
+            }
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotel.pricer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a running {@link PricingHttpServer} with {@code GET /pricing} calls from a fixed number of
+ * concurrent clients, each sending its next request as soon as the previous one returns, and reports
+ * throughput and latency percentiles. Requests follow the same seeded mix as {@link EngineLoadDriver}, which
+ * drives the engine in-process and can also pace or run open-loop.
+ *
+ * <pre>
+ * mvn exec:java -Dexec.mainClass=com.hotel.pricer.PricingLoadGenerator -Dexec.args="http://localhost:8080 64 30"
+ * </pre>
+ */
+public final class PricingLoadGenerator {
+    private final URI baseUri;
+    private final int concurrency;
+    private final Duration duration;
+    private final int hotelCount;
+    private final long seed;
+
+    public PricingLoadGenerator(URI baseUri, int concurrency, Duration duration) {
+        this(baseUri, concurrency, duration, 1_000, 42);
+    }
+
+    public PricingLoadGenerator(URI baseUri, int concurrency, Duration duration, int hotelCount, long seed) {
+        if (baseUri == null) {
+            throw new IllegalArgumentException("baseUri must not be null");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (hotelCount < 1) {
+            throw new IllegalArgumentException("hotelCount must be at least 1");
+        }
+        this.baseUri = baseUri;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.hotelCount = hotelCount;
+        this.seed = seed;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService clients = UpstreamExecutors.virtualThreadsOrBounded("load-generator", concurrency);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                SplittableRandom random = new SplittableRandom(seed + worker);
+                workers.add(clients.submit(() -> {
+                    while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                        HttpRequest request = HttpRequest.newBuilder(nextUri(random)).timeout(Duration.ofSeconds(30)).GET().build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.record(System.nanoTime() - sent);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load generator worker failed", e.getCause());
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return new LoadReport(latencies, latencies, errors.sum(), 0, System.nanoTime() - start);
+    }
+
+    private URI nextUri(SplittableRandom random) {
+        HotelPricingRequest request = EngineLoadDriver.randomRequest(random, hotelCount);
+        return baseUri.resolve("/pricing?hotelId=" + request.getHotelId() + "&checkIn=" + request.getCheckInDate()
+                + "&checkOut=" + request.getCheckOutDate() + "&currency=" + request.getTargetCurrency());
+    }
+
+    /**
+     * Arguments: base URL (default {@code http://localhost:8080}), concurrency (default 32), duration in
+     * seconds (default 10).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+
+        System.out.println("Driving " + baseUri + " with " + concurrency + " clients for " + duration.getSeconds() + "s...");
+        System.out.println(new PricingLoadGenerator(baseUri, concurrency, duration).run());
+    }
+}
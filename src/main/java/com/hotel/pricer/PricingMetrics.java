@@ -0,0 +1,32 @@
+package com.hotel.pricer;
+
+/**
+ * Receives measurements from {@link HotelPricerEngine}. Callbacks run on the request path, often on upstream
+ * threads, so implementations must be thread-safe and cheap. {@link InMemoryPricingMetrics} is the built-in
+ * implementation; an adapter to any other metrics library only needs to forward these calls.
+ */
+public interface PricingMetrics {
+
+    /**
+     * An upstream call to {@link PricingStage#PRICE} or {@link PricingStage#AVAILABILITY} has started.
+     */
+    void upstreamCallStarted(PricingStage stage);
+
+    /**
+     * An upstream call started with {@link #upstreamCallStarted} has completed, successfully or not.
+     */
+    void upstreamCallFinished(PricingStage stage, long latencyNanos, boolean failed);
+
+    void stageCompleted(PricingStage stage, long latencyNanos);
+
+    /**
+     * A request has been priced. {@code region} is the two-letter region of the hotel, or {@code DEFAULT}.
+     */
+    void pricingCompleted(String region, PricingOutcome outcome);
+
+    /**
+     * A {@link CircuitBreaker} guarding an upstream service has changed state.
+     */
+    default void circuitStateChanged(String breakerName, CircuitState from, CircuitState to) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotel.pricer;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link InMemoryPricingMetrics}. Latencies are in microseconds.
+ */
+public interface PricingMetricsMXBean {
+    long getPriceCallsInFlight();
+
+    long getAvailabilityCallsInFlight();
+
+    long getPriceLatencyP50Micros();
+
+    long getPriceLatencyP99Micros();
+
+    long getAvailabilityLatencyP50Micros();
+
+    long getAvailabilityLatencyP99Micros();
+
+    long getCombineLatencyP99Micros();
+
+    long getTotalLatencyP50Micros();
+
+    long getTotalLatencyP99Micros();
+
+    long getTotalLatencyMaxMicros();
+
+    long getAvailableCount();
+
+    long getUnavailableCount();
+
+    long getFailedCount();
+
+    /**
+     * Outcome counts keyed by {@code REGION.OUTCOME}, e.g. {@code US.AVAILABLE}; zero counts are omitted.
+     */
+    Map<String, Long> getOutcomesByRegion();
+
+    /**
+     * The last reported state of each circuit breaker, keyed by breaker name.
+     */
+    Map<String, String> getCircuitStates();
+
+    long getCircuitOpenedCount();
+
+    void reset();
+}
@@ -0,0 +1,7 @@
+package com.hotel.pricer;
+
+public enum PricingOutcome {
+    AVAILABLE,
+    UNAVAILABLE,
+    FAILED
+}
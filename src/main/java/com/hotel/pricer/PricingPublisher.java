@@ -0,0 +1,230 @@
+package com.hotel.pricer;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Prices a lazily iterated request sequence and publishes the responses. A request is only pulled from the
+ * iterator and priced once the subscriber has demand for its response, and never more than
+ * {@code maxInFlight} at a time, so upstream load and buffered responses are bounded by demand rather than
+ * by the size of the request sequence. Each subscription iterates the requests afresh. A pricing that fails,
+ * or completes without a response, ends the stream with {@code onError} when its turn to be emitted comes.
+ */
+final class PricingPublisher implements Flow.Publisher<HotelPricingResponse> {
+    private final Iterable<HotelPricingRequest> requests;
+    private final Function<HotelPricingRequest, CompletableFuture<HotelPricingResponse>> pricer;
+    private final EmissionOrder order;
+    private final int maxInFlight;
+
+    PricingPublisher(Iterable<HotelPricingRequest> requests,
+                     Function<HotelPricingRequest, CompletableFuture<HotelPricingResponse>> pricer,
+                     EmissionOrder order, int maxInFlight) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests must not be null");
+        }
+        if (order == null) {
+            throw new IllegalArgumentException("order must not be null");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.requests = requests;
+        this.pricer = pricer;
+        this.order = order;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super HotelPricingResponse> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        Iterator<HotelPricingRequest> iterator;
+        try {
+            iterator = requests.iterator();
+        } catch (RuntimeException e) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(e);
+            return;
+        }
+        PricingSubscription subscription = new PricingSubscription(subscriber, iterator);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * All signals to the subscriber and all iterator access happen inside {@link #drain()}, which only one
+     * thread runs at a time; completions and requests from other threads just bump the work counter.
+     */
+    private final class PricingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super HotelPricingResponse> subscriber;
+        private final Iterator<HotelPricingRequest> iterator;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        // COMPLETION: futures in the order they finished. INPUT: futures in request order (drain-only).
+        private final Queue<CompletableFuture<HotelPricingResponse>> completed = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<CompletableFuture<HotelPricingResponse>> pending = new ArrayDeque<>();
+        private int outstanding;
+        private boolean exhausted;
+        private boolean done;
+        private volatile boolean cancelled;
+        private volatile Throwable requestError;
+
+        PricingSubscription(Flow.Subscriber<? super HotelPricingResponse> subscriber, Iterator<HotelPricingRequest> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("request must be positive but was " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (done) {
+                    return;
+                }
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (requestError != null) {
+                    finish();
+                    subscriber.onError(requestError);
+                    return;
+                }
+
+                long demand = requested.get();
+                long emitted = 0;
+                CompletableFuture<HotelPricingResponse> ready;
+                while (emitted < demand && (ready = pollReady()) != null) {
+                    outstanding--;
+                    HotelPricingResponse next = ready.isCompletedExceptionally() ? null : ready.join();
+                    if (next == null) {
+                        finish();
+                        subscriber.onError(failureOf(ready));
+                        return;
+                    }
+                    subscriber.onNext(next);
+                    emitted++;
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    demand = requested.addAndGet(-emitted);
+                }
+
+                while (!exhausted && outstanding < maxInFlight && outstanding < demand) {
+                    HotelPricingRequest request;
+                    try {
+                        if (!iterator.hasNext()) {
+                            exhausted = true;
+                            break;
+                        }
+                        request = iterator.next();
+                    } catch (RuntimeException e) {
+                        finish();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    outstanding++;
+                    launch(request);
+                }
+
+                if (exhausted && outstanding == 0) {
+                    finish();
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void launch(HotelPricingRequest request) {
+            CompletableFuture<HotelPricingResponse> response;
+            try {
+                response = pricer.apply(request);
+                if (response == null) {
+                    response = CompletableFuture.failedFuture(new IllegalStateException("pricer returned null"));
+                }
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            if (order == EmissionOrder.INPUT) {
+                pending.add(response);
+                response.whenComplete((value, error) -> drain());
+            } else {
+                CompletableFuture<HotelPricingResponse> finished = response;
+                response.whenComplete((value, error) -> {
+                    completed.offer(finished);
+                    drain();
+                });
+            }
+        }
+
+        /**
+         * The next completed pricing to emit, or null if there is none yet.
+         */
+        private CompletableFuture<HotelPricingResponse> pollReady() {
+            if (order == EmissionOrder.COMPLETION) {
+                return completed.poll();
+            }
+            CompletableFuture<HotelPricingResponse> head = pending.peek();
+            if (head == null || !head.isDone()) {
+                return null;
+            }
+            return pending.poll();
+        }
+
+        private Throwable failureOf(CompletableFuture<HotelPricingResponse> pricing) {
+            try {
+                pricing.join();
+                return new IllegalStateException("pricer completed without a response");
+            } catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            } catch (CancellationException e) {
+                return e;
+            }
+        }
+
+        private void finish() {
+            done = true;
+            pending.clear();
+            completed.clear();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotel.pricer;
+
+/**
+ * Stages of a pricing whose latency is recorded by {@link PricingMetrics}.
+ */
+public enum PricingStage {
+    /** A base price call to the price service. */
+    PRICE,
+    /** An availability call to the availability service. */
+    AVAILABILITY,
+    /** Currency conversion, tax and response construction once the upstream results are in. */
+    COMBINE,
+    /** A whole {@code getPricing} call, from request to response. */
+    TOTAL
+}
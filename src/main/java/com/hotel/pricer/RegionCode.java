@@ -0,0 +1,58 @@
+package com.hotel.pricer;
+
+/**
+ * Packs a two-letter region code into an int in [0, 676), case-insensitively, so region lookups can index
+ * primitive arrays instead of hashing freshly allocated substrings. Anything that is not two ASCII letters
+ * maps to {@link #DEFAULT}.
+ */
+final class RegionCode {
+    static final String DEFAULT_NAME = "DEFAULT";
+    static final int DEFAULT = 26 * 26;
+    static final int COUNT = DEFAULT + 1;
+
+    private static final String[] NAMES = new String[COUNT];
+
+    static {
+        for (int i = 0; i < DEFAULT; i++) {
+            NAMES[i] = new String(new char[]{(char) ('A' + i / 26), (char) ('A' + i % 26)});
+        }
+        NAMES[DEFAULT] = DEFAULT_NAME;
+    }
+
+    private RegionCode() {
+    }
+
+    static int ofHotelId(String hotelId) {
+        if (hotelId == null || hotelId.length() < 2) {
+            return DEFAULT;
+        }
+        return of(hotelId.charAt(0), hotelId.charAt(1));
+    }
+
+    static int ofRegion(String region) {
+        if (region == null || region.length() != 2) {
+            return DEFAULT;
+        }
+        return of(region.charAt(0), region.charAt(1));
+    }
+
+    static int of(char first, char second) {
+        int high = letterIndex(first);
+        int low = letterIndex(second);
+        return high < 0 || low < 0 ? DEFAULT : high * 26 + low;
+    }
+
+    static String name(int index) {
+        return NAMES[index];
+    }
+
+    private static int letterIndex(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hotel.pricer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the regional tax rates. Reloads publish a whole new table, so a request that reads
+ * the table once sees one consistent rate set and can report which version priced it.
+ */
+final class RegionalTaxTable {
+    static final long RATE_MICROS = 1_000_000;
+
+    private final double[] rates;
+    private final long[] rateMicros;
+    private final boolean[] configured;
+    private final long version;
+
+    private RegionalTaxTable(double[] rates, boolean[] configured, long version) {
+        this.rates = rates;
+        this.rateMicros = new long[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            rateMicros[i] = Math.round(rates[i] * RATE_MICROS);
+        }
+        this.configured = configured;
+        this.version = version;
+    }
+
+    static RegionalTaxTable fromMap(Map<String, Double> taxRates) {
+        return fromMap(taxRates, 1);
+    }
+
+    static RegionalTaxTable fromMap(Map<String, Double> taxRates, long version) {
+        if (taxRates == null) {
+            throw new IllegalArgumentException("taxRates must not be null");
+        }
+        Double defaultRate = taxRates.get(RegionCode.DEFAULT_NAME);
+        if (defaultRate == null) {
+            throw new IllegalArgumentException("taxRates must contain a " + RegionCode.DEFAULT_NAME + " rate");
+        }
+
+        // Every unconfigured slot holds the default rate, so a lookup is a single array read.
+        double[] rates = new double[RegionCode.COUNT];
+        boolean[] configured = new boolean[RegionCode.COUNT];
+        Arrays.fill(rates, validRate(RegionCode.DEFAULT_NAME, defaultRate));
+        configured[RegionCode.DEFAULT] = true;
+        for (Map.Entry<String, Double> entry : taxRates.entrySet()) {
+            String region = entry.getKey();
+            if (RegionCode.DEFAULT_NAME.equals(region)) {
+                continue;
+            }
+            int index = RegionCode.ofRegion(region);
+            if (index == RegionCode.DEFAULT) {
+                throw new IllegalArgumentException("region must be two letters but was '" + region + "'");
+            }
+            rates[index] = validRate(region, entry.getValue());
+            configured[index] = true;
+        }
+        return new RegionalTaxTable(rates, configured, version);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    double rateFor(int regionIndex) {
+        return rates[regionIndex];
+    }
+
+    double rateForHotel(String hotelId) {
+        return rates[RegionCode.ofHotelId(hotelId)];
+    }
+
+    /**
+     * Tax on {@code baseMinorUnits} in the same minor units, rounded half-up. Integer arithmetic on the rate
+     * in millionths, so the result never depends on how the rate happens to be represented in binary.
+     */
+    long taxMinorUnitsForHotel(String hotelId, long baseMinorUnits) {
+        long micros = Math.multiplyExact(baseMinorUnits, rateMicros[RegionCode.ofHotelId(hotelId)]);
+        return Math.floorDiv(micros + RATE_MICROS / 2, RATE_MICROS);
+    }
+
+    Map<String, Double> toMap() {
+        Map<String, Double> taxRates = new HashMap<>();
+        for (int i = 0; i < RegionCode.COUNT; i++) {
+            if (configured[i]) {
+                taxRates.put(RegionCode.name(i), rates[i]);
+            }
+        }
+        return taxRates;
+    }
+
+    private static double validRate(String region, Double rate) {
+        if (rate == null || rate.isNaN() || rate.isInfinite() || rate < 0.0) {
+            throw new IllegalArgumentException("tax rate for " + region + " must be a non-negative number");
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+
+/**
+ * How urgently a {@link HotelPricingRequest} needs its answer, from most to least urgent. A
+ * {@link ConcurrencyLimiter} starts queued calls in order of arrival time plus their priority's
+ * {@link #getYield() yield}, so a call is overtaken by more urgent calls arriving up to that much later, but
+ * never waits behind them for longer.
+ */
+public enum RequestPriority {
+    /** A customer is waiting on this price, e.g. to confirm a booking. */
+    CRITICAL(Duration.ZERO),
+    /** Interactive search and listing pages. The default. */
+    NORMAL(Duration.ofMillis(100)),
+    /** Refresh jobs and prefetches that nobody is waiting on. */
+    BACKGROUND(Duration.ofSeconds(1));
+
+    private final long yieldNanos;
+
+    RequestPriority(Duration yield) {
+        this.yieldNanos = yield.toNanos();
+    }
+
+    public Duration getYield() {
+        return Duration.ofNanos(yieldNanos);
+    }
+
+    long yieldNanos() {
+        return yieldNanos;
+    }
+}
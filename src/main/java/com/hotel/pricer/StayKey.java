@@ -0,0 +1,175 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+
+/**
+ * Identifies a stay for caching and deduplication, in as few words as possible: dates are epoch days, and a
+ * hotel id of two upper-case letters and up to {@value #MAX_ENCODED_DIGITS} digits (e.g. {@code US12345}) is
+ * packed into a long instead of being kept as a string. The hash is computed once, without hashing strings for
+ * packed ids. Each {@link HotelPricingRequest} builds its key once; the services accept it directly.
+ */
+final class StayKey {
+    static final int MAX_ENCODED_DIGITS = 14;
+    static final long NOT_ENCODED = -1;
+
+    private static final int NUMBER_BITS = 47;
+    private static final long NUMBER_MASK = (1L << NUMBER_BITS) - 1;
+
+    private final long hotelCode;
+    // Only for ids that cannot be packed into hotelCode.
+    private final String hotelId;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final String currency;
+    private final int hash;
+
+    StayKey(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+        this(hotelId, Math.toIntExact(checkInDate.toEpochDay()), Math.toIntExact(checkOutDate.toEpochDay()), currency);
+    }
+
+    StayKey(String hotelId, int checkInDay, int checkOutDay, String currency) {
+        this(encodeHotelId(hotelId), hotelId, checkInDay, checkOutDay, currency);
+    }
+
+    private StayKey(long hotelCode, String hotelId, int checkInDay, int checkOutDay, String currency) {
+        this.hotelCode = hotelCode;
+        this.hotelId = hotelCode == NOT_ENCODED ? hotelId : null;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.currency = currency;
+        int h = hotelCode == NOT_ENCODED ? hotelId.hashCode() : Long.hashCode(hotelCode);
+        h = 31 * h + checkInDay;
+        h = 31 * h + checkOutDay;
+        this.hash = 31 * h + (currency == null ? 0 : currency.hashCode());
+    }
+
+    static StayKey forPrice(HotelPricingRequest request) {
+        return request.priceKey();
+    }
+
+    static StayKey forAvailability(HotelPricingRequest request) {
+        return request.availabilityKey();
+    }
+
+    /**
+     * The key of a hotel's rates in one currency, regardless of dates.
+     */
+    static StayKey forHotel(String hotelId, String currency) {
+        return new StayKey(hotelId, 0, 0, currency);
+    }
+
+    /**
+     * Whether {@code date} fits an int epoch day, which any date within a few million years does.
+     */
+    static boolean isRepresentable(LocalDate date) {
+        long day = date.toEpochDay();
+        return day == (int) day;
+    }
+
+    /**
+     * This stay without a currency, as availability is keyed.
+     */
+    StayKey withoutCurrency() {
+        return currency == null ? this : new StayKey(hotelCode, hotelId, checkInDay, checkOutDay, null);
+    }
+
+    /**
+     * Packs {@code hotelId} into a non-negative long if it is two upper-case ASCII letters followed by 1 to
+     * {@value #MAX_ENCODED_DIGITS} ASCII digits, keeping the digit count so leading zeros survive; returns
+     * {@link #NOT_ENCODED} otherwise.
+     */
+    static long encodeHotelId(String hotelId) {
+        int digits = hotelId.length() - 2;
+        if (digits < 1 || digits > MAX_ENCODED_DIGITS) {
+            return NOT_ENCODED;
+        }
+        char first = hotelId.charAt(0);
+        char second = hotelId.charAt(1);
+        if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+            return NOT_ENCODED;
+        }
+        long number = 0;
+        for (int i = 2; i < hotelId.length(); i++) {
+            char c = hotelId.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_ENCODED;
+            }
+            number = number * 10 + (c - '0');
+        }
+        long region = (first - 'A') * 26 + (second - 'A');
+        return (region * (MAX_ENCODED_DIGITS + 1) + digits) << NUMBER_BITS | number;
+    }
+
+    static String decodeHotelId(long hotelCode) {
+        long prefix = hotelCode >>> NUMBER_BITS;
+        int region = (int) (prefix / (MAX_ENCODED_DIGITS + 1));
+        int digits = (int) (prefix % (MAX_ENCODED_DIGITS + 1));
+        char[] chars = new char[2 + digits];
+        chars[0] = (char) ('A' + region / 26);
+        chars[1] = (char) ('A' + region % 26);
+        long number = hotelCode & NUMBER_MASK;
+        for (int i = chars.length - 1; i >= 2; i--) {
+            chars[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The hotel id; a packed one is decoded into a new string on each call.
+     */
+    String getHotelId() {
+        return hotelId != null ? hotelId : decodeHotelId(hotelCode);
+    }
+
+    long getHotelCode() {
+        return hotelCode;
+    }
+
+    int getCheckInDay() {
+        return checkInDay;
+    }
+
+    int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    LocalDate getCheckInDate() {
+        return LocalDate.ofEpochDay(checkInDay);
+    }
+
+    LocalDate getCheckOutDate() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    String getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StayKey)) {
+            return false;
+        }
+        StayKey that = (StayKey) o;
+        return hash == that.hash
+                && hotelCode == that.hotelCode
+                && checkInDay == that.checkInDay
+                && checkOutDay == that.checkOutDay
+                && (hotelId == null || hotelId.equals(that.hotelId))
+                && (currency == that.currency || currency != null && currency.equals(that.currency));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getHotelId() + "/" + getCheckInDate() + "/" + getCheckOutDate() + (currency != null ? "/" + currency : "");
+    }
+}
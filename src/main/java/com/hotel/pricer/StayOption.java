@@ -0,0 +1,49 @@
+package com.hotel.pricer;
+
+import java.time.LocalDate;
+
+/**
+ * One priced, available stay found by {@link HotelPricerEngine#searchFlexibleDates}.
+ */
+public class StayOption {
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final HotelPricingResponse pricing;
+
+    public StayOption(LocalDate checkInDate, LocalDate checkOutDate, HotelPricingResponse pricing) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.pricing = pricing;
+    }
+
+    public String getHotelId() {
+        return pricing.getHotelId();
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public HotelPricingResponse getPricing() {
+        return pricing;
+    }
+
+    public double getTotalPrice() {
+        return pricing.getTotalPrice();
+    }
+
+    @Override
+    public String toString() {
+        return "StayOption{" +
+                "hotelId='" + getHotelId() + '\'' +
+                ", checkInDate=" + checkInDate +
+                ", checkOutDate=" + checkOutDate +
+                ", totalPrice=" + pricing.getTotalPrice() +
+                ", currency='" + pricing.getCurrency() + '\'' +
+                '}';
+    }
+}
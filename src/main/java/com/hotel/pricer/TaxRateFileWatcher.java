@@ -0,0 +1,112 @@
+package com.hotel.pricer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Watches a single tax rates file and hands it to a reload callback whenever it is created or modified.
+ * Runs on one daemon thread; a reload that throws is recorded and the watcher keeps going, so a bad edit
+ * never stops later good edits from being picked up.
+ */
+public final class TaxRateFileWatcher implements AutoCloseable {
+    private final Path file;
+    private final WatchService watchService;
+    private final Consumer<Path> reload;
+    private final Thread thread;
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private volatile RuntimeException lastError;
+
+    private TaxRateFileWatcher(Path file, WatchService watchService, Consumer<Path> reload) {
+        this.file = file;
+        this.watchService = watchService;
+        this.reload = reload;
+        this.thread = new Thread(this::watch, "tax-rates-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    static TaxRateFileWatcher start(Path file, Consumer<Path> reload) {
+        if (file == null) {
+            throw new IllegalArgumentException("Tax rates file must not be null");
+        }
+        if (reload == null) {
+            throw new IllegalArgumentException("reload must not be null");
+        }
+
+        Path absolute = file.toAbsolutePath();
+        WatchService watchService;
+        try {
+            watchService = absolute.getFileSystem().newWatchService();
+            absolute.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch tax rates file " + file, e);
+        }
+        TaxRateFileWatcher watcher = new TaxRateFileWatcher(absolute, watchService, reload);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    public long getFailedReloadCount() {
+        return failedReloads.sum();
+    }
+
+    public RuntimeException getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // OVERFLOW carries no path; reload to be safe since the file may have been among the lost events.
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context());
+                }
+                if (changed) {
+                    reloadQuietly();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload.accept(file);
+            reloads.increment();
+        } catch (RuntimeException e) {
+            lastError = e;
+            failedReloads.increment();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotel.pricer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads tax rates from a properties file, one {@code REGION=rate} entry per line, e.g. {@code US=0.10}.
+ * A {@code DEFAULT} entry is required.
+ */
+final class TaxRateFiles {
+    private TaxRateFiles() {
+    }
+
+    static Map<String, Double> load(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Tax rates file must not be null");
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read tax rates from " + file, e);
+        }
+
+        Map<String, Double> taxRates = new HashMap<>();
+        for (String region : properties.stringPropertyNames()) {
+            String value = properties.getProperty(region).trim();
+            try {
+                taxRates.put(region.trim(), Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid tax rate for region " + region + ": " + value);
+            }
+        }
+        return taxRates;
+    }
+}
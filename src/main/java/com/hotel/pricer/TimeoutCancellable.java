@@ -0,0 +1,21 @@
+package com.hotel.pricer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A future that tells a cancellation caused by its caller's timeout apart from one the caller asked for, and
+ * passes that on to the future it wraps. A {@link CircuitBreaker} counts the first as a failure.
+ */
+interface TimeoutCancellable {
+    /**
+     * Cancels this future because its caller timed out; returns whether it was cancelled.
+     */
+    boolean cancelForTimeout();
+
+    /**
+     * Cancels {@code future} because its caller timed out, telling it so if it can tell.
+     */
+    static boolean cancelForTimeout(CompletableFuture<?> future) {
+        return future instanceof TimeoutCancellable ? ((TimeoutCancellable) future).cancelForTimeout() : future.cancel(true);
+    }
+}
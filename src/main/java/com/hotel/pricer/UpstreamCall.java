@@ -0,0 +1,67 @@
+package com.hotel.pricer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A CompletableFuture that runs a blocking upstream call and, unlike supplyAsync, interrupts the worker
+ * thread when cancelled so the call stops consuming its thread and upstream capacity.
+ */
+final class UpstreamCall<T> extends CompletableFuture<T> implements Runnable {
+    private final Supplier<T> task;
+    private Thread runner;
+
+    private UpstreamCall(Supplier<T> task) {
+        this.task = task;
+    }
+
+    static <T> CompletableFuture<T> supply(Supplier<T> task, Executor executor) {
+        UpstreamCall<T> call = new UpstreamCall<>(task);
+        try {
+            executor.execute(call);
+        } catch (RejectedExecutionException e) {
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    @Override
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+        synchronized (this) {
+            runner = Thread.currentThread();
+        }
+        try {
+            if (!isDone()) {
+                complete(task.get());
+            }
+        } catch (Throwable t) {
+            completeExceptionally(t);
+        } finally {
+            synchronized (this) {
+                runner = null;
+            }
+            if (isCancelled()) {
+                // Swallow an interrupt delivered for this call so it cannot leak into the pool's next task.
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled && mayInterruptIfRunning) {
+            synchronized (this) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+        return cancelled;
+    }
+}
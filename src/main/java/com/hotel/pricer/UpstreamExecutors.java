@@ -0,0 +1,91 @@
+package com.hotel.pricer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class UpstreamExecutors {
+    static final int DEFAULT_POOL_SIZE = 64;
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadFactoryMethod();
+
+    private UpstreamExecutors() {
+    }
+
+    public static ExecutorService bounded(String name, int threads) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("name must not be null or empty");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreadFactory(name)
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    public static ExecutorService virtualThreads() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or newer");
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    public static ExecutorService virtualThreadsOrBounded(String name, int fallbackThreads) {
+        return virtualThreadsAvailable() ? virtualThreads() : bounded(name, fallbackThreads);
+    }
+
+    static ExecutorService defaultPriceExecutor() {
+        return DefaultPriceExecutorHolder.EXECUTOR;
+    }
+
+    static ExecutorService defaultAvailabilityExecutor() {
+        return DefaultAvailabilityExecutorHolder.EXECUTOR;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findVirtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class DefaultPriceExecutorHolder {
+        static final ExecutorService EXECUTOR = virtualThreadsOrBounded("price-api", DEFAULT_POOL_SIZE);
+    }
+
+    private static final class DefaultAvailabilityExecutorHolder {
+        static final ExecutorService EXECUTOR = virtualThreadsOrBounded("availability-api", DEFAULT_POOL_SIZE);
+    }
+}
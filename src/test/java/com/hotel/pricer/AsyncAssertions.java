@@ -0,0 +1,48 @@
+package com.hotel.pricer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Assertions shared by tests that wait on background work or failed futures.
+ */
+final class AsyncAssertions {
+    private AsyncAssertions() {
+    }
+
+    /**
+     * Polls {@code condition} until it holds, failing the test if it still does not after five seconds.
+     */
+    static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        awaitTrue(condition, Duration.ofSeconds(5));
+    }
+
+    static void awaitTrue(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within " + timeout.toMillis() + "ms");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * The exception {@code future} fails with, waiting up to five seconds; fails the test if it succeeds.
+     */
+    static Throwable causeOf(CompletableFuture<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        throw new AssertionError("Expected the future to fail");
+    }
+}
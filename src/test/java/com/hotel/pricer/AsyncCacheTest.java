@@ -0,0 +1,163 @@
+package com.hotel.pricer;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class AsyncCacheTest {
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testConcurrentIdenticalRequestsShareOneInFlightCall() throws Exception {
+        AsyncCache<String, Integer> cache = new AsyncCache<>(Duration.ofMinutes(1), 100, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Integer> upstream = new CompletableFuture<>();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<CompletableFuture<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return cache.get("US12345", key -> {
+                        loads.incrementAndGet();
+                        return upstream;
+                    });
+                }, callers));
+            }
+            start.countDown();
+            upstream.complete(42);
+
+            for (CompletableFuture<CompletableFuture<Integer>> result : results) {
+                assertEquals(Integer.valueOf(42), result.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            CacheStats stats = cache.stats();
+            assertEquals(1, stats.getMisses());
+            assertEquals(31, stats.getHits() + stats.getCoalesced());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        AsyncCache<String, Integer> cache = new AsyncCache<>(Duration.ofSeconds(30), 100, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("EU98765", key -> CompletableFuture.completedFuture(loads.incrementAndGet())).join();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertEquals(Integer.valueOf(1), cache.get("EU98765", key -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(Integer.valueOf(2), cache.get("EU98765", key -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        AsyncCache<String, Integer> cache = new AsyncCache<>(Duration.ofMinutes(1), 100, now::get);
+
+        CompletableFuture<Integer> failed = cache.get("JP11111", key -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+        assertTrue(failed.isCompletedExceptionally());
+
+        assertEquals(Integer.valueOf(7), cache.get("JP11111", key -> CompletableFuture.completedFuture(7)).join());
+    }
+
+    @Test
+    public void testSizeBoundEvictsColdEntriesFirst() {
+        AsyncCache<Integer, Integer> cache = new AsyncCache<>(Duration.ofMinutes(1), 4, now::get);
+        for (int i = 0; i < 4; i++) {
+            cache.get(i, CompletableFuture::completedFuture).join();
+        }
+        // First sweep clears every reference bit; keep key 0 hot afterwards.
+        cache.get(4, CompletableFuture::completedFuture).join();
+        AtomicInteger reloads = new AtomicInteger();
+        for (int i = 5; i < 20; i++) {
+            cache.get(0, key -> CompletableFuture.completedFuture(reloads.incrementAndGet())).join();
+            cache.get(i, CompletableFuture::completedFuture).join();
+        }
+
+        assertTrue(cache.size() <= 4);
+        assertTrue(cache.stats().getEvictions() >= 16);
+        assertTrue("Hot key should survive most sweeps, reloaded " + reloads.get() + " times", reloads.get() < 5);
+    }
+
+    @Test
+    public void testInvalidatedEntriesLeaveTheClockHand() {
+        AsyncCache<Integer, Integer> cache = new AsyncCache<>(Duration.ofMinutes(1), 100, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(i % 10, CompletableFuture::completedFuture).join();
+            cache.invalidate(i % 10);
+        }
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.clockHandSizeForTesting());
+    }
+
+    @Test
+    public void testBulkLoadOnlyFetchesMissingKeys() {
+        AsyncCache<String, Integer> cache = new AsyncCache<>(Duration.ofMinutes(1), 100, now::get);
+        cache.get("a", key -> CompletableFuture.completedFuture(1)).join();
+        List<List<String>> bulkCalls = new ArrayList<>();
+
+        List<CompletableFuture<Integer>> results = cache.getAll(Arrays.asList("a", "b", "c", "b"), keys -> {
+            bulkCalls.add(keys);
+            List<CompletableFuture<Integer>> loaded = new ArrayList<>();
+            keys.forEach(key -> loaded.add(CompletableFuture.completedFuture(key.charAt(0) - 'a' + 1)));
+            return loaded;
+        });
+
+        assertEquals(Arrays.asList(Arrays.asList("b", "c")), bulkCalls);
+        assertEquals(Integer.valueOf(1), results.get(0).join());
+        assertEquals(Integer.valueOf(2), results.get(1).join());
+        assertEquals(Integer.valueOf(3), results.get(2).join());
+        assertEquals(Integer.valueOf(2), results.get(3).join());
+    }
+
+    @Test
+    public void testCachingServicesAvoidRepeatUpstreamCalls() throws Exception {
+        AtomicInteger priceCalls = new AtomicInteger();
+        PriceApiService countingPriceService = new PriceApiService() {
+            @Override
+            public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+                priceCalls.incrementAndGet();
+                return super.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency);
+            }
+        };
+        CachingPriceApiService cachingPriceService = new CachingPriceApiService(countingPriceService);
+        CachingAvailabilityApiService cachingAvailabilityService = new CachingAvailabilityApiService(new AvailabilityApiService());
+        HotelPricerEngine cachedEngine = new HotelPricerEngine(cachingPriceService, cachingAvailabilityService);
+        HotelPricingRequest request = new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+
+        HotelPricingResponse first = cachedEngine.getPricing(request).get();
+        long start = System.nanoTime();
+        HotelPricingResponse second = cachedEngine.getPricing(request).get();
+        long cachedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(first.toString(), second.toString());
+        assertEquals(1, priceCalls.get());
+        assertTrue("Cached lookup should skip upstream latency, took " + cachedMillis + "ms", cachedMillis < 50);
+        assertEquals(1, cachingPriceService.getCacheStats().getHits());
+        assertEquals(1, cachingAvailabilityService.getCacheStats().getHits());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
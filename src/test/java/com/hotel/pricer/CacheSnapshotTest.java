@@ -0,0 +1,193 @@
+package com.hotel.pricer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotel.pricer.AsyncAssertions.awaitTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CacheSnapshotTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 15);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong wallClock = new AtomicLong(1_800_000_000_000L);
+    private final AtomicLong nanoClock = new AtomicLong();
+
+    @Test
+    public void testRestoresFreshEntriesWithTheirRemainingTtl() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CountingPriceApi priceApi = new CountingPriceApi();
+        CountingAvailabilityApi availabilityApi = new CountingAvailabilityApi();
+        CachingPriceApiService prices = priceCache(priceApi);
+        CachingAvailabilityApiService availability = availabilityCache(availabilityApi);
+        for (int i = 0; i < 3; i++) {
+            prices.fetchBasePrice("US" + i, CHECK_IN, CHECK_IN.plusDays(2), "USD").get();
+            availability.checkAvailability("US" + i, CHECK_IN, CHECK_IN.plusDays(2)).get();
+        }
+
+        try (CacheSnapshotter snapshotter = snapshotter(file, prices, availability)) {
+            assertEquals(0L, (long) snapshotter.restored().get(5, TimeUnit.SECONDS));
+            assertEquals(6, snapshotter.snapshotNow());
+        }
+
+        // Down for 40s: past the 30s availability TTL, well within the 5 minute price TTL.
+        wallClock.addAndGet(40_000);
+        CountingPriceApi restartedPriceApi = new CountingPriceApi();
+        CountingAvailabilityApi restartedAvailabilityApi = new CountingAvailabilityApi();
+        CachingPriceApiService restartedPrices = priceCache(restartedPriceApi);
+        CachingAvailabilityApiService restartedAvailability = availabilityCache(restartedAvailabilityApi);
+        try (CacheSnapshotter snapshotter = snapshotter(file, restartedPrices, restartedAvailability)) {
+            assertEquals(3L, (long) snapshotter.restored().get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(priceApi.fetchBasePrice("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").get(),
+                restartedPrices.fetchBasePrice("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").get());
+        assertEquals(0, restartedPriceApi.calls.get());
+        restartedAvailability.checkAvailability("US1", CHECK_IN, CHECK_IN.plusDays(2)).get();
+        assertEquals(1, restartedAvailabilityApi.calls.get());
+
+        // Restored prices keep the 260s they had left, not a fresh TTL.
+        nanoClock.addAndGet(Duration.ofSeconds(261).toNanos());
+        restartedPrices.fetchBasePrice("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").get();
+        assertEquals(1, restartedPriceApi.calls.get());
+    }
+
+    @Test
+    public void testRestoreNeverReplacesAnEntryLoadedSinceStartup() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CachingPriceApiService prices = priceCache(new CountingPriceApi());
+        prices.fetchBasePrice("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").get();
+        try (CacheSnapshotter snapshotter = snapshotter(file, prices, null)) {
+            snapshotter.restored().get(5, TimeUnit.SECONDS);
+        }
+
+        AsyncCache<StayKey, Double> live = new AsyncCache<>(Duration.ofMinutes(5), 100, nanoClock::get);
+        live.get(new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD"), key -> CompletableFuture.completedFuture(1.0));
+        CacheSnapshotFormat.Decoder decoder = new CacheSnapshotFormat.Decoder(wallClock.get(), live, null, null);
+        decoder.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+
+        assertEquals(0, decoder.getRestoredCount());
+        assertEquals(1.0, live.peekStale(new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD")), 0.0);
+    }
+
+    @Test
+    public void testCorruptSectionIsSkippedAndBadHeaderIsRejected() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CachingPriceApiService prices = priceCache(new CountingPriceApi());
+        CachingAvailabilityApiService availability = availabilityCache(new CountingAvailabilityApi());
+        prices.fetchBasePrice("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").get();
+        availability.checkAvailability("US1", CHECK_IN, CHECK_IN.plusDays(2)).get();
+        try (CacheSnapshotter snapshotter = snapshotter(file, prices, availability)) {
+            snapshotter.restored().get(5, TimeUnit.SECONDS);
+        }
+
+        // Flip a byte in the first (price) section's payload.
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[CacheSnapshotFormat.HEADER_BYTES + CacheSnapshotFormat.SECTION_HEADER_BYTES + 3] ^= 0x5A;
+        Files.write(file, bytes);
+        try (CacheSnapshotter snapshotter = snapshotter(file, priceCache(new CountingPriceApi()),
+                availabilityCache(new CountingAvailabilityApi()))) {
+            assertEquals(1L, (long) snapshotter.restored().get(5, TimeUnit.SECONDS));
+            assertEquals(1, snapshotter.getSkippedSectionCount());
+        }
+
+        bytes = Files.readAllBytes(file);
+        bytes[5] = 99;
+        Files.write(file, bytes);
+        try (CacheSnapshotter snapshotter = snapshotter(file, priceCache(new CountingPriceApi()), null)) {
+            snapshotter.restored().get(5, TimeUnit.SECONDS);
+            fail("Expected the header to be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testNightlyRatesSurviveARestart() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("nightly.snapshot");
+        PriceApiService upstream = new PriceApiService(Runnable::run, LatencyModel.fixed(0), FailureModel.none());
+        NightlyPriceApiService nightly = new NightlyPriceApiService(upstream);
+        double price = nightly.fetchBasePrice("EU1", CHECK_IN, CHECK_IN.plusDays(5), "EUR").get();
+        try (CacheSnapshotter snapshotter = CacheSnapshotter.builder(file).nightlyRates(nightly).start()) {
+            snapshotter.restored().get(5, TimeUnit.SECONDS);
+        }
+
+        NightlyPriceApiService restarted = new NightlyPriceApiService(upstream);
+        try (CacheSnapshotter snapshotter = CacheSnapshotter.builder(file).nightlyRates(restarted).start()) {
+            assertEquals(5L, (long) snapshotter.restored().get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(price, restarted.fetchBasePrice("EU1", CHECK_IN.plusDays(1), CHECK_IN.plusDays(4), "EUR").get()
+                + restarted.fetchNightlyRates("EU1", CHECK_IN, CHECK_IN.plusDays(1), "EUR").get()[0]
+                + restarted.fetchNightlyRates("EU1", CHECK_IN.plusDays(4), CHECK_IN.plusDays(5), "EUR").get()[0], 1e-9);
+        assertEquals(0, restarted.getUpstreamCallCount());
+    }
+
+    @Test
+    public void testSnapshotsPeriodicallyInTheBackground() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CachingPriceApiService prices = priceCache(new CountingPriceApi());
+        try (CacheSnapshotter snapshotter = CacheSnapshotter.builder(file).priceCache(prices)
+                .interval(Duration.ofMillis(20)).start()) {
+            awaitTrue(() -> snapshotter.getSnapshotCount() >= 2);
+            assertTrue(Files.exists(file));
+            assertEquals(0, snapshotter.getFailedSnapshotCount());
+        }
+    }
+
+    private CacheSnapshotter snapshotter(Path file, CachingPriceApiService prices, CachingAvailabilityApiService availability) {
+        return CacheSnapshotter.builder(file).priceCache(prices).availabilityCache(availability)
+                .wallClockMillis(wallClock::get).start();
+    }
+
+    private CachingPriceApiService priceCache(PriceApiService delegate) {
+        return new CachingPriceApiService(delegate, new AsyncCache<>(Duration.ofMinutes(5), 100, nanoClock::get));
+    }
+
+    private CachingAvailabilityApiService availabilityCache(AvailabilityApiService delegate) {
+        return new CachingAvailabilityApiService(delegate, new AsyncCache<>(Duration.ofSeconds(30), 100, nanoClock::get));
+    }
+
+    private static final class CountingPriceApi extends PriceApiService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingPriceApi() {
+            super(Runnable::run, LatencyModel.fixed(0), FailureModel.none());
+        }
+
+        @Override
+        public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+            calls.incrementAndGet();
+            return super.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency);
+        }
+    }
+
+    private static final class CountingAvailabilityApi extends AvailabilityApiService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingAvailabilityApi() {
+            super(Runnable::run, LatencyModel.fixed(0), FailureModel.none());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+            calls.incrementAndGet();
+            return super.checkAvailability(hotelId, checkInDate, checkOutDate);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.hotel.pricer;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotel.pricer.AsyncAssertions.causeOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 15);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        CircuitBreaker breaker = breaker().window(4, 4).build();
+        succeed(breaker);
+        fail(breaker);
+        succeed(breaker);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        fail(breaker);
+
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> refused = breaker.call(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+        assertTrue(causeOf(refused) instanceof CircuitOpenException);
+        assertEquals(0, calls.get());
+        assertEquals(1, breaker.getNotPermittedCount());
+        assertEquals(List.of("CLOSED->OPEN"), events);
+    }
+
+    @Test
+    public void testHalfOpenTrialsCloseTheBreakerAgain() {
+        CircuitBreaker breaker = openBreaker(2);
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertTrue(causeOf(breaker.call(() -> CompletableFuture.completedFuture("early"))) instanceof CircuitOpenException);
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        breaker.call(() -> first);
+        breaker.call(() -> second);
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        assertTrue(causeOf(breaker.call(() -> CompletableFuture.completedFuture("third"))) instanceof CircuitOpenException);
+
+        first.complete("ok");
+        second.complete("ok");
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), events);
+        assertEquals(1, breaker.getTransitionCount(CircuitState.CLOSED));
+    }
+
+    @Test
+    public void testFailedTrialReopensAndLateOutcomesAreIgnored() {
+        CircuitBreaker breaker = breaker().window(2, 2).halfOpenCalls(1).build();
+        CompletableFuture<String> straggler = new CompletableFuture<>();
+        breaker.call(() -> straggler);
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        fail(breaker);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTransitionCount(CircuitState.OPEN));
+
+        // Started while closed, so it says nothing about the upstream now.
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        succeed(breaker);
+        straggler.completeExceptionally(new IllegalStateException("late"));
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void testSlowCallsOpenButRejectedInputAndCancellationDoNot() {
+        CircuitBreaker breaker = breaker().window(4, 4).slowCalls(Duration.ofMillis(100), 0.5).build();
+        breaker.call(() -> CompletableFuture.failedFuture(new IllegalArgumentException("hotelId must not be null")));
+        CompletableFuture<String> abandoned = new CompletableFuture<>();
+        breaker.call(() -> abandoned);
+        abandoned.cancel(true);
+        slow(breaker, 150);
+        succeed(breaker);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), 0.0);
+
+        // A call cancelled after running past the slow-call duration is what a caller's timeout looks like.
+        CompletableFuture<String> timedOut = new CompletableFuture<>();
+        breaker.call(() -> timedOut);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        timedOut.cancel(true);
+
+        assertEquals(CircuitState.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testCancellationForATimeoutIsAFailureEvenWhenFast() {
+        CircuitBreaker breaker = breaker().window(2, 2).build();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        TimeoutCancellable.cancelForTimeout(breaker.call(() -> upstream));
+        assertTrue(upstream.isCancelled());
+        breaker.call(() -> new CompletableFuture<String>()).cancel(true);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+
+        TimeoutCancellable.cancelForTimeout(breaker.call(() -> new CompletableFuture<String>()));
+        assertEquals(CircuitState.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testEngineServesLastKnownGoodPriceWhileOpen() throws Exception {
+        AtomicBoolean upstreamDown = new AtomicBoolean();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        PriceApiService upstream = new PriceApiService(Runnable::run, LatencyModel.fixed(0), () -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamDown.get();
+        });
+        CachingPriceApiService cache = new CachingPriceApiService(upstream,
+                new AsyncCache<>(Duration.ofSeconds(30), 100, clock::get));
+        CircuitBreaker breaker = breaker().window(2, 2).build();
+        InMemoryPricingMetrics metrics = new InMemoryPricingMetrics();
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(cache)
+                .availabilityApiService(new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0)))
+                .circuitBreakers(breaker, null)
+                .degradeOnFailure(true)
+                .metrics(metrics)
+                .build();
+        HotelPricingRequest request = new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD");
+
+        double price = engine.getPricing(request).get().getBasePrice();
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        upstreamDown.set(true);
+        // One success and one failure in a window of two is the 50% failure rate that opens it.
+        assertTrue(engine.getPricing(request).get().isPriceStale());
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertEquals(2, upstreamCalls.get());
+
+        HotelPricingResponse response = engine.getPricing(request).get();
+        assertTrue(response.isPriceStale());
+        assertEquals(price, response.getBasePrice(), 0.0);
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(CircuitState.OPEN, metrics.getCircuitState("test"));
+        assertEquals(1, metrics.getCircuitOpenedCount());
+        assertEquals("OPEN", metrics.getCircuitStates().get("test"));
+    }
+
+    @Test
+    public void testEngineFailsFastWithoutDegradation() throws Exception {
+        CircuitBreaker breaker = breaker().window(1, 1).build();
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(Runnable::run, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0), () -> true))
+                .circuitBreakers(null, breaker)
+                .build();
+        HotelPricingRequest request = new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD");
+
+        assertTrue(causeOf(engine.getPricing(request)) instanceof IllegalStateException);
+        assertTrue(causeOf(engine.getPricing(request)) instanceof CircuitOpenException);
+        assertFalse(breaker.getNotPermittedCount() == 0);
+    }
+
+    @Test
+    public void testEngineTimeoutsShorterThanTheSlowCallDurationOpenIt() throws Exception {
+        CircuitBreaker breaker = breaker().window(2, 2).build();
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(task -> { }, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0)))
+                .circuitBreakers(breaker, null)
+                .scheduleUpstreamCalls(ConcurrencyLimiter.fixed(4, 4), null)
+                .priceTimeout(Duration.ofMillis(20))
+                .build();
+        HotelPricingRequest request = new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD");
+
+        assertTrue(causeOf(engine.getPricing(request)) instanceof TimeoutException);
+        assertTrue(causeOf(engine.getPricing(request)) instanceof TimeoutException);
+
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertEquals(1, breaker.getTransitionCount(CircuitState.OPEN));
+        assertTrue(causeOf(engine.getPricing(request)) instanceof CircuitOpenException);
+    }
+
+    private CircuitBreaker.Builder breaker() {
+        return CircuitBreaker.builder("test")
+                .openDuration(Duration.ofSeconds(10))
+                .nanoClock(clock::get)
+                .listener((name, from, to) -> events.add(from + "->" + to));
+    }
+
+    private CircuitBreaker openBreaker(int halfOpenCalls) {
+        CircuitBreaker breaker = breaker().window(2, 2).halfOpenCalls(halfOpenCalls).build();
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.call(() -> CompletableFuture.completedFuture("ok"));
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.call(() -> CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+    }
+
+    private void slow(CircuitBreaker breaker, long millis) {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        breaker.call(() -> call);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        call.complete("ok");
+    }
+}
@@ -0,0 +1,165 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimiterTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("limiter-test", 32);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testFixedLimitQueuesExcessCallsInOrder() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(2, 10);
+        List<CompletableFuture<Integer>> upstream = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(limiter.submit(() -> {
+                CompletableFuture<Integer> call = new CompletableFuture<>();
+                upstream.add(call);
+                return call;
+            }));
+        }
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(3, limiter.getQueued());
+        assertEquals(2, upstream.size());
+
+        upstream.get(0).complete(0);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(2, limiter.getQueued());
+        for (int i = 1; i < 5; i++) {
+            upstream.get(i).complete(i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Integer.valueOf(i), results.get(i).join());
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 0);
+        limiter.submit(CompletableFuture::new);
+
+        try {
+            limiter.submit(() -> CompletableFuture.completedFuture(1)).get();
+            fail("Should have been rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testCancellingQueuedCallFreesItsSlot() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 1);
+        CompletableFuture<Integer> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<Integer> queued = limiter.submit(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture(1);
+        });
+        assertTrue(queued.cancel(true));
+        assertEquals(0, limiter.getQueued());
+        assertFalse(limiter.submit(() -> CompletableFuture.completedFuture(2)).isCompletedExceptionally());
+
+        running.complete(0);
+        assertEquals(0, started.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedCallsThatCompleteAsTheyStartDrainWithoutRecursing() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 10_000);
+        CompletableFuture<Integer> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        List<Integer> delivered = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int value = i;
+            CompletableFuture<Integer> result = limiter.submit(() -> CompletableFuture.completedFuture(value));
+            result.thenAccept(delivered::add);
+            results.add(result);
+        }
+
+        running.complete(-1);
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(Integer.valueOf(i), results.get(i).join());
+        }
+        assertEquals(10_000, delivered.size());
+        assertEquals(Integer.valueOf(0), delivered.get(0));
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void testAdaptiveLimitGrowsWhenFastAndBacksOffOnTimeouts() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(4, 2, 20, Duration.ofSeconds(1), 0);
+        for (int i = 0; i < 200; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(1)).join();
+        }
+        int grown = limiter.getLimit();
+        assertTrue("Limit should grow under fast calls, was " + grown, grown > 4);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.submit(CompletableFuture::new).cancel(true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitedServicesBoundUpstreamConcurrency() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        PriceApiService counting = new PriceApiService(pool, LatencyModel.fixed(20)) {
+            @Override
+            public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return super.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency)
+                        .whenComplete((value, error) -> inFlight.decrementAndGet());
+            }
+        };
+        LimitedPriceApiService limited = new LimitedPriceApiService(counting, ConcurrencyLimiter.fixed(4, 100));
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(limited)
+                .availabilityApiService(new LimitedAvailabilityApiService(
+                        new AvailabilityApiService(pool, LatencyModel.fixed(0)), ConcurrencyLimiter.fixed(4, 100)))
+                .executionStrategy(ExecutionStrategy.AVAILABILITY_FIRST)
+                .build();
+
+        List<CompletableFuture<HotelPricingResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(engine.getPricing(new HotelPricingRequest(
+                    "US" + (10000 + i), LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 3), "USD")));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        List<HotelPricingResponse> batch = engine.getPricingBatch(List.of(
+                new HotelPricingRequest("EU1", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 3), "USD"))).get();
+
+        assertTrue("Price calls should be capped at 4, peaked at " + maxInFlight.get(), maxInFlight.get() <= 4);
+        assertTrue(maxInFlight.get() > 1);
+        assertEquals(1, batch.size());
+        assertFalse(batch.get(0).isFailed());
+        assertEquals(0, limited.getLimiter().getInFlight());
+    }
+}
@@ -0,0 +1,146 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class CurrencyConversionTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("fx-test", 16);
+    private final AtomicLong now = new AtomicLong();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testConvertsQuotedPriceBeforeTax() throws Exception {
+        HotelPricerEngine plain = engine(null);
+        HotelPricerEngine converting = engine(new CurrencyConverter(
+                new MockFxRateProvider(pool, LatencyModel.fixed(0)), Duration.ofMinutes(1), now::get, false));
+        HotelPricingRequest euHotelInUsd =
+                new HotelPricingRequest("EU98765", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+        HotelPricingRequest usHotelInUsd =
+                new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+
+        HotelPricingResponse quotedInEur = plain.getPricing(euHotelInUsd).get();
+        HotelPricingResponse convertedToUsd = converting.getPricing(euHotelInUsd).get();
+
+        assertEquals(quotedInEur.getBasePrice() / 0.92, convertedToUsd.getBasePrice(), 0.0001);
+        assertEquals(convertedToUsd.getBasePrice() * 0.20, convertedToUsd.getTax(), 0.0001);
+        assertEquals("USD", convertedToUsd.getCurrency());
+        assertEquals(plain.getPricing(usHotelInUsd).get().toString(), converting.getPricing(usHotelInUsd).get().toString());
+    }
+
+    @Test
+    public void testUnsupportedTargetCurrencyFails() throws Exception {
+        HotelPricerEngine converting = engine(new CurrencyConverter(
+                new MockFxRateProvider(pool, LatencyModel.fixed(0)), Duration.ofMinutes(1), now::get, false));
+
+        try {
+            converting.getPricing(new HotelPricingRequest("US1", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 16), "XYZ")).get();
+            fail("Should have rejected the currency");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testExpiredRatesRefreshInBackgroundWithoutBlocking() {
+        AtomicInteger fetches = new AtomicInteger();
+        AtomicReference<CompletableFuture<Map<String, Double>>> pending = new AtomicReference<>();
+        CurrencyConverter converter = new CurrencyConverter(() -> {
+            fetches.incrementAndGet();
+            CompletableFuture<Map<String, Double>> next = pending.getAndSet(null);
+            return next != null ? next : CompletableFuture.completedFuture(rates(0.90));
+        }, Duration.ofSeconds(30), now::get, false);
+        assertTrue(converter.isReady());
+
+        CompletableFuture<Map<String, Double>> slowRefresh = new CompletableFuture<>();
+        pending.set(slowRefresh);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        // The refresh is still outstanding, so both conversions use the stale rate and share one fetch.
+        assertEquals(90.0, converter.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(90.0, converter.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(2, fetches.get());
+
+        slowRefresh.complete(rates(0.80));
+        assertEquals(80.0, converter.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(2, converter.getRefreshCount());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsPreviousRates() {
+        AtomicInteger fetches = new AtomicInteger();
+        CurrencyConverter converter = new CurrencyConverter(() -> fetches.incrementAndGet() == 1
+                ? CompletableFuture.completedFuture(rates(0.90))
+                : CompletableFuture.failedFuture(new IllegalStateException("FX API down")),
+                Duration.ofSeconds(30), now::get, false);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        assertEquals(90.0, converter.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(1, converter.getFailedRefreshCount());
+    }
+
+    @Test
+    public void testStuckOrNullFetchesDoNotBlockLaterRefreshes() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CurrencyConverter converter = new CurrencyConverter(() -> {
+            switch (fetches.incrementAndGet()) {
+                case 1:
+                    return new CompletableFuture<>();
+                case 2:
+                    return null;
+                default:
+                    return CompletableFuture.completedFuture(rates(0.90));
+            }
+        }, Duration.ofMillis(200), now::get, false);
+
+        try {
+            converter.ready().get(5, TimeUnit.SECONDS);
+            fail("A fetch that never completes should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        try {
+            converter.refresh().get(5, TimeUnit.SECONDS);
+            fail("A null fetch should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        converter.ready().get(5, TimeUnit.SECONDS);
+
+        assertEquals(90.0, converter.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(2, converter.getFailedRefreshCount());
+    }
+
+    private HotelPricerEngine engine(CurrencyConverter converter) {
+        return HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .currencyConverter(converter)
+                .build();
+    }
+
+    private static Map<String, Double> rates(double eurPerUsd) {
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("USD", 1.0);
+        rates.put("EUR", eurPerUsd);
+        return rates;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ExecutionStrategyTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("strategy-test", 32);
+    private final AtomicInteger priceCalls = new AtomicInteger();
+    private final AtomicInteger completedPriceCalls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testAvailabilityFirstOnlyPricesAvailableHotels() throws Exception {
+        HotelPricerEngine parallel = engine(ExecutionStrategy.PARALLEL, 0, 0);
+        HotelPricerEngine availabilityFirst = engine(ExecutionStrategy.AVAILABILITY_FIRST, 0, 0);
+
+        int available = 0;
+        List<HotelPricingRequest> requests = requests(60);
+        for (HotelPricingRequest request : requests) {
+            HotelPricingResponse expected = parallel.getPricing(request).get();
+            priceCalls.set(0);
+            HotelPricingResponse actual = availabilityFirst.getPricing(request).get();
+
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.isAvailable() ? 1 : 0, priceCalls.get());
+            available += expected.isAvailable() ? 1 : 0;
+        }
+        assertEquals(requests.size() - available, availabilityFirst.getAvoidedPriceCallCount());
+    }
+
+    @Test
+    public void testAvailabilityFirstBatchOnlyPricesAvailableHotels() throws Exception {
+        HotelPricerEngine availabilityFirst = engine(ExecutionStrategy.AVAILABILITY_FIRST, 0, 0);
+        List<HotelPricingRequest> requests = requests(60);
+
+        List<HotelPricingResponse> responses = availabilityFirst.getPricingBatch(requests).get();
+
+        long available = responses.stream().filter(HotelPricingResponse::isAvailable).count();
+        assertTrue(available < requests.size());
+        assertEquals(requests.size() - available, availabilityFirst.getAvoidedPriceCallCount());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(engine(ExecutionStrategy.PARALLEL, 0, 0).getPricing(requests.get(i)).get().toString(),
+                    responses.get(i).toString());
+        }
+    }
+
+    @Test
+    public void testParallelCancelsInFlightPriceWhenUnavailable() throws Exception {
+        HotelPricingRequest unavailable = findUnavailableRequest();
+        HotelPricerEngine parallel = engine(ExecutionStrategy.PARALLEL, 500, 0);
+        // Let the probe's own zero-latency calls drain before counting.
+        Thread.sleep(100);
+        completedPriceCalls.set(0);
+
+        long start = System.nanoTime();
+        HotelPricingResponse response = parallel.getPricing(unavailable).get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(response.isAvailable());
+        assertTrue("Unavailable response should not wait for price, took " + elapsedMillis + "ms", elapsedMillis < 300);
+        assertEquals(1, parallel.getAvoidedPriceCallCount());
+        Thread.sleep(600);
+        assertEquals("Cancelled upstream call should have been interrupted", 0, completedPriceCalls.get());
+    }
+
+    @Test
+    public void testAdaptiveSwitchesToAvailabilityFirstForHighUnavailabilityRegions() throws Exception {
+        HotelPricerEngine adaptive = engine(ExecutionStrategy.ADAPTIVE, 0, 0);
+        AdaptiveExecutionPolicy policy = adaptive.getAdaptivePolicyForTesting();
+
+        assertFalse(policy.preferAvailabilityFirst(RegionCode.ofRegion("TE")));
+        for (HotelPricingRequest request : requests(AdaptiveExecutionPolicy.MIN_SAMPLES * 2)) {
+            adaptive.getPricing(request).get();
+        }
+
+        assertTrue(policy.unavailabilityRate(RegionCode.ofRegion("TE")) > 0.0);
+        assertTrue(policy.preferAvailabilityFirst(RegionCode.ofRegion("TE")));
+        assertTrue(adaptive.getAvoidedPriceCallCount() > 0);
+    }
+
+    @Test
+    public void testAdaptiveStaysParallelWhenSequentialLatencyExceedsBudget() throws Exception {
+        HotelPricerEngine adaptive = HotelPricerEngine.builder()
+                .priceApiService(countingPriceService(20))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(20)))
+                .executionStrategy(ExecutionStrategy.ADAPTIVE)
+                .adaptiveLatencyBudget(Duration.ofMillis(25))
+                .build();
+
+        List<CompletableFuture<HotelPricingResponse>> futures = new ArrayList<>();
+        for (HotelPricingRequest request : requests(AdaptiveExecutionPolicy.MIN_SAMPLES * 2)) {
+            futures.add(adaptive.getPricing(request));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        assertFalse(adaptive.getAdaptivePolicyForTesting().preferAvailabilityFirst(RegionCode.ofRegion("TE")));
+    }
+
+    private HotelPricerEngine engine(ExecutionStrategy strategy, long priceLatencyMillis, long availabilityLatencyMillis) {
+        return HotelPricerEngine.builder()
+                .priceApiService(countingPriceService(priceLatencyMillis))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(availabilityLatencyMillis)))
+                .executionStrategy(strategy)
+                .build();
+    }
+
+    private PriceApiService countingPriceService(long latencyMillis) {
+        LatencyModel latency = LatencyModel.fixed(latencyMillis);
+        return new PriceApiService(pool, latency) {
+            @Override
+            public CompletableFuture<Double> fetchBasePrice(String hotelId, LocalDate checkInDate, LocalDate checkOutDate, String currency) {
+                priceCalls.incrementAndGet();
+                CompletableFuture<Double> call = super.fetchBasePrice(hotelId, checkInDate, checkOutDate, currency);
+                call.thenRun(completedPriceCalls::incrementAndGet);
+                return call;
+            }
+
+            @Override
+            public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+                priceCalls.addAndGet(requests.size());
+                return super.fetchBasePrices(requests);
+            }
+        };
+    }
+
+    private HotelPricingRequest findUnavailableRequest() throws Exception {
+        HotelPricerEngine probe = engine(ExecutionStrategy.PARALLEL, 0, 0);
+        for (HotelPricingRequest request : requests(50)) {
+            if (!probe.getPricing(request).get().isAvailable()) {
+                return request;
+            }
+        }
+        throw new AssertionError("Expected at least one unavailable hotel in 50 requests");
+    }
+
+    private static List<HotelPricingRequest> requests(int count) {
+        List<HotelPricingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new HotelPricingRequest(
+                    "TEST" + i,
+                    LocalDate.of(2026, 6, i % 27 + 1),
+                    LocalDate.of(2026, 6, i % 27 + 2),
+                    "USD"
+            ));
+        }
+        return requests;
+    }
+}
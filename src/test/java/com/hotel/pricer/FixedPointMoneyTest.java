@@ -0,0 +1,102 @@
+package com.hotel.pricer;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FixedPointMoneyTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 15);
+
+    @Test
+    public void testCurrencyCodesAreInternedWithTheirMinorUnitScale() {
+        CurrencyUnit usd = CurrencyUnit.of("USD");
+        assertSame(usd, CurrencyUnit.of(new String("USD")));
+        assertEquals(2, usd.getScale());
+        assertEquals(0, CurrencyUnit.of("JPY").getScale());
+        assertEquals(3, CurrencyUnit.of("BHD").getScale());
+        assertEquals(2, CurrencyUnit.of("ABC").getScale());
+        assertNotSame(CurrencyUnit.of("usd"), CurrencyUnit.of("usd"));
+
+        HotelPricingRequest request = new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(1), new String("EUR"));
+        assertSame(CurrencyUnit.of("EUR").getCode(), request.getTargetCurrency());
+    }
+
+    @Test
+    public void testMinorUnitsRoundHalfEvenOnTheDecimalValue() {
+        CurrencyUnit usd = CurrencyUnit.of("USD");
+        assertEquals(268, usd.toMinorUnits(2.675));
+        assertEquals(266, usd.toMinorUnits(2.665));
+        assertEquals(12, usd.toMinorUnits(0.125));
+        assertEquals(-268, usd.toMinorUnits(-2.675));
+        assertEquals(1234, CurrencyUnit.of("JPY").toMinorUnits(1234.5));
+        assertEquals(1236, CurrencyUnit.of("JPY").toMinorUnits(1235.5));
+        assertEquals(12.34, usd.toAmount(1234), 0.0);
+    }
+
+    @Test
+    public void testFixedPointTotalsAreTheExactSumOfRoundedParts() {
+        HotelPricerEngine engine = HotelPricerEngine.builder().fixedPointMoney(true).build();
+
+        // 3.30 * 0.15 is 0.49499999999999994 as a double; in integer arithmetic it is exactly 0.495, so 0.50.
+        HotelPricingResponse uk = engine.buildResponse(request("UK1", "GBP"), 3.30, true);
+        assertTrue(uk.isFixedPoint());
+        assertEquals(330, uk.getBasePriceMinorUnits());
+        assertEquals(50, uk.getTaxMinorUnits());
+        assertEquals(380, uk.getTotalPriceMinorUnits());
+        assertEquals(3.80, uk.getTotalPrice(), 0.0);
+
+        HotelPricingResponse jp = engine.buildResponse(request("JP1", "JPY"), 1234.56, true);
+        assertEquals(1235, jp.getBasePriceMinorUnits());
+        assertEquals(99, jp.getTaxMinorUnits());
+        assertEquals(1334, jp.getTotalPriceMinorUnits());
+
+        JsonWriter json = new JsonWriter();
+        PricingJson.writeResponse(json, jp);
+        assertTrue(json.toString(), json.toString().contains("\"basePrice\":1235,\"tax\":99,\"totalPrice\":1334,"));
+    }
+
+    @Test
+    public void testDoublePricingStaysTheDefault() {
+        HotelPricingResponse response = new HotelPricerEngine().buildResponse(request("UK1", "GBP"), 3.30, true);
+
+        assertFalse(response.isFixedPoint());
+        assertEquals(3.30 * 0.15, response.getTax(), 0.0);
+        assertEquals(49, response.getTaxMinorUnits());
+    }
+
+    @Test
+    public void testDegradedFixedPointResponseKeepsItsMinorUnits() {
+        HotelPricerEngine engine = HotelPricerEngine.builder().fixedPointMoney(true).build();
+        HotelPricingResponse degraded = engine.buildResponse(request("UK1", "GBP"), 3.30, true).degraded(true, false, true);
+
+        assertTrue(degraded.isFixedPoint());
+        assertTrue(degraded.isPriceStale());
+        assertFalse(degraded.isAvailabilityUnknown());
+        assertEquals(380, degraded.getTotalPriceMinorUnits());
+    }
+
+    @Test
+    public void testUnavailableResponsesAreShared() {
+        HotelPricerEngine engine = new HotelPricerEngine();
+
+        HotelPricingResponse first = engine.buildResponse(request("US7", "USD"), 0.0, false);
+        HotelPricingResponse again = engine.buildResponse(request(new String("US7"), "USD"), 0.0, false);
+        HotelPricingResponse otherCurrency = engine.buildResponse(request("US7", "EUR"), 0.0, false);
+
+        assertSame(first, again);
+        assertNotSame(first, otherCurrency);
+        assertFalse(first.isAvailable());
+        assertEquals("EUR", otherCurrency.getCurrency());
+        assertEquals(0.0, first.getTotalPrice(), 0.0);
+    }
+
+    private static HotelPricingRequest request(String hotelId, String currency) {
+        return new HotelPricingRequest(hotelId, CHECK_IN, CHECK_IN.plusDays(2), currency);
+    }
+}
@@ -0,0 +1,134 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FlexibleSearchTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("flexible-test", 16);
+    private final AtomicInteger priceCalls = new AtomicInteger();
+    private final AtomicInteger availabilityCalls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testOptionsMatchSingleStayPricing() throws Exception {
+        HotelPricerEngine engine = new HotelPricerEngine(new PriceApiService(pool, LatencyModel.fixed(0)),
+                new AvailabilityApiService(pool, LatencyModel.fixed(0)));
+        List<String> hotels = List.of("US12345", "EU67890", "JP11111");
+        List<StayOption> options = engine.searchFlexibleDates(
+                new FlexibleSearchRequest(hotels, LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 17), 3, "USD")).get();
+
+        int expected = 0;
+        for (String hotelId : hotels) {
+            for (LocalDate checkIn = LocalDate.of(2026, 4, 10); checkIn.isBefore(LocalDate.of(2026, 4, 15)); checkIn = checkIn.plusDays(1)) {
+                HotelPricingResponse single = engine.getPricing(
+                        new HotelPricingRequest(hotelId, checkIn, checkIn.plusDays(3), "USD")).get();
+                if (!single.isAvailable()) {
+                    continue;
+                }
+                expected++;
+                LocalDate arrival = checkIn;
+                StayOption option = options.stream()
+                        .filter(o -> o.getHotelId().equals(hotelId) && o.getCheckInDate().equals(arrival))
+                        .findFirst().orElseThrow(() -> new AssertionError("Missing " + hotelId + " " + arrival));
+                assertEquals(arrival.plusDays(3), option.getCheckOutDate());
+                assertEquals(single.getTotalPrice(), option.getTotalPrice(), 0.001);
+                assertEquals(single.getTax(), option.getPricing().getTax(), 0.001);
+            }
+        }
+        assertEquals(expected, options.size());
+        for (int i = 1; i < options.size(); i++) {
+            assertTrue(options.get(i - 1).getTotalPrice() <= options.get(i).getTotalPrice());
+        }
+    }
+
+    @Test
+    public void testRanksByTotalWithOneCallPerServicePerHotel() throws Exception {
+        HotelPricerEngine engine = new HotelPricerEngine(countingPrices(), countingAvailability());
+
+        List<StayOption> options = engine.searchFlexibleDates(
+                new FlexibleSearchRequest(List.of("US1", "US2"), LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 29), 7, "USD")).get();
+
+        assertEquals(2, priceCalls.get());
+        assertEquals(2, availabilityCalls.get());
+        assertEquals(2 * 22, options.size());
+        // Rates rise with the day of month, so the earliest arrival is cheapest: 1 + 2 + ... + 7 nights.
+        StayOption cheapest = options.get(0);
+        assertEquals(LocalDate.of(2026, 4, 1), cheapest.getCheckInDate());
+        assertEquals(28 * 1.10, cheapest.getTotalPrice(), 0.001);
+        assertEquals(LocalDate.of(2026, 4, 22), options.get(options.size() - 1).getCheckInDate());
+    }
+
+    @Test
+    public void testOverlappingSearchesReuseCachedNights() throws Exception {
+        NightlyPriceApiService prices = new NightlyPriceApiService(countingPrices());
+        CachingAvailabilityApiService availability = new CachingAvailabilityApiService(countingAvailability());
+        HotelPricerEngine engine = new HotelPricerEngine(prices, availability);
+
+        engine.searchFlexibleDates(new FlexibleSearchRequest("EU1", LocalDate.of(2026, 4, 7), LocalDate.of(2026, 4, 17), 3, "EUR")).get();
+        engine.searchFlexibleDates(new FlexibleSearchRequest("EU1", LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 20), 3, "EUR")).get();
+        HotelPricingResponse single = engine.getPricing(
+                new HotelPricingRequest("EU1", LocalDate.of(2026, 4, 12), LocalDate.of(2026, 4, 15), "EUR")).get();
+
+        assertEquals(2, priceCalls.get());
+        assertEquals(10 + 3, prices.getCacheStats().getMisses());
+        assertEquals(2, availabilityCalls.get());
+        assertEquals((12 + 13 + 14) * 1.20, single.getTotalPrice(), 0.001);
+    }
+
+    @Test
+    public void testRejectsWindowShorterThanStay() {
+        try {
+            new FlexibleSearchRequest("US1", LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 12), 3, "USD");
+            fail("Should reject a window that cannot fit the stay");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("shorter than 3 nights"));
+        }
+        HotelPricerEngine engine = new HotelPricerEngine(pool);
+        assertTrue(engine.searchFlexibleDates(null).isCompletedExceptionally());
+    }
+
+    /** Nightly rate is the day of month; every arrival is available. */
+    private PriceApiService countingPrices() {
+        return new PriceApiService(pool, LatencyModel.fixed(0)) {
+            @Override
+            public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+                priceCalls.incrementAndGet();
+                double[] rates = new double[(int) (toDate.toEpochDay() - fromDate.toEpochDay())];
+                for (int i = 0; i < rates.length; i++) {
+                    rates[i] = fromDate.plusDays(i).getDayOfMonth();
+                }
+                return CompletableFuture.completedFuture(rates);
+            }
+        };
+    }
+
+    private AvailabilityApiService countingAvailability() {
+        return new AvailabilityApiService(pool, LatencyModel.fixed(0)) {
+            @Override
+            public CompletableFuture<boolean[]> checkAvailabilityForArrivals(String hotelId, LocalDate fromDate, LocalDate toDate, int nights) {
+                availabilityCalls.incrementAndGet();
+                boolean[] available = new boolean[(int) (toDate.toEpochDay() - fromDate.toEpochDay())];
+                Arrays.fill(available, true);
+                return CompletableFuture.completedFuture(available);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> checkAvailability(String hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+                return CompletableFuture.completedFuture(true);
+            }
+        };
+    }
+}
@@ -4,8 +4,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -174,6 +181,26 @@ public class HotelPricerEngineTest {
         assertTrue(engine.getRegionalTaxRatesForTesting().containsKey("DEFAULT"));
     }
 
+    @Test
+    public void testTaxRateResolution() {
+        assertEquals(0.10, engine.taxRateFor("US12345"), 0.0);
+        assertEquals(0.10, engine.taxRateFor("us12345"), 0.0);
+        assertEquals(0.15, engine.taxRateFor("Uk1"), 0.0);
+        assertEquals(0.05, engine.taxRateFor("ZZ999"), 0.0);
+        assertEquals(0.05, engine.taxRateFor("1A999"), 0.0);
+        assertEquals(0.05, engine.taxRateFor("U"), 0.0);
+        assertEquals("JP", engine.extractRegionFromHotelId("jp11111"));
+        assertEquals("DEFAULT", engine.extractRegionFromHotelId("9"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTaxTableRejectsInvalidRegion() {
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("DEFAULT", 0.05);
+        rates.put("USA", 0.10);
+        RegionalTaxTable.fromMap(rates);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNullHotelId() {
         new HotelPricingRequest(null, LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
@@ -218,4 +245,76 @@ public class HotelPricerEngineTest {
             assertTrue(e.getCause() instanceof IllegalArgumentException);
         }
     }
+
+    @Test
+    public void testBatchPricingMatchesSinglePricing() throws ExecutionException, InterruptedException {
+        HotelPricingRequest request1 = new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+        HotelPricingRequest request2 = new HotelPricingRequest("EU98765", LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 12), "EUR");
+
+        List<HotelPricingResponse> batch = engine.getPricingBatch(Arrays.asList(request1, request2)).get();
+
+        assertEquals(2, batch.size());
+        assertEquals(engine.getPricing(request1).get().toString(), batch.get(0).toString());
+        assertEquals(engine.getPricing(request2).get().toString(), batch.get(1).toString());
+    }
+
+    @Test
+    public void testBatchPricingUsesFewUpstreamRoundTrips() throws ExecutionException, InterruptedException {
+        ExecutorService twoThreads = UpstreamExecutors.bounded("batch-test", 2);
+        try {
+            HotelPricerEngine batchEngine = new HotelPricerEngine(twoThreads);
+            List<HotelPricingRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                requests.add(new HotelPricingRequest("US" + (i % 200), LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 16), "USD"));
+            }
+
+            long start = System.currentTimeMillis();
+            List<HotelPricingResponse> responses = batchEngine.getPricingBatch(requests).get();
+            long duration = System.currentTimeMillis() - start;
+
+            assertEquals(250, responses.size());
+            // 500 single calls on two threads would take 25 seconds; batches need only a couple of round-trips.
+            assertTrue("Batch should need only a few round-trips. Took: " + duration + "ms", duration < 1000);
+            assertEquals(responses.get(10).toString(), responses.get(210).toString());
+        } finally {
+            twoThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchPricingReportsPartialFailuresPerItem() throws ExecutionException, InterruptedException {
+        PriceApiService flakyPriceService = new PriceApiService() {
+            @Override
+            public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+                List<CompletableFuture<Double>> results = super.fetchBasePrices(requests);
+                results.set(0, CompletableFuture.failedFuture(new IllegalStateException("supplier timeout")));
+                return results;
+            }
+        };
+        HotelPricerEngine flakyEngine = new HotelPricerEngine(flakyPriceService, new AvailabilityApiService());
+        HotelPricingRequest request1 = new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+        HotelPricingRequest request2 = new HotelPricingRequest("EU98765", LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 12), "EUR");
+        AtomicInteger callbacks = new AtomicInteger();
+
+        List<HotelPricingResponse> batch = flakyEngine.getPricingBatch(Arrays.asList(request1, null, request2),
+                (response, index) -> callbacks.incrementAndGet()).get();
+
+        assertEquals(3, callbacks.get());
+        assertTrue(batch.get(0).isFailed());
+        assertEquals("US12345", batch.get(0).getHotelId());
+        assertEquals("supplier timeout", batch.get(0).getErrorMessage());
+        assertTrue(batch.get(1).isFailed());
+        assertFalse(batch.get(2).isFailed());
+        assertEquals("EU98765", batch.get(2).getHotelId());
+    }
+
+    @Test
+    public void testNullBatch() throws InterruptedException {
+        try {
+            engine.getPricingBatch(null).get();
+            fail("Should have thrown IllegalArgumentException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class LoadHarnessTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("load-test", 64);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testRandomModelsAreSeededAndShaped() {
+        long[] first = sample(LatencyModel.logNormal(50, 0.8, 7), 10_000);
+        long[] second = sample(LatencyModel.logNormal(50, 0.8, 7), 10_000);
+        assertArrayEquals(first, second);
+        Arrays.sort(first);
+        assertEquals(50, first[5_000], 3);
+        assertTrue("Expected a long tail, p99 was " + first[9_900], first[9_900] > 200);
+
+        long[] bimodal = sample(LatencyModel.bimodal(LatencyModel.fixed(5), LatencyModel.fixed(500), 0.1, 3), 10_000);
+        long slow = Arrays.stream(bimodal).filter(delay -> delay == 500).count();
+        assertEquals(1_000, slow, 100);
+    }
+
+    @Test
+    public void testPausesDelayCallsUntilThePauseEnds() {
+        AtomicLong now = new AtomicLong();
+        LatencyModel paused = LatencyModel.fixed(10).withPauses(Duration.ofSeconds(1), Duration.ofMillis(200), now::get);
+
+        assertEquals(10, paused.nextDelayMillis());
+        now.set(TimeUnit.MILLISECONDS.toNanos(850));
+        assertEquals(10 + 150, paused.nextDelayMillis());
+        now.set(TimeUnit.MILLISECONDS.toNanos(1_100));
+        assertEquals(10, paused.nextDelayMillis());
+    }
+
+    @Test
+    public void testFailureModelFailsUpstreamCalls() throws Exception {
+        PriceApiService prices = new PriceApiService(pool, LatencyModel.fixed(0), FailureModel.rate(0.3, 11));
+        int failures = 0;
+        for (int i = 0; i < 1_000; i++) {
+            try {
+                prices.fetchBasePrice("US" + i, LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 2), "USD").get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                failures++;
+            }
+        }
+        assertEquals(300, failures, 50);
+    }
+
+    @Test
+    public void testCorrectsForCoordinatedOmission() throws Exception {
+        // One 300ms stall; a paced single client misses ~30 scheduled sends while it waits.
+        AtomicInteger calls = new AtomicInteger();
+        HotelPricerEngine engine = engine(() -> calls.incrementAndGet() == 20 ? 300 : 0, FailureModel.none());
+
+        LoadReport report = EngineLoadDriver.builder(engine).mode(LoadMode.CLOSED_LOOP)
+                .concurrency(1).targetQps(100).duration(Duration.ofMillis(1_200)).build().run();
+
+        long servicePercentile = report.getServiceTime().getValueAtPercentile(90.0);
+        long correctedPercentile = report.getResponseTime().getValueAtPercentile(90.0);
+        assertTrue("Service p90 should miss the stall, was " + servicePercentile, servicePercentile < TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue("Corrected p90 should include it, was " + correctedPercentile, correctedPercentile > TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, report.getErrors());
+    }
+
+    @Test
+    public void testOpenLoopHoldsTargetRateAndReportsErrors() throws Exception {
+        HotelPricerEngine engine = engine(LatencyModel.fixed(20), FailureModel.rate(0.2, 5));
+
+        LoadReport report = EngineLoadDriver.builder(engine).mode(LoadMode.OPEN_LOOP).targetQps(200)
+                .duration(Duration.ofSeconds(1)).warmup(Duration.ofMillis(200)).build().run();
+
+        assertEquals(200, report.getRequests(), 10);
+        assertTrue("Error rate was " + report.getErrorRate(), report.getErrorRate() > 0.2 && report.getErrorRate() < 0.6);
+        assertTrue(report.getResponseTime().getValueAtPercentile(50.0) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(report.toString().contains("uncorrected p99="));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsATargetRateAboveOneRequestPerNanosecond() {
+        EngineLoadDriver.builder(engine(LatencyModel.fixed(0), FailureModel.none())).targetQps(2e9);
+    }
+
+    private HotelPricerEngine engine(LatencyModel latency, FailureModel failures) {
+        return new HotelPricerEngine(new PriceApiService(pool, latency, failures),
+                new AvailabilityApiService(pool, latency, failures));
+    }
+
+    private static long[] sample(LatencyModel model, int count) {
+        long[] delays = new long[count];
+        for (int i = 0; i < count; i++) {
+            delays[i] = model.nextDelayMillis();
+        }
+        return delays;
+    }
+}
@@ -0,0 +1,195 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class NightlyRateCacheTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("nightly-test", 16);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testOverlappingStaysOnlyFetchMissingNights() throws Exception {
+        List<String> calls = new ArrayList<>();
+        NightlyRateCache cache = new NightlyRateCache((hotelId, from, to, currency) -> {
+            calls.add(from + ".." + to);
+            return CompletableFuture.completedFuture(rates(from, to));
+        }, Duration.ofMinutes(5), 100);
+
+        assertEquals(15 + 16 + 17, cache.stayPrice("US1", march(15), march(18), "USD").get(), 0.0);
+        assertEquals(16 + 17 + 18, cache.stayPrice("US1", march(16), march(19), "USD").get(), 0.0);
+        assertEquals(12 + 13 + 14 + 15 + 16 + 17 + 18 + 19, cache.stayPrice("US1", march(12), march(20), "USD").get(), 0.0);
+
+        assertEquals(List.of("2026-03-15..2026-03-18", "2026-03-18..2026-03-19",
+                "2026-03-12..2026-03-15", "2026-03-19..2026-03-20"), calls);
+        CacheStats stats = cache.stats();
+        assertEquals(2 + 4, stats.getHits());
+        assertEquals(3 + 1 + 4, stats.getMisses());
+    }
+
+    @Test
+    public void testConcurrentStaysShareInFlightNights() throws Exception {
+        List<CompletableFuture<double[]>> upstream = new ArrayList<>();
+        NightlyRateCache cache = new NightlyRateCache((hotelId, from, to, currency) -> {
+            CompletableFuture<double[]> call = new CompletableFuture<>();
+            upstream.add(call);
+            return call.thenApply(ignored -> rates(from, to));
+        }, Duration.ofMinutes(5), 100);
+
+        CompletableFuture<Double> first = cache.stayPrice("EU1", march(1), march(8), "EUR");
+        CompletableFuture<Double> second = cache.stayPrice("EU1", march(5), march(10), "EUR");
+        assertEquals(2, upstream.size());
+        assertFalse(second.isDone());
+
+        upstream.forEach(call -> call.complete(null));
+        assertEquals(1 + 2 + 3 + 4 + 5 + 6 + 7, first.get(), 0.0);
+        assertEquals(5 + 6 + 7 + 8 + 9, second.get(), 0.0);
+        assertEquals(3, cache.stats().getCoalesced());
+        assertEquals(2, cache.getUpstreamCallCount());
+    }
+
+    @Test
+    public void testExpiredNightsAreRefetchedAndFailuresAreNotCached() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AtomicLong loads = new AtomicLong();
+        NightlyRateCache cache = new NightlyRateCache((hotelId, from, to, currency) -> {
+            if (loads.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(new IllegalStateException("upstream down"));
+            }
+            return CompletableFuture.completedFuture(rates(from, to));
+        }, Duration.ofSeconds(10), 100, now::get);
+
+        try {
+            cache.stayPrice("JP1", march(1), march(3), "JPY").get();
+            fail("Failure should propagate");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(3, cache.stayPrice("JP1", march(1), march(3), "JPY").get(), 0.0);
+        assertEquals(3, cache.stayPrice("JP1", march(1), march(3), "JPY").get(), 0.0);
+        assertEquals(2, loads.get());
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.stayPrice("JP1", march(1), march(3), "JPY").get();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testWindowIsBoundedAndHotelsAreEvicted() throws Exception {
+        NightlyRateCache cache = new NightlyRateCache((hotelId, from, to, currency) ->
+                CompletableFuture.completedFuture(rates(from, to)), Duration.ofMinutes(5), 2);
+
+        cache.stayPrice("US1", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 3), "USD").get();
+        LocalDate farAway = LocalDate.of(2030, 1, 1);
+        assertEquals(rates(farAway, farAway.plusDays(2))[0] + rates(farAway, farAway.plusDays(2))[1],
+                cache.stayPrice("US1", farAway, farAway.plusDays(2), "USD").get(), 0.0);
+        cache.stayPrice("US2", march(1), march(2), "USD").get();
+        cache.stayPrice("US3", march(1), march(2), "USD").get();
+
+        assertEquals(2, cache.stats().getSize());
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    public void testConcurrentStaysTooFarApartDoNotDropEachOthersNights() throws Exception {
+        List<CompletableFuture<double[]>> upstream = new ArrayList<>();
+        NightlyRateCache cache = new NightlyRateCache((hotelId, from, to, currency) -> {
+            CompletableFuture<double[]> call = new CompletableFuture<>();
+            upstream.add(call);
+            return call.thenApply(ignored -> rates(from, to));
+        }, Duration.ofMinutes(5), 100);
+
+        LocalDate farAway = march(1).plusDays(1000);
+        CompletableFuture<Double> near = cache.stayPrice("US1", march(1), march(3), "USD");
+        CompletableFuture<Double> far = cache.stayPrice("US1", farAway, farAway.plusDays(2), "USD");
+        assertEquals(2, upstream.size());
+
+        new ArrayList<>(upstream).forEach(call -> call.complete(null));
+        assertEquals(1 + 2, near.get(), 0.0);
+        assertEquals(farAway.getDayOfMonth() + farAway.plusDays(1).getDayOfMonth(), far.get(), 0.0);
+        assertEquals(2, cache.getUpstreamCallCount());
+
+        // The far stay was served without moving the window, so the near one is still cached.
+        assertEquals(1 + 2, cache.stayPrice("US1", march(1), march(3), "USD").get(), 0.0);
+        assertEquals(2, cache.getUpstreamCallCount());
+    }
+
+    @Test
+    public void testServiceMatchesWholeStayPrices() throws Exception {
+        PriceApiService plain = new PriceApiService(pool, LatencyModel.fixed(0));
+        NightlyPriceApiService nightly = new NightlyPriceApiService(plain);
+        for (int offset = -3; offset <= 3; offset++) {
+            LocalDate checkIn = march(15).plusDays(offset);
+            assertEquals(plain.fetchBasePrice("UK42", checkIn, checkIn.plusDays(3), "GBP").get(),
+                    nightly.fetchBasePrice("UK42", checkIn, checkIn.plusDays(3), "GBP").get());
+        }
+        List<CompletableFuture<Double>> batch = nightly.fetchBasePrices(List.of(
+                new HotelPricingRequest("UK42", march(14), march(19), "GBP")));
+
+        assertEquals(plain.fetchBasePrice("UK42", march(14), march(19), "GBP").get(), batch.get(0).get());
+        // The first stay fetches three nights, each later one only its new last night; the batch stay is all hits.
+        assertEquals(7, nightly.getUpstreamCallCount());
+        assertEquals(9, nightly.getCacheStats().getMisses());
+        assertTrue(nightly.fetchBasePrice("UK42", march(3), march(3), "GBP").isCompletedExceptionally());
+    }
+
+    @Test
+    public void testColdBatchStaysShareBatchRoundTrips() throws Exception {
+        AtomicLong roundTrips = new AtomicLong();
+        PriceApiService plain = new PriceApiService(pool, LatencyModel.fixed(0)) {
+            @Override
+            public List<CompletableFuture<Double>> fetchBasePrices(List<HotelPricingRequest> requests) {
+                roundTrips.addAndGet((requests.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE);
+                return super.fetchBasePrices(requests);
+            }
+
+            @Override
+            public CompletableFuture<double[]> fetchNightlyRates(String hotelId, LocalDate fromDate, LocalDate toDate, String currency) {
+                roundTrips.incrementAndGet();
+                return super.fetchNightlyRates(hotelId, fromDate, toDate, currency);
+            }
+        };
+        NightlyPriceApiService nightly = new NightlyPriceApiService(plain);
+        nightly.fetchBasePrice("UK0", march(1), march(4), "GBP").get();
+        roundTrips.set(0);
+
+        List<HotelPricingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            requests.add(new HotelPricingRequest("UK" + i, march(2), march(5), "GBP"));
+        }
+        List<CompletableFuture<Double>> prices = nightly.fetchBasePrices(requests);
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(plain.fetchBasePrice("UK" + i, march(2), march(5), "GBP").get(), prices.get(i).get());
+        }
+        // UK0 has cached nights and fetches only its missing one; the other 249 take three batch round-trips.
+        assertEquals(1 + 3, roundTrips.get());
+    }
+
+    private static LocalDate march(int day) {
+        return LocalDate.of(2026, 3, day);
+    }
+
+    /** Each night's rate is its day of month, so sums show exactly which nights were priced. */
+    private static double[] rates(LocalDate from, LocalDate to) {
+        double[] rates = new double[(int) (to.toEpochDay() - from.toEpochDay())];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = from.plusDays(i).getDayOfMonth();
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PricePrefetcherTest {
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<PricePrefetcher> prefetchers = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        prefetchers.forEach(PricePrefetcher::close);
+    }
+
+    @Test
+    public void testSketchKeepsTheMostFrequentKeys() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(10);
+        for (int round = 0; round < 50; round++) {
+            for (int hot = 0; hot < 10; hot++) {
+                sketch.increment("hot-" + hot);
+            }
+            for (int cold = 0; cold < 100; cold++) {
+                sketch.increment("cold-" + round + "-" + cold);
+            }
+        }
+
+        List<String> hottest = sketch.hottest();
+        assertEquals(10, hottest.size());
+        assertTrue(hottest.toString(), hottest.stream().allMatch(key -> key.startsWith("hot-")));
+        assertTrue(sketch.estimate("hot-3") > sketch.estimate("cold-49-0"));
+
+        // Halving as traffic moves on lets new hot keys take over.
+        for (int round = 0; round < 200; round++) {
+            for (int hot = 0; hot < 10; hot++) {
+                sketch.increment("new-" + hot);
+            }
+            for (int cold = 0; cold < 100; cold++) {
+                sketch.increment("cold-" + round + "-" + cold);
+            }
+        }
+        assertTrue(sketch.hottest().toString(), sketch.hottest().stream().allMatch(key -> key.startsWith("new-")));
+        assertTrue(sketch.estimate("hot-3") < sketch.estimate("new-3"));
+    }
+
+    @Test
+    public void testRefreshKeepsServingTheCachedValue() {
+        AsyncCache<String, Integer> cache = new AsyncCache<>(Duration.ofSeconds(60), 10, clock::get);
+        cache.get("a", key -> CompletableFuture.completedFuture(1));
+        assertNull(cache.refresh("a", TimeUnit.SECONDS.toNanos(10), key -> CompletableFuture.completedFuture(2)));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(55));
+        CompletableFuture<Integer> reload = new CompletableFuture<>();
+        CompletableFuture<Integer> refresh = cache.refresh("a", TimeUnit.SECONDS.toNanos(10), key -> reload);
+        assertNull(cache.refresh("a", TimeUnit.SECONDS.toNanos(10), key -> CompletableFuture.completedFuture(3)));
+        assertEquals(1, (int) cache.get("a", key -> CompletableFuture.completedFuture(4)).join());
+
+        reload.complete(2);
+        assertEquals(2, (int) refresh.join());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertEquals(2, (int) cache.get("a", key -> CompletableFuture.completedFuture(4)).join());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(25));
+        cache.refresh("a", TimeUnit.SECONDS.toNanos(10), key -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+        assertEquals(2, (int) cache.get("a", key -> CompletableFuture.completedFuture(4)).join());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    public void testHotStaysAreRefreshedBeforeTheyExpire() throws Exception {
+        AtomicInteger priceCalls = new AtomicInteger();
+        CachingPriceApiService prices = new CachingPriceApiService(
+                new PriceApiService(Runnable::run, LatencyModel.fixed(0), () -> {
+                    priceCalls.incrementAndGet();
+                    return false;
+                }),
+                new AsyncCache<>(Duration.ofHours(4), 100, clock::get));
+        CachingAvailabilityApiService availability = new CachingAvailabilityApiService(
+                new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0)),
+                new AsyncCache<>(Duration.ofHours(4), 100, clock::get));
+        PricePrefetcher prefetcher = start(PricePrefetcher.builder()
+                .priceCache(prices).availabilityCache(availability)
+                .hotStays(1)
+                .interval(Duration.ofHours(1))
+                .refreshAhead(Duration.ofHours(2)));
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(prices)
+                .availabilityApiService(availability)
+                .prefetcher(prefetcher)
+                .build();
+        HotelPricingRequest hot = request("US1");
+        HotelPricingRequest cold = request("US2");
+        for (int i = 0; i < 5; i++) {
+            engine.getPricing(hot).get();
+        }
+        engine.getPricing(cold).get();
+        assertEquals(1, prefetcher.getHotStayCount());
+        assertEquals(0, prefetcher.refreshNow());
+
+        clock.addAndGet(Duration.ofHours(3).toNanos());
+        assertEquals(2, prefetcher.refreshNow());
+        assertEquals(3, priceCalls.get());
+        assertEquals(2, prefetcher.getRefreshCount());
+
+        clock.addAndGet(Duration.ofHours(2).toNanos());
+        long misses = prices.getCacheStats().getMisses();
+        engine.getPricing(hot).get();
+        assertEquals(misses, prices.getCacheStats().getMisses());
+        engine.getPricing(cold).get();
+        assertEquals(misses + 1, prices.getCacheStats().getMisses());
+    }
+
+    @Test
+    public void testRefreshesStayWithinTheBudgetAndYieldToLiveTraffic() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(2, 10);
+        CachingPriceApiService prices = new CachingPriceApiService(
+                new PriceApiService(task -> { }, LatencyModel.fixed(0)),
+                new AsyncCache<>(Duration.ofHours(4), 100, clock::get));
+        PricePrefetcher prefetcher = start(PricePrefetcher.builder()
+                .priceCache(prices)
+                .interval(Duration.ofHours(1))
+                .refreshAhead(Duration.ofHours(2))
+                .budget(1, 10)
+                .yieldTo(limiter, null));
+        prefetcher.record(request("US1"));
+        prefetcher.record(request("US2"));
+
+        CompletableFuture<String> live = new CompletableFuture<>();
+        limiter.submit(() -> live);
+        assertEquals(0, prefetcher.refreshNow());
+        assertEquals(1, prefetcher.getDeferredRunCount());
+
+        live.complete("done");
+        assertEquals(1, prefetcher.refreshNow());
+        assertEquals(1, prefetcher.getInFlight());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(2, prefetcher.getDeferredRunCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsRefreshAheadNotLongerThanTheInterval() {
+        PricePrefetcher.builder()
+                .priceCache(new CachingPriceApiService(new PriceApiService()))
+                .interval(Duration.ofSeconds(30))
+                .refreshAhead(Duration.ofSeconds(30))
+                .start();
+    }
+
+    private PricePrefetcher start(PricePrefetcher.Builder builder) {
+        PricePrefetcher prefetcher = builder.start();
+        prefetchers.add(prefetcher);
+        return prefetcher;
+    }
+
+    private static HotelPricingRequest request(String hotelId) {
+        return new HotelPricingRequest(hotelId, CHECK_IN, CHECK_IN.plusDays(2), "USD");
+    }
+}
@@ -0,0 +1,146 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PricingHttpServerTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("http-test", 16);
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private HotelPricerEngine engine;
+    private PricingHttpServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = new HotelPricerEngine(new PriceApiService(pool, LatencyModel.fixed(0)),
+                new AvailabilityApiService(pool, LatencyModel.fixed(0)));
+        server = PricingHttpServer.start(engine, new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSinglePricingMatchesEngine() throws Exception {
+        HttpResponse<String> response = get("/pricing?hotelId=US12345&checkIn=2026-03-15&checkOut=2026-03-18&currency=USD");
+        HotelPricingResponse expected = engine.getPricing(
+                new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD")).get();
+
+        JsonWriter json = new JsonWriter();
+        PricingJson.writeResponse(json, expected);
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals(json.toString(), response.body());
+    }
+
+    @Test
+    public void testRejectsInvalidRequests() throws Exception {
+        HttpResponse<String> missingDate = get("/pricing?hotelId=US1&checkIn=2026-03-15&currency=USD");
+        assertEquals(400, missingDate.statusCode());
+        assertEquals("{\"error\":\"checkOutDate must not be null\"}", missingDate.body());
+
+        assertEquals(400, get("/pricing?hotelId=US1&checkIn=15-03-2026&checkOut=2026-03-18&currency=USD").statusCode());
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/pricing")).POST(HttpRequest.BodyPublishers.noBody())).statusCode());
+        assertEquals(404, get("/pricing/unknown").statusCode());
+        assertEquals(400, post("/pricing/batch", "[{\"hotelId\":\"US1\"").statusCode());
+    }
+
+    @Test
+    public void testRejectsUnknownFieldsNestedTooDeep() throws Exception {
+        String request = "{\"hotelId\":\"US1\",\"checkIn\":\"2026-03-15\",\"checkOut\":\"2026-03-18\",\"currency\":\"USD\",\"x\":";
+        assertEquals(1, PricingJson.parseRequests("[" + request + "[".repeat(62) + "]".repeat(62) + "}]").size());
+        try {
+            PricingJson.parseRequests("[" + request + "[".repeat(63) + "]".repeat(63) + "}]");
+            fail("Nesting past 64 levels should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("JSON nesting deeper than 64"));
+        }
+
+        HttpResponse<String> response = post("/pricing/batch", "[" + request + "[".repeat(100_000) + "}]");
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    public void testBatchStreamsOneLinePerRequest() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 250; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"hotelId\":\"EU").append(10000 + i)
+                    .append("\",\"checkIn\":\"2026-06-01\",\"checkOut\":\"2026-06-04\",\"currency\":\"EUR\",\"note\":[1,{\"x\":null}]}");
+        }
+        HttpResponse<String> response = post("/pricing/batch", body.append("]").toString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null));
+        List<String> lines = response.body().lines().collect(Collectors.toList());
+        assertEquals(250, lines.size());
+        Set<String> indexes = new HashSet<>();
+        for (String line : lines) {
+            assertTrue(line, line.startsWith("{\"index\":") && line.contains("\"currency\":\"EUR\""));
+            indexes.add(line.substring(9, line.indexOf(',')));
+        }
+        assertEquals(250, indexes.size());
+    }
+
+    @Test
+    public void testJsonWriterEscapesAndFormatsMoney() {
+        JsonWriter json = new JsonWriter(16);
+        json.beginObject()
+                .name("text").value("a\"b\\c\né€")
+                .name("amounts").beginArray().money(1234.5).money(-7.5).money(330.0000000001).endArray()
+                .name("count").value(-42L)
+                .name("missing").value((String) null)
+                .endObject();
+
+        assertEquals("{\"text\":\"a\\\"b\\\\c\\u000aé€\",\"amounts\":[1234.50,-7.50,330.00],\"count\":-42,\"missing\":null}",
+                json.toString());
+        json.reset();
+        assertEquals("[]", json.beginArray().endArray().toString());
+    }
+
+    @Test
+    public void testLoadGeneratorReportsThroughput() throws Exception {
+        LoadReport result = new PricingLoadGenerator(
+                URI.create("http://127.0.0.1:" + server.getPort()), 4, Duration.ofMillis(500), 50, 7).run();
+
+        assertTrue(result.getRequests() > 0);
+        assertEquals(0, result.getErrors());
+        assertTrue(result.getThroughputPerSecond() > 0);
+        assertTrue(result.toString().contains("p99="));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static com.hotel.pricer.AsyncAssertions.awaitTrue;
+import static org.junit.Assert.*;
+
+public class PricingMetricsTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("metrics-test", 32);
+    private final InMemoryPricingMetrics metrics = new InMemoryPricingMetrics();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testRecordsStagesAndOutcomesPerRegion() throws Exception {
+        HotelPricerEngine engine = engine(0);
+        List<HotelPricingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            requests.add(new HotelPricingRequest((i % 2 == 0 ? "US" : "JP") + (10000 + i),
+                    LocalDate.of(2026, 6, i % 27 + 1), LocalDate.of(2026, 6, i % 27 + 2), "USD"));
+        }
+
+        long available = 0;
+        for (HotelPricingRequest request : requests) {
+            available += engine.getPricing(request).get().isAvailable() ? 1 : 0;
+        }
+
+        assertEquals(available, metrics.getAvailableCount());
+        assertEquals(requests.size() - available, metrics.getUnavailableCount());
+        assertEquals(0, metrics.getFailedCount());
+        assertEquals(15, metrics.getOutcomeCount("US", PricingOutcome.AVAILABLE) + metrics.getOutcomeCount("US", PricingOutcome.UNAVAILABLE));
+        assertEquals(15, metrics.getOutcomeCount("JP", PricingOutcome.AVAILABLE) + metrics.getOutcomeCount("JP", PricingOutcome.UNAVAILABLE));
+        assertEquals(requests.size(), metrics.getLatency(PricingStage.TOTAL).getCount());
+        assertEquals(available, metrics.getLatency(PricingStage.COMBINE).getCount());
+        // Upstream callbacks may still be finishing on the service threads after the response is handed out.
+        awaitTrue(() -> metrics.getInFlight(PricingStage.AVAILABILITY) == 0 && metrics.getInFlight(PricingStage.PRICE) == 0);
+        assertEquals(requests.size(), metrics.getLatency(PricingStage.AVAILABILITY).getCount());
+    }
+
+    @Test
+    public void testInFlightGaugeTracksRunningCalls() throws Exception {
+        HotelPricerEngine engine = engine(300);
+        List<CompletableFuture<HotelPricingResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(engine.getPricing(new HotelPricingRequest("EU" + i, LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 2), "USD")));
+        }
+
+        assertEquals(5, metrics.getPriceCallsInFlight());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        awaitTrue(() -> metrics.getPriceCallsInFlight() == 0);
+        assertTrue(metrics.getTotalLatencyP50Micros() >= 250_000);
+    }
+
+    @Test
+    public void testTimedOutPriceCountsAsFailure() throws Exception {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(1_000)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .priceTimeout(Duration.ofMillis(20))
+                .degradeOnFailure(true)
+                .metrics(metrics)
+                .build();
+
+        HotelPricingResponse response = engine.getPricing(
+                new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD")).get();
+
+        assertTrue(response.isFailed());
+        assertEquals(1, metrics.getOutcomeCount("US", PricingOutcome.FAILED));
+    }
+
+    @Test
+    public void testExposedThroughJmx() throws Exception {
+        HotelPricerEngine engine = engine(0);
+        engine.getPricingBatch(List.of(
+                new HotelPricingRequest("CA1", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 2), "USD"))).get();
+
+        awaitTrue(() -> metrics.getPriceCallsInFlight() == 0);
+        ObjectName name = metrics.registerMBean("jmx-test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            long outcomes = (Long) server.getAttribute(name, "AvailableCount") + (Long) server.getAttribute(name, "UnavailableCount");
+            assertEquals(1, outcomes);
+            assertEquals(0L, server.getAttribute(name, "PriceCallsInFlight"));
+            assertNotNull(server.getAttribute(name, "OutcomesByRegion"));
+        } finally {
+            InMemoryPricingMetrics.unregisterMBean(name);
+        }
+    }
+
+    private HotelPricerEngine engine(long latencyMillis) {
+        return HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(latencyMillis)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(latencyMillis)))
+                .metrics(metrics)
+                .build();
+    }
+}
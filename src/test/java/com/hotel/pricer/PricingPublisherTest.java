@@ -0,0 +1,201 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class PricingPublisherTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("publisher-test", 32);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testDemandBoundsInFlightPricings() throws Exception {
+        HotelPricerEngine engine = engine(LatencyModel.fixed(10));
+        CollectingSubscriber subscriber = new CollectingSubscriber(3);
+
+        engine.streamPricing(requests(40)).subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(40, subscriber.received.size());
+        assertTrue("In-flight pricings should follow demand, peaked at " + maxInFlight.get(), maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testInputOrderIsPreservedDespiteVaryingLatency() throws Exception {
+        Random random = new Random(42);
+        HotelPricerEngine engine = engine(() -> random.nextInt(20));
+        List<HotelPricingRequest> requests = requests(50);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        engine.streamPricing(requests, EmissionOrder.INPUT, 8).subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(requests.size(), subscriber.received.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i).getHotelId(), subscriber.received.get(i).getHotelId());
+        }
+        assertTrue(maxInFlight.get() <= 8);
+    }
+
+    @Test
+    public void testRequestsArePulledLazilyAndCancelStopsPricing() throws Exception {
+        HotelPricerEngine engine = engine(LatencyModel.fixed(0));
+        AtomicInteger pulled = new AtomicInteger();
+        Iterable<HotelPricingRequest> endless = () -> new Iterator<HotelPricingRequest>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public HotelPricingRequest next() {
+                return request(pulled.getAndIncrement());
+            }
+        };
+        CollectingSubscriber subscriber = new CollectingSubscriber(5) {
+            @Override
+            public void onNext(HotelPricingResponse item) {
+                super.onNext(item);
+                if (received.size() == 5) {
+                    subscription.cancel();
+                    done.countDown();
+                }
+            }
+        };
+
+        engine.streamPricing(endless).subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(5, subscriber.received.size());
+        assertEquals(5, pulled.get());
+    }
+
+    @Test
+    public void testNonPositiveRequestSignalsError() throws Exception {
+        CollectingSubscriber subscriber = new CollectingSubscriber(0);
+
+        engine(LatencyModel.fixed(0)).streamPricing(requests(3)).subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(subscriber.received.isEmpty());
+    }
+
+    @Test
+    public void testFailingPricerSignalsErrorInEitherOrder() throws Exception {
+        for (EmissionOrder order : EmissionOrder.values()) {
+            assertThirdPricingEndsStream(order, request -> CompletableFuture.failedFuture(new IllegalStateException("pricing failed")));
+            assertThirdPricingEndsStream(order, request -> CompletableFuture.completedFuture(null));
+            assertThirdPricingEndsStream(order, request -> null);
+        }
+    }
+
+    private void assertThirdPricingEndsStream(EmissionOrder order,
+                                              Function<HotelPricingRequest, CompletableFuture<HotelPricingResponse>> failing)
+            throws InterruptedException {
+        AtomicInteger priced = new AtomicInteger();
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        new PricingPublisher(requests(5), request -> priced.incrementAndGet() == 3
+                ? failing.apply(request)
+                : CompletableFuture.completedFuture(HotelPricingResponse.failed(request.getHotelId(), "USD", "stub")),
+                order, 1).subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertTrue(String.valueOf(subscriber.error), subscriber.error instanceof IllegalStateException);
+        assertEquals(2, subscriber.received.size());
+        assertEquals(3, priced.get());
+    }
+
+    private HotelPricerEngine engine(LatencyModel priceLatency) {
+        // Counts pricings between getPricing and the completion its caller observes; each one holds at most
+        // one price and one availability call.
+        return new HotelPricerEngine(new PriceApiService(pool, priceLatency), new AvailabilityApiService(pool, LatencyModel.fixed(0))) {
+            @Override
+            public CompletableFuture<HotelPricingResponse> getPricing(HotelPricingRequest request) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return super.getPricing(request).whenComplete((response, error) -> inFlight.decrementAndGet());
+            }
+        };
+    }
+
+    private static List<HotelPricingRequest> requests(int count) {
+        List<HotelPricingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(request(i));
+        }
+        return requests;
+    }
+
+    private static HotelPricingRequest request(int i) {
+        return new HotelPricingRequest("US" + (10000 + i), LocalDate.of(2026, 6, i % 27 + 1), LocalDate.of(2026, 6, i % 27 + 2), "USD");
+    }
+
+    /**
+     * Requests {@code batch} items up front and again each time the previous batch has been received.
+     */
+    private static class CollectingSubscriber implements Flow.Subscriber<HotelPricingResponse> {
+        final List<HotelPricingResponse> received = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        final long batch;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        private long remaining;
+
+        CollectingSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                remaining = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(HotelPricingResponse item) {
+            received.add(item);
+            if (batch != Long.MAX_VALUE && --remaining == 0) {
+                remaining = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
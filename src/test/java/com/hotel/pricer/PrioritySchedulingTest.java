@@ -0,0 +1,173 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotel.pricer.AsyncAssertions.causeOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrioritySchedulingTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 15);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService pool = UpstreamExecutors.bounded("priority-test", 8);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testUrgentCallsStartFirstAndInOrderWithinAPriority() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 10, clock::get);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        List<String> started = new CopyOnWriteArrayList<>();
+        submit(limiter, RequestPriority.BACKGROUND, "background", started);
+        submit(limiter, RequestPriority.NORMAL, "normal", started);
+        submit(limiter, RequestPriority.CRITICAL, "critical-1", started);
+        submit(limiter, RequestPriority.CRITICAL, "critical-2", started);
+
+        running.complete("done");
+
+        assertEquals(List.of("critical-1", "critical-2", "normal", "background"), started);
+    }
+
+    @Test
+    public void testQueuedCallIsNotOvertakenPastItsYield() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 10, clock::get);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        List<String> started = new CopyOnWriteArrayList<>();
+        submit(limiter, RequestPriority.BACKGROUND, "background", started);
+        clock.addAndGet(Duration.ofMillis(1_500).toNanos());
+        submit(limiter, RequestPriority.CRITICAL, "critical", started);
+
+        running.complete("done");
+
+        assertEquals(List.of("background", "critical"), started);
+    }
+
+    @Test
+    public void testCallsPastTheirDeadlineNeverStart() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 10, clock::get);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> queued = limiter.submit(RequestPriority.NORMAL, clock.get() + TimeUnit.MILLISECONDS.toNanos(50), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("late");
+        });
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        running.complete("done");
+
+        assertTrue(causeOf(queued) instanceof TimeoutException);
+        assertTrue(causeOf(limiter.submit(RequestPriority.CRITICAL, clock.get(), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("late");
+        })) instanceof TimeoutException);
+        assertEquals(0, calls.get());
+        assertEquals(2, limiter.getExpiredCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedCallFailsAtItsDeadlineWhileTheLimiterStaysBusy() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 10);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        CompletableFuture<String> queued = limiter.submit(RequestPriority.BACKGROUND,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50), () -> CompletableFuture.completedFuture("late"));
+
+        assertTrue(causeOf(queued) instanceof TimeoutException);
+        assertFalse(running.isDone());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getExpiredCount());
+        running.complete("done");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testFullQueueShedsLessUrgentCalls() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, 1, clock::get);
+        limiter.submit(CompletableFuture::new);
+        CompletableFuture<String> background = limiter.submit(RequestPriority.BACKGROUND, CompletableFuture::new);
+
+        CompletableFuture<String> critical = limiter.submit(RequestPriority.CRITICAL, CompletableFuture::new);
+        CompletableFuture<String> secondCritical = limiter.submit(RequestPriority.CRITICAL, CompletableFuture::new);
+
+        assertTrue(causeOf(background) instanceof RejectedExecutionException);
+        assertFalse(critical.isDone());
+        assertTrue(causeOf(secondCritical) instanceof RejectedExecutionException);
+        assertEquals(1, limiter.getQueued());
+        assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testCriticalRequestOvertakesABacklogOfBackgroundWork() throws Exception {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(20)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(20)))
+                .scheduleUpstreamCalls(ConcurrencyLimiter.fixed(1, 100), ConcurrencyLimiter.fixed(1, 100))
+                .build();
+        List<CompletableFuture<HotelPricingResponse>> background = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            background.add(engine.getPricing(request("US" + i).withPriority(RequestPriority.BACKGROUND)));
+        }
+
+        engine.getPricing(request("US99").withPriority(RequestPriority.CRITICAL)).get(5, TimeUnit.SECONDS);
+
+        long backgroundDone = background.stream().filter(CompletableFuture::isDone).count();
+        assertTrue("Background requests done first: " + backgroundDone, backgroundDone <= 2);
+        CompletableFuture.allOf(background.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRequestsPastTheirDeadlineFailWithoutCallingUpstream() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(Runnable::run, LatencyModel.fixed(0), () -> {
+                    upstreamCalls.incrementAndGet();
+                    return false;
+                }))
+                .availabilityApiService(new AvailabilityApiService(Runnable::run, LatencyModel.fixed(0)))
+                .build();
+        HotelPricingRequest expired = request("US1").withDeadline(Duration.ZERO);
+
+        assertTrue(causeOf(engine.getPricing(expired)) instanceof TimeoutException);
+        List<HotelPricingResponse> batch = engine.getPricingBatch(List.of(expired, request("US2"))).get();
+        assertTrue(batch.get(0).isFailed());
+        assertFalse(batch.get(1).isFailed());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(request("US1"), expired);
+        assertEquals(RequestPriority.NORMAL, expired.getPriority());
+    }
+
+    private static void submit(ConcurrencyLimiter limiter, RequestPriority priority, String name, List<String> started) {
+        limiter.submit(priority, () -> {
+            started.add(name);
+            return CompletableFuture.completedFuture(name);
+        });
+    }
+
+    private static HotelPricingRequest request(String hotelId) {
+        return new HotelPricingRequest(hotelId, CHECK_IN, CHECK_IN.plusDays(2), "USD");
+    }
+}
@@ -0,0 +1,153 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ResilientPricingTest {
+    private final ExecutorService pool = UpstreamExecutors.bounded("resilience-test", 32);
+    private final HotelPricingRequest request =
+            new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testPriceTimeoutFailsFutureWithoutDegradation() throws InterruptedException {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(2_000)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .priceTimeout(Duration.ofMillis(50))
+                .build();
+
+        long start = System.currentTimeMillis();
+        try {
+            engine.getPricing(request).get();
+            fail("Should have timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.currentTimeMillis() - start < 1_000);
+    }
+
+    @Test
+    public void testSlowAvailabilityDegradesToUnknown() throws Exception {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(2_000)))
+                .availabilityTimeout(Duration.ofMillis(50))
+                .degradeOnFailure(true)
+                .build();
+
+        HotelPricingResponse response = engine.getPricing(request).get(1, TimeUnit.SECONDS);
+
+        assertTrue(response.isAvailabilityUnknown());
+        assertFalse(response.isAvailable());
+        assertFalse(response.isPriceStale());
+        assertTrue(response.getBasePrice() > 0);
+        assertEquals(response.getBasePrice() * 1.10, response.getTotalPrice(), 0.01);
+    }
+
+    @Test
+    public void testSlowPriceFallsBackToStaleCachedValue() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AtomicLong priceLatency = new AtomicLong(0);
+        CachingPriceApiService cachedPrices = new CachingPriceApiService(
+                new PriceApiService(pool, priceLatency::get),
+                new AsyncCache<>(Duration.ofSeconds(30), 100, now::get));
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(cachedPrices)
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .priceTimeout(Duration.ofMillis(50))
+                .degradeOnFailure(true)
+                .build();
+
+        HotelPricingResponse fresh = engine.getPricing(request).get();
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        priceLatency.set(2_000);
+        HotelPricingResponse degraded = engine.getPricing(request).get(1, TimeUnit.SECONDS);
+
+        assertFalse(fresh.isDegraded());
+        assertTrue(degraded.isPriceStale());
+        assertEquals(fresh.getTotalPrice(), degraded.getTotalPrice(), 0.001);
+    }
+
+    @Test
+    public void testMissingPriceWithoutFallbackIsFailedResponse() throws Exception {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(2_000)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .priceTimeout(Duration.ofMillis(50))
+                .degradeOnFailure(true)
+                .build();
+
+        HotelPricingResponse response = engine.getPricing(request).get(1, TimeUnit.SECONDS);
+
+        assertTrue(response.isFailed());
+        assertTrue(response.getErrorMessage().startsWith("Price unavailable"));
+    }
+
+    @Test
+    public void testHedgingCutsTailLatency() throws Exception {
+        long unhedgedWorst = worstLatencyMillis(HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, everyTenthCallSlow()))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(10)))
+                .build());
+        HotelPricerEngine hedged = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, everyTenthCallSlow()))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(10)))
+                .hedgePriceCalls(Duration.ofMillis(50))
+                .build();
+        long hedgedWorst = worstLatencyMillis(hedged);
+
+        assertTrue("Unhedged tail should include the slow call, was " + unhedgedWorst + "ms", unhedgedWorst >= 900);
+        assertTrue("Hedged tail should be bounded near the hedge delay, was " + hedgedWorst + "ms", hedgedWorst < 400);
+        assertTrue(hedged.getHedgedCallCount() > 0);
+    }
+
+    @Test
+    public void testHedgeBehindACacheMakesItsOwnUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        LatencyModel firstCallSlow = () -> upstreamCalls.incrementAndGet() == 1 ? 1_000 : 10;
+        HotelPricerEngine hedged = HotelPricerEngine.builder()
+                .priceApiService(new CachingPriceApiService(new PriceApiService(pool, firstCallSlow)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .hedgePriceCalls(Duration.ofMillis(50))
+                .build();
+
+        long start = System.nanoTime();
+        HotelPricingResponse response = hedged.getPricing(request).get();
+
+        assertFalse(response.isFailed());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 400);
+        assertEquals(1, hedged.getHedgedCallCount());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static LatencyModel everyTenthCallSlow() {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> calls.incrementAndGet() % 10 == 5 ? 1_000 : 10;
+    }
+
+    private long worstLatencyMillis(HotelPricerEngine engine) throws Exception {
+        long worst = 0;
+        for (int i = 0; i < 30; i++) {
+            long start = System.nanoTime();
+            engine.getPricing(request).get();
+            worst = Math.max(worst, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return worst;
+    }
+}
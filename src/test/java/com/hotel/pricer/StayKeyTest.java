@@ -0,0 +1,79 @@
+package com.hotel.pricer;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StayKeyTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 15);
+
+    @Test
+    public void testPackedHotelIdsRoundTrip() {
+        for (String hotelId : List.of("US1", "US0", "ZZ00042", "AA99999999999999", "EU12345")) {
+            long code = StayKey.encodeHotelId(hotelId);
+            assertTrue(hotelId, code >= 0);
+            assertEquals(hotelId, StayKey.decodeHotelId(code));
+        }
+        assertNotEquals(StayKey.encodeHotelId("US1"), StayKey.encodeHotelId("US01"));
+    }
+
+    @Test
+    public void testOtherHotelIdsAreKeptAsStrings() {
+        for (String hotelId : List.of("", "US", "us1", "U1", "USA1", "US1A", "AA999999999999999", "ÜS1", "US１")) {
+            assertEquals(hotelId, StayKey.NOT_ENCODED, StayKey.encodeHotelId(hotelId));
+            StayKey key = new StayKey(hotelId, CHECK_IN, CHECK_IN.plusDays(1), "USD");
+            assertEquals(hotelId, key.getHotelId());
+            assertEquals(key, new StayKey(hotelId, CHECK_IN, CHECK_IN.plusDays(1), "USD"));
+        }
+    }
+
+    @Test
+    public void testKeysCompareByStayAndCurrency() {
+        StayKey key = new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD");
+        StayKey same = new StayKey("US1", (int) CHECK_IN.toEpochDay(), (int) CHECK_IN.toEpochDay() + 2, new String("USD"));
+
+        assertEquals(key, same);
+        assertEquals(key.hashCode(), same.hashCode());
+        assertEquals(CHECK_IN.plusDays(2), key.getCheckOutDate());
+        assertEquals("US1/2026-03-15/2026-03-17/USD", key.toString());
+        assertNotEquals(key, new StayKey("US01", CHECK_IN, CHECK_IN.plusDays(2), "USD"));
+        assertNotEquals(key, new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(3), "USD"));
+        assertNotEquals(key, new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), "EUR"));
+        assertNotEquals(key, key.withoutCurrency());
+        assertEquals(key.withoutCurrency(), new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), null));
+    }
+
+    @Test
+    public void testRequestsCarryTheirKeys() {
+        HotelPricingRequest request = new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD");
+
+        assertEquals(new StayKey("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD"), request.priceKey());
+        assertSame(request.availabilityKey(), request.availabilityKey());
+        assertSame(request.priceKey(), request.withPriority(RequestPriority.CRITICAL).priceKey());
+        assertEquals(request.hashCode(), new HotelPricingRequest("US1", CHECK_IN, CHECK_IN.plusDays(2), "USD").hashCode());
+        assertFalse(StayKey.isRepresentable(LocalDate.MAX));
+    }
+
+    @Test
+    public void testAvailabilityMatchesTheConcatenatedHash() {
+        List<String> hotelIds = List.of("US1", "EU42", "AP007", "hotel-ß", "");
+        List<LocalDate> dates = List.of(CHECK_IN, LocalDate.of(1, 1, 1), LocalDate.of(999, 12, 31),
+                LocalDate.of(9999, 12, 31), LocalDate.of(10_000, 1, 1), LocalDate.of(-5, 6, 7), LocalDate.MIN);
+        for (String hotelId : hotelIds) {
+            for (LocalDate date : dates) {
+                assertEquals(hotelId + date, (hotelId + date).hashCode(), AvailabilityApiService.concatenatedHash(hotelId, date));
+            }
+            for (int i = 0; i < 800; i++) {
+                LocalDate date = CHECK_IN.plusDays(i);
+                assertEquals(Math.abs((hotelId + date).hashCode()) % 10 < 8, AvailabilityApiService.isAvailable(hotelId, date));
+            }
+        }
+    }
+}
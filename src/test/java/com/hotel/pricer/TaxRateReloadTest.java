@@ -0,0 +1,130 @@
+package com.hotel.pricer;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hotel.pricer.AsyncAssertions.awaitTrue;
+import static org.junit.Assert.*;
+
+public class TaxRateReloadTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService pool = UpstreamExecutors.bounded("tax-reload-test", 16);
+    private final HotelPricingRequest request =
+            new HotelPricingRequest("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 18), "USD");
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testEveryResponseUsesOneConsistentSnapshotDuringReloads() throws Exception {
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .build();
+        // Odd versions tax US at 10%, even versions at 30%; DEFAULT moves with them so a torn read would show.
+        Map<Long, Double> usRateByVersion = new HashMap<>();
+        usRateByVersion.put(engine.getTaxRatesVersion(), 0.10);
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        Thread reloader = new Thread(() -> {
+            while (reloading.get()) {
+                long next = engine.getTaxRatesVersion() + 1;
+                double usRate = next % 2 == 0 ? 0.30 : 0.10;
+                synchronized (usRateByVersion) {
+                    usRateByVersion.put(next, usRate);
+                }
+                engine.updateTaxRates(rates(usRate, usRate / 2));
+            }
+        });
+        reloader.start();
+
+        List<CompletableFuture<HotelPricingResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            futures.add(engine.getPricing(request));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        awaitTrue(() -> engine.getTaxRatesVersion() > 2, Duration.ofSeconds(15));
+        reloading.set(false);
+        reloader.join();
+
+        for (CompletableFuture<HotelPricingResponse> future : futures) {
+            HotelPricingResponse response = future.join();
+            assertTrue(response.getTaxRatesVersion() >= 1);
+            double expectedRate;
+            synchronized (usRateByVersion) {
+                expectedRate = usRateByVersion.get(response.getTaxRatesVersion());
+            }
+            assertEquals(response.getBasePrice() * expectedRate, response.getTax(), 0.0001);
+        }
+    }
+
+    @Test
+    public void testLoadsInitialRatesFromFileAndReloads() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("tax-rates.properties");
+        write(file, "US=0.25\nDEFAULT=0.05\n");
+        HotelPricerEngine engine = HotelPricerEngine.builder()
+                .priceApiService(new PriceApiService(pool, LatencyModel.fixed(0)))
+                .availabilityApiService(new AvailabilityApiService(pool, LatencyModel.fixed(0)))
+                .taxRatesFile(file)
+                .build();
+
+        HotelPricingResponse before = engine.getPricing(request).get();
+        write(file, "US=0.50\nDEFAULT=0.05\n");
+        long version = engine.reloadTaxRates(file);
+        HotelPricingResponse after = engine.getPricing(request).get();
+
+        assertEquals(1, before.getTaxRatesVersion());
+        assertEquals(before.getBasePrice() * 0.25, before.getTax(), 0.0001);
+        assertEquals(2, version);
+        assertEquals(2, after.getTaxRatesVersion());
+        assertEquals(after.getBasePrice() * 0.50, after.getTax(), 0.0001);
+    }
+
+    @Test
+    public void testWatcherPicksUpEditsAndSurvivesBadFiles() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("tax-rates.properties");
+        write(file, "US=0.10\nDEFAULT=0.05\n");
+        HotelPricerEngine engine = HotelPricerEngine.builder().taxRatesFile(file).build();
+
+        try (TaxRateFileWatcher watcher = engine.watchTaxRates(file)) {
+            write(file, "US=not-a-rate\nDEFAULT=0.05\n");
+            awaitTrue(() -> watcher.getFailedReloadCount() > 0, Duration.ofSeconds(15));
+            assertEquals(0.10, engine.taxRateFor("US1"), 0.0);
+            assertTrue(watcher.getLastError() instanceof IllegalArgumentException);
+
+            write(file, "US=0.40\nDEFAULT=0.05\n");
+            awaitTrue(() -> engine.taxRateFor("US1") == 0.40, Duration.ofSeconds(15));
+            assertTrue(engine.getTaxRatesVersion() > 1);
+        }
+    }
+
+    private static Map<String, Double> rates(double usRate, double defaultRate) {
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("US", usRate);
+        rates.put("DEFAULT", defaultRate);
+        return rates;
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
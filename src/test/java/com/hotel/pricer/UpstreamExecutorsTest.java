@@ -0,0 +1,87 @@
+package com.hotel.pricer;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.*;
+
+public class UpstreamExecutorsTest {
+    private static final int UPSTREAM_LATENCY_MS = 100;
+
+    @Test
+    public void testThroughputScalesWithPoolSizeNotCoreCount() throws Exception {
+        int requests = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+        ExecutorService smallPool = UpstreamExecutors.bounded("small-pool", 2);
+        ExecutorService largePool = UpstreamExecutors.bounded("large-pool", requests);
+        try {
+            long smallPoolDuration = timeConcurrentLookups(new HotelPricerEngine(smallPool), requests);
+            long largePoolDuration = timeConcurrentLookups(new HotelPricerEngine(largePool), requests);
+
+            // With 2 threads, 2 * requests sleeping calls must run in (requests) waves of 100ms.
+            assertTrue("Small pool should be bounded by its size. Took: " + smallPoolDuration + "ms",
+                    smallPoolDuration >= (long) requests * UPSTREAM_LATENCY_MS * 9 / 10);
+            // With one thread per call, every call overlaps regardless of how many cores are present.
+            assertTrue("Large pool should overlap all calls. Took: " + largePoolDuration + "ms",
+                    largePoolDuration < UPSTREAM_LATENCY_MS * 4);
+        } finally {
+            smallPool.shutdownNow();
+            largePool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testServicesRunOnSuppliedExecutor() throws Exception {
+        ExecutorService pool = UpstreamExecutors.bounded("supplied-pool", 1);
+        try {
+            PriceApiService priceApiService = new PriceApiService(pool);
+            String threadName = priceApiService.fetchBasePrice("US12345", LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 16), "USD")
+                    .thenApply(price -> Thread.currentThread().getName())
+                    .get();
+
+            assertTrue("Expected supplied pool thread but was " + threadName, threadName.startsWith("supplied-pool"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsOrBoundedAlwaysReturnsExecutor() {
+        ExecutorService executor = UpstreamExecutors.virtualThreadsOrBounded("fallback", 4);
+        try {
+            assertNotNull(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullExecutorRejected() {
+        new PriceApiService(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositivePoolSizeRejected() {
+        UpstreamExecutors.bounded("empty", 0);
+    }
+
+    private long timeConcurrentLookups(HotelPricerEngine engine, int requests) {
+        List<CompletableFuture<HotelPricingResponse>> futures = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < requests; i++) {
+            futures.add(engine.getPricing(new HotelPricingRequest(
+                    "US" + (10000 + i),
+                    LocalDate.of(2026, 3, 15),
+                    LocalDate.of(2026, 3, 16),
+                    "USD"
+            )));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return System.currentTimeMillis() - start;
+    }
+}